@@ -6,6 +6,7 @@ import java.math.RoundingMode;
 import java.util.*;
 
 public class ETLPipeline {
+    private int rowsSkipped; // rows dropped by extract or transform in the current run
     
     public static void main(String[] args) {
         ETLPipeline etl = new ETLPipeline();
@@ -13,10 +14,12 @@ public class ETLPipeline {
     }
     
     public void run() {
-        String inputFile = "data/products.csv";
-        String outputFile = "data/transformed_products.csv";
-        
+        run("data/products.csv", "data/transformed_products.csv");
+    }
+    
+    public void run(String inputFile, String outputFile) {
         System.out.println("Starting ETL Pipeline...");
+        rowsSkipped = 0;
         
         try {
             // extract
@@ -32,7 +35,7 @@ public class ETLPipeline {
             load(transformedData, outputFile);
             
             // print summary
-            printSummary(data.size(), outputFile);
+            printSummary(transformedData.size(), outputFile);
             
         } catch (Exception e) {
             System.err.println("Unexpected error: " + e.getMessage());
@@ -69,6 +72,7 @@ public class ETLPipeline {
                 } else {
                     if (columns.length != 4) {
                         System.out.println("Warning: Skipping invalid row: " + line);
+                        rowsSkipped++;
                         continue;
                     }
                 }
@@ -132,7 +136,7 @@ public class ETLPipeline {
                 String[] transformedRow = new String[5];
                 transformedRow[0] = String.valueOf(productId);
                 transformedRow[1] = name;
-                transformedRow[2] = String.format("%.2f", price);
+                transformedRow[2] = formatPrice(price);
                 transformedRow[3] = category;
                 transformedRow[4] = priceRange;
                 
@@ -140,6 +144,7 @@ public class ETLPipeline {
                 
             } catch (NumberFormatException e) {
                 System.out.println("Warning: Skipping invalid data row: " + String.join(",", row));
+                rowsSkipped++;
             }
         }
         
@@ -147,11 +152,35 @@ public class ETLPipeline {
     }
     
     private double roundPrice(double price) {
+        // fast exact path: same result as BigDecimal HALF_UP below 2^43
+        double magnitude = Math.abs(price);
+        if (magnitude < 0x1p43) {
+            long cents = (long) Math.floor(magnitude * 100 + 0.5);
+            if (Math.fma(magnitude, 200.0, -(2 * cents - 1)) < 0) {
+                cents--; // fma keeps the sign of price * 200 - boundary exact
+            } else if (Math.fma(magnitude, 200.0, -(2 * cents + 1)) >= 0) {
+                cents++;
+            }
+            return (price < 0 ? -cents : cents) / 100.0;
+        }
+        
         BigDecimal bd = new BigDecimal(price);
         bd = bd.setScale(2, RoundingMode.HALF_UP);
         return bd.doubleValue();
     }
     
+    private String formatPrice(double price) {
+        // exact cents values print directly; anything else goes through %.2f
+        double magnitude = Math.abs(price);
+        long cents = Math.round(magnitude * 100);
+        if (magnitude < 1e13 && cents / 100.0 == magnitude) {
+            String digits = String.valueOf(cents % 100 + 100).substring(1);
+            String sign = Double.doubleToRawLongBits(price) < 0 ? "-" : "";
+            return sign + (cents / 100) + "." + digits;
+        }
+        return String.format(Locale.ROOT, "%.2f", price);
+    }
+    
     private String getPriceRange(double price) {
         if (price <= 10.00) {
             return "Low";
@@ -182,11 +211,11 @@ public class ETLPipeline {
     }
     
     private void printSummary(int totalRows, String outputPath) {
-        int dataRows = totalRows - 1; // Subtract header row
+        int dataRows = Math.max(totalRows - 1, 0); // Subtract header row
         System.out.println("\n=== ETL Pipeline Summary ===");
-        System.out.println("Rows read: " + dataRows);
+        System.out.println("Rows read: " + (dataRows + rowsSkipped));
         System.out.println("Rows transformed: " + dataRows);
-        System.out.println("Rows skipped: 0");
+        System.out.println("Rows skipped: " + rowsSkipped);
         System.out.println("Output path: " + outputPath);
         System.out.println("ETL process completed successfully!");
     }
@@ -0,0 +1,245 @@
+package org.howard.edu.lsp.assignment3;
+
+import java.io.*;
+import java.nio.file.*;
+import java.util.*;
+import java.util.concurrent.*;
+
+/**
+ * runs the ETL process over many input files inside one JVM.
+ * the inputs are a directory of CSV files or a glob such as
+ * data/vendors/*.csv. every file is streamed through extract, transform and
+ * load as one task on a fixed-size worker pool, writing its own output file,
+ * so throughput is bounded by the pool and the disk rather than by the number
+ * of files. the largest files are started first to keep the last few workers
+ * from finishing long after the others.
+ */
+public class BatchETL {
+    private String outputDir;
+    private int threads;
+    private ProductTransformer transformer = new ProductTransformer();
+    private boolean memoryMapped;
+    private boolean fixedPoint;
+    private ETLMetrics metrics = new ETLMetrics();
+    
+    /**
+     * the outcome of processing one input file.
+     */
+    public static class FileResult {
+        private Path input;
+        private Path output;
+        private int rows;
+        private long bytes;
+        private long millis;
+        private String error;
+        
+        FileResult(Path input, Path output) {
+            this.input = input;
+            this.output = output;
+        }
+        
+        public Path getInput() { return input; }
+        public Path getOutput() { return output; }
+        public int getRows() { return rows; }
+        public long getBytes() { return bytes; }
+        public long getMillis() { return millis; }
+        public String getError() { return error; }
+        public boolean isSuccess() { return error == null; }
+    }
+    
+    /**
+     * constructs a BatchETL that writes outputs into a directory.
+     * 
+     * @param outputDir the directory for the transformed files
+     * @param threads the number of files processed at once
+     */
+    public BatchETL(String outputDir, int threads) {
+        this.outputDir = outputDir;
+        this.threads = Math.max(1, threads);
+    }
+    
+    /**
+     * sets the transformer shared by every file.
+     * 
+     * @param transformer the transformer to use
+     */
+    public void setTransformer(ProductTransformer transformer) {
+        this.transformer = transformer;
+    }
+    
+    /**
+     * selects the memory-mapped reader backend for every file.
+     * 
+     * @param memoryMapped true to read inputs through memory-mapped files
+     */
+    public void setMemoryMapped(boolean memoryMapped) {
+        this.memoryMapped = memoryMapped;
+    }
+    
+    /**
+     * selects fixed-point money mode for every file.
+     * 
+     * @param fixedPoint true to parse prices as cents where possible
+     */
+    public void setFixedPoint(boolean fixedPoint) {
+        this.fixedPoint = fixedPoint;
+    }
+    
+    /**
+     * sets the metrics shared by every file. rows and bytes are summed over
+     * all files, and each file is one timed call of the TOTAL stage, so its
+     * latency histogram shows the spread of per-file times.
+     * 
+     * @param metrics the metrics to update
+     */
+    public void setMetrics(ETLMetrics metrics) {
+        this.metrics = metrics;
+    }
+    
+    /**
+     * finds the input files for a directory or glob. a directory yields the
+     * .csv files directly inside it, including compressed .csv.gz,
+     * .csv.deflate and .csv.zz files; otherwise the last path element is a
+     * glob matched against the files of its parent directory.
+     * 
+     * @param pattern a directory or glob
+     * @return the matching files, sorted by name
+     * @throws IOException if the directory cannot be listed
+     */
+    public static List<Path> findInputs(String pattern) throws IOException {
+        Path path = Paths.get(pattern);
+        Path dir;
+        PathMatcher matcher;
+        if (Files.isDirectory(path)) {
+            dir = path;
+            matcher = FileSystems.getDefault().getPathMatcher("glob:*.{csv,csv.gz,csv.deflate,csv.zz}");
+        } else {
+            dir = path.getParent() == null ? Paths.get(".") : path.getParent();
+            matcher = FileSystems.getDefault().getPathMatcher("glob:" + path.getFileName());
+        }
+        
+        if (!Files.isDirectory(dir)) {
+            throw new IOException("Input directory '" + dir + "' not found.");
+        }
+        
+        List<Path> inputs = new ArrayList<>();
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(dir)) {
+            for (Path file : files) {
+                if (Files.isRegularFile(file) && matcher.matches(file.getFileName())) {
+                    inputs.add(file);
+                }
+            }
+        }
+        Collections.sort(inputs);
+        return inputs;
+    }
+    
+    /**
+     * processes every input file on the worker pool and waits for all of them.
+     * a file that fails is reported in its result and does not stop the others.
+     * 
+     * @param inputs the files to process
+     * @return one result per input, in the order given
+     * @throws IOException if the output directory cannot be created
+     */
+    public List<FileResult> run(List<Path> inputs) throws IOException {
+        Files.createDirectories(Paths.get(outputDir));
+        
+        List<FileResult> results = new ArrayList<>();
+        for (Path input : inputs) {
+            results.add(new FileResult(input, Paths.get(outputDir, "transformed_" + input.getFileName())));
+        }
+        
+        // largest files first so no big file is left for the end
+        List<FileResult> bySize = new ArrayList<>(results);
+        Map<FileResult, Long> sizes = new HashMap<>();
+        for (FileResult result : bySize) {
+            sizes.put(result, sizeOf(result.input));
+        }
+        bySize.sort((a, b) -> Long.compare(sizes.get(b), sizes.get(a)));
+        
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (FileResult result : bySize) {
+                futures.add(pool.submit(() -> process(result)));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Batch interrupted");
+        } catch (ExecutionException e) {
+            throw new IOException("Batch worker failed: " + e.getCause(), e.getCause());
+        } finally {
+            pool.shutdownNow();
+        }
+        return results;
+    }
+    
+    /**
+     * streams one file through extract, transform and load.
+     */
+    private void process(FileResult result) {
+        long start = System.nanoTime();
+        CSVExtractor extractor = new CSVExtractor(result.input.toString());
+        extractor.setMemoryMapped(memoryMapped);
+        extractor.setFixedPoint(fixedPoint);
+        extractor.setMetrics(metrics);
+        CSVLoader loader = new CSVLoader(result.output.toString());
+        loader.setMetrics(metrics);
+        
+        ETLMetrics.Timer timer = metrics.time(ETLMetrics.Stage.TOTAL);
+        try (loader) {
+            loader.open(transformer.getHeader());
+            result.rows = extractor.stream(product -> {
+                transformer.transform(product);
+                loader.write(product);
+            });
+            result.bytes = sizeOf(result.input);
+        } catch (IOException | RuntimeException e) {
+            result.error = e.getMessage() == null ? e.toString() : e.getMessage();
+        } finally {
+            timer.stop();
+        }
+        result.millis = (System.nanoTime() - start) / 1_000_000;
+    }
+    
+    private static long sizeOf(Path file) {
+        try {
+            return Files.size(file);
+        } catch (IOException e) {
+            return 0;
+        }
+    }
+    
+    /**
+     * formats an overall summary of a batch run.
+     * 
+     * @param results the results of {@link #run(List)}
+     * @param wallMillis the elapsed time of the whole run
+     * @return a multi-line summary
+     */
+    public static String summarize(List<FileResult> results, long wallMillis) {
+        int succeeded = 0;
+        long rows = 0;
+        long bytes = 0;
+        StringBuilder failures = new StringBuilder();
+        for (FileResult result : results) {
+            if (result.isSuccess()) {
+                succeeded++;
+                rows += result.rows;
+                bytes += result.bytes;
+            } else {
+                failures.append("\nFailed: ").append(result.input).append(" (").append(result.error).append(')');
+            }
+        }
+        
+        double seconds = Math.max(wallMillis, 1) / 1000.0;
+        return String.format(Locale.ROOT,
+            "Files processed: %d of %d%nRows processed: %d%nInput size: %.1f MB%nElapsed: %d ms (%.0f rows/s, %.1f MB/s)",
+            succeeded, results.size(), rows, bytes / 1048576.0, wallMillis, rows / seconds, bytes / 1048576.0 / seconds)
+            + failures;
+    }
+}
\ No newline at end of file
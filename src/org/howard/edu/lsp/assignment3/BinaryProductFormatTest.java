@@ -0,0 +1,76 @@
+package org.howard.edu.lsp.assignment3;
+
+import static org.junit.Assert.*;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * round-trip tests for {@link BinaryProductWriter} and {@link BinaryProductReader}.
+ */
+public class BinaryProductFormatTest {
+    private File file;
+    
+    @Before
+    public void setUp() throws IOException {
+        file = File.createTempFile("products", ".bin");
+    }
+    
+    @After
+    public void tearDown() {
+        file.delete();
+    }
+    
+    @Test
+    public void testRoundTripMatchesCSV() throws IOException {
+        List<Product> products = Arrays.asList(
+            new Product(7, "Laptop", 999.99, "Electronics"),
+            new Product(2, "Café Mug", 8.5, "Kitchen"),
+            new Product(40, "Desk", 150.0, "Furniture"),
+            new Product(3, "Headphones", 45.0, "Electronics"));
+        new ProductTransformer().transform(products);
+        
+        new BinaryProductWriter(file.getPath()).write(products);
+        
+        try (BinaryProductReader reader = new BinaryProductReader(file.getPath())) {
+            assertEquals(4, reader.size());
+            assertEquals(2, reader.getMinProductId());
+            assertEquals(40, reader.getMaxProductId());
+            assertEquals(8.5, reader.getMinPrice(), 0.0);
+            assertEquals(899.99, reader.getMaxPrice(), 0.0);
+            assertEquals(4, reader.getCategories().length);
+            assertEquals("CAFÉ MUG", reader.getName(1));
+            assertEquals("Premium Electronics", reader.getCategory(0));
+            assertEquals("Low", reader.getPriceRange(1));
+            
+            ProductBatch batch = reader.toBatch();
+            for (int row = 0; row < products.size(); row++) {
+                assertEquals(products.get(row).toCSV(), batch.toCSV(row));
+            }
+        }
+    }
+    
+    @Test
+    public void testEmptyBatch() throws IOException {
+        new BinaryProductWriter(file.getPath()).write(new ProductBatch());
+        
+        try (BinaryProductReader reader = new BinaryProductReader(file.getPath())) {
+            assertEquals(0, reader.size());
+            assertTrue(Double.isNaN(reader.getMinPrice()));
+            assertEquals(0, reader.toBatch().size());
+        }
+    }
+    
+    @Test(expected = IOException.class)
+    public void testRejectsCSVFile() throws IOException {
+        Files.write(file.toPath(), "ProductID,Name,Price,Category,PriceRange\n".getBytes());
+        new BinaryProductReader(file.getPath()).close();
+    }
+}
\ No newline at end of file
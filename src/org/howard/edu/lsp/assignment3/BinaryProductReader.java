@@ -0,0 +1,220 @@
+package org.howard.edu.lsp.assignment3;
+
+import java.io.*;
+import java.nio.*;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * reads a file written by {@link BinaryProductWriter} through a memory map.
+ * the numeric columns are exposed as views over the mapped bytes, so nothing
+ * is parsed or copied when the file is opened; names are decoded only when a
+ * row's name is asked for. the header statistics can be checked before any
+ * column is touched. files up to 2 GB can be read.
+ */
+public class BinaryProductReader implements Closeable {
+    private FileChannel channel;
+    private int rows;
+    private int minProductId;
+    private int maxProductId;
+    private double minPrice;
+    private double maxPrice;
+    private String[] categories;
+    private String[] priceRanges;
+    private IntBuffer productIds;
+    private DoubleBuffer prices;
+    private ByteBuffer categoryCodes;
+    private IntBuffer wideCategoryCodes;
+    private ByteBuffer priceRangeCodes;
+    private IntBuffer nameOffsets;
+    private ByteBuffer nameBytes;
+    
+    /**
+     * opens and maps a binary product file.
+     * 
+     * @param inputPath the path to the binary file
+     * @throws IOException if the file cannot be read or is not a product file
+     */
+    public BinaryProductReader(String inputPath) throws IOException {
+        File file = new File(inputPath);
+        if (!file.exists()) {
+            throw new IOException("Input file '" + inputPath + "' not found.");
+        }
+        
+        channel = FileChannel.open(file.toPath(), StandardOpenOption.READ);
+        try {
+            long size = channel.size();
+            if (size > Integer.MAX_VALUE) {
+                throw new IOException("Binary file '" + inputPath + "' is larger than 2 GB.");
+            }
+            if (size < BinaryProductWriter.HEADER_BYTES) {
+                throw new IOException("Binary file '" + inputPath + "' is truncated.");
+            }
+            ByteBuffer map = channel.map(FileChannel.MapMode.READ_ONLY, 0, size).order(ByteOrder.LITTLE_ENDIAN);
+            
+            if (map.getInt(0) != BinaryProductWriter.MAGIC) {
+                throw new IOException("'" + inputPath + "' is not a binary product file.");
+            }
+            if (map.getInt(4) != BinaryProductWriter.VERSION
+                    || map.getInt(12) != BinaryProductWriter.SECTION_COUNT) {
+                throw new IOException("Unsupported binary product file version in '" + inputPath + "'.");
+            }
+            rows = map.getInt(8);
+            minProductId = map.getInt(16);
+            maxProductId = map.getInt(20);
+            minPrice = map.getDouble(24);
+            maxPrice = map.getDouble(32);
+            
+            ByteBuffer[] sections = new ByteBuffer[BinaryProductWriter.SECTION_COUNT];
+            int position = BinaryProductWriter.HEADER_BYTES;
+            for (int i = 0; i < sections.length; i++) {
+                if (position + 8 > size) {
+                    throw new IOException("Binary file '" + inputPath + "' is truncated.");
+                }
+                long length = map.getLong(position);
+                if (length < 0 || position + 8 + length > size) {
+                    throw new IOException("Binary file '" + inputPath + "' is truncated.");
+                }
+                sections[i] = map.slice(position + 8, (int) length).order(ByteOrder.LITTLE_ENDIAN);
+                position += 8 + (int) ((length + 7) & ~7L);
+            }
+            
+            categories = readDictionary(sections[0]);
+            priceRanges = readDictionary(sections[1]);
+            productIds = sections[2].asIntBuffer();
+            prices = sections[3].asDoubleBuffer();
+            if (sections[4].capacity() == rows) {
+                categoryCodes = sections[4];
+            } else {
+                wideCategoryCodes = sections[4].asIntBuffer();
+            }
+            priceRangeCodes = sections[5];
+            nameOffsets = sections[6].slice(0, 4 * (rows + 1)).order(ByteOrder.LITTLE_ENDIAN).asIntBuffer();
+            nameBytes = sections[6].slice(4 * (rows + 1), sections[6].capacity() - 4 * (rows + 1));
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e instanceof IOException ? (IOException) e
+                : new IOException("Binary file '" + inputPath + "' is corrupt: " + e, e);
+        }
+    }
+    
+    // header statistics
+    public int size() { return rows; }
+    public int getMinProductId() { return minProductId; }
+    public int getMaxProductId() { return maxProductId; }
+    public double getMinPrice() { return minPrice; }
+    public double getMaxPrice() { return maxPrice; }
+    
+    // row accessors
+    public int getProductId(int row) { return productIds.get(row); }
+    public double getPrice(int row) { return prices.get(row); }
+    
+    /**
+     * gets the category of a row from the file's dictionary.
+     * 
+     * @param row the row index
+     * @return the category
+     */
+    public String getCategory(int row) {
+        return categories[getCategoryCode(row)];
+    }
+    
+    /**
+     * gets the dictionary code of a row's category.
+     * 
+     * @param row the row index
+     * @return the category code within this file
+     */
+    public int getCategoryCode(int row) {
+        return categoryCodes != null ? categoryCodes.get(row) & 0xFF : wideCategoryCodes.get(row);
+    }
+    
+    /**
+     * gets every category in the file, indexed by category code.
+     * 
+     * @return the category dictionary
+     */
+    public String[] getCategories() {
+        return categories.clone();
+    }
+    
+    /**
+     * gets the price range label of a row.
+     * 
+     * @param row the row index
+     * @return the price range label, or an empty string if the row has none
+     */
+    public String getPriceRange(int row) {
+        byte code = priceRangeCodes.get(row);
+        return code < 0 ? "" : priceRanges[code];
+    }
+    
+    /**
+     * decodes the name of a row.
+     * 
+     * @param row the row index
+     * @return the product name
+     */
+    public String getName(int row) {
+        int start = nameOffsets.get(row);
+        int end = nameOffsets.get(row + 1);
+        byte[] bytes = new byte[end - start];
+        nameBytes.get(start, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+    
+    /**
+     * copies every row into a columnar batch that uses the shared dictionary.
+     * 
+     * @return the batch
+     */
+    public ProductBatch toBatch() {
+        CategoryDictionary dictionary = CategoryDictionary.shared();
+        int[] codes = new int[categories.length];
+        for (int i = 0; i < codes.length; i++) {
+            codes[i] = dictionary.intern(categories[i]);
+        }
+        
+        ProductBatch batch = new ProductBatch(dictionary);
+        byte[] rangeCodes = new byte[priceRanges.length];
+        for (int i = 0; i < rangeCodes.length; i++) {
+            PriceRange range = PriceRange.fromLabel(priceRanges[i]);
+            rangeCodes[i] = range == null ? ProductBatch.NO_PRICE_RANGE : (byte) range.ordinal();
+        }
+        for (int row = 0; row < rows; row++) {
+            batch.add(getProductId(row), getName(row), getPrice(row), codes[getCategoryCode(row)]);
+            byte code = priceRangeCodes.get(row);
+            batch.getPriceRangeCodes()[row] = code < 0 ? ProductBatch.NO_PRICE_RANGE : rangeCodes[code];
+        }
+        return batch;
+    }
+    
+    /**
+     * reads a string dictionary section.
+     */
+    private static String[] readDictionary(ByteBuffer section) {
+        int count = section.getInt(0);
+        String[] values = new String[count];
+        int position = 4;
+        for (int i = 0; i < count; i++) {
+            int length = section.getInt(position);
+            byte[] bytes = new byte[length];
+            section.get(position + 4, bytes);
+            values[i] = new String(bytes, StandardCharsets.UTF_8);
+            position += 4 + length;
+        }
+        return values;
+    }
+    
+    /**
+     * closes the file channel. the mapped columns stay readable until they
+     * are garbage collected.
+     * 
+     * @throws IOException if the channel cannot be closed
+     */
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+}
\ No newline at end of file
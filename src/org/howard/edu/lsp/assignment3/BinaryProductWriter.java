@@ -0,0 +1,331 @@
+package org.howard.edu.lsp.assignment3;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * writes transformed products in a compact binary columnar format that
+ * {@link BinaryProductReader} reads back without parsing.
+ * 
+ * all values are little-endian. the file starts with a 40-byte header:
+ * <pre>
+ * int    magic "PBIN"
+ * int    format version
+ * int    row count
+ * int    section count
+ * int    minimum ProductID, int maximum ProductID
+ * double minimum price, double maximum price (NaN when no row has a price)
+ * </pre>
+ * followed by length-prefixed sections, each a long byte length and the
+ * data, padded to a multiple of 8 bytes so every column can be viewed in place:
+ * <pre>
+ * categories         int count, then per entry int length + UTF-8 bytes
+ * price ranges       int count, then per entry int length + UTF-8 bytes
+ * product ids        int per row
+ * prices             double per row
+ * category codes     byte per row, or int per row with more than 255 categories
+ * price range codes  byte per row, -1 for no price range
+ * names              int offset per row plus one, then the UTF-8 bytes
+ * </pre>
+ * categories are stored once each in the order they first appear, so the
+ * file does not depend on any in-memory dictionary.
+ */
+public class BinaryProductWriter {
+    static final int MAGIC = 0x4E494250; // "PBIN"
+    static final int VERSION = 1;
+    static final int HEADER_BYTES = 40;
+    static final int SECTION_COUNT = 7;
+    
+    private static final int BUFFER_BYTES = 1 << 16;
+    
+    private String outputPath;
+    private FileChannel channel;
+    private ByteBuffer buffer;
+    
+    /**
+     * constructs a BinaryProductWriter for the specified output path.
+     * 
+     * @param outputPath the path for the output file
+     */
+    public BinaryProductWriter(String outputPath) {
+        this.outputPath = outputPath;
+    }
+    
+    /**
+     * writes a list of transformed products.
+     * 
+     * @param products the products to write
+     * @throws IOException if file cannot be written
+     */
+    public void write(List<Product> products) throws IOException {
+        ProductBatch batch = new ProductBatch();
+        for (Product product : products) {
+            batch.add(product);
+        }
+        write(batch);
+    }
+    
+    /**
+     * writes every row of a transformed batch.
+     * 
+     * @param batch the batch to write
+     * @throws IOException if file cannot be written
+     */
+    public void write(ProductBatch batch) throws IOException {
+        int rows = batch.size();
+        int[] productIds = batch.getProductIds();
+        double[] prices = batch.getPrices();
+        
+        // re-number the categories densely in order of first use
+        CategoryDictionary categories = batch.getCategories();
+        int[] fileCodes = new int[categories.size()];
+        Arrays.fill(fileCodes, -1);
+        String[] fileCategories = new String[categories.size()];
+        int categoryCount = 0;
+        int[] batchCodes = batch.getCategoryCodes();
+        for (int row = 0; row < rows; row++) {
+            int code = batchCodes[row];
+            if (fileCodes[code] < 0) {
+                fileCodes[code] = categoryCount;
+                fileCategories[categoryCount++] = categories.get(code);
+            }
+        }
+        
+        int minId = 0;
+        int maxId = 0;
+        double minPrice = Double.NaN;
+        double maxPrice = Double.NaN;
+        for (int row = 0; row < rows; row++) {
+            int id = productIds[row];
+            double price = prices[row];
+            minId = row == 0 ? id : Math.min(minId, id);
+            maxId = row == 0 ? id : Math.max(maxId, id);
+            if (Double.isNaN(price)) continue;
+            
+            if (Double.isNaN(minPrice) || price < minPrice) minPrice = price;
+            if (Double.isNaN(maxPrice) || price > maxPrice) maxPrice = price;
+        }
+        
+        File outputFile = new File(outputPath);
+        if (outputFile.getParentFile() != null) {
+            outputFile.getParentFile().mkdirs();
+        }
+        FileChannel out = FileChannel.open(outputFile.toPath(), StandardOpenOption.CREATE,
+            StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE);
+        channel = out;
+        buffer = ByteBuffer.allocate(BUFFER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+        
+        try (out) {
+            // header
+            putInt(MAGIC);
+            putInt(VERSION);
+            putInt(rows);
+            putInt(SECTION_COUNT);
+            putInt(minId);
+            putInt(maxId);
+            putDouble(minPrice);
+            putDouble(maxPrice);
+            
+            // categories
+            writeDictionary(Arrays.copyOf(fileCategories, categoryCount));
+            
+            // price ranges
+            PriceRange[] ranges = PriceRange.values();
+            String[] labels = new String[ranges.length];
+            for (int i = 0; i < ranges.length; i++) {
+                labels[i] = ranges[i].getLabel();
+            }
+            writeDictionary(labels);
+            
+            // product ids
+            beginSection(4L * rows);
+            for (int row = 0; row < rows; row++) {
+                putInt(productIds[row]);
+            }
+            endSection(4L * rows);
+            
+            // prices
+            beginSection(8L * rows);
+            for (int row = 0; row < rows; row++) {
+                putDouble(prices[row]);
+            }
+            endSection(8L * rows);
+            
+            // category codes
+            int width = categoryCount <= 255 ? 1 : 4;
+            beginSection((long) width * rows);
+            for (int row = 0; row < rows; row++) {
+                int code = fileCodes[batchCodes[row]];
+                if (width == 1) {
+                    putByte((byte) code);
+                } else {
+                    putInt(code);
+                }
+            }
+            endSection((long) width * rows);
+            
+            // price range codes
+            byte[] rangeCodes = batch.getPriceRangeCodes();
+            beginSection(rows);
+            for (int row = 0; row < rows; row++) {
+                putByte(rangeCodes[row]);
+            }
+            endSection(rows);
+            
+            // names
+            writeNames(batch.getNames(), rows);
+            
+            flush();
+        } finally {
+            channel = null;
+            buffer = null;
+        }
+    }
+    
+    /**
+     * writes a string dictionary section.
+     */
+    private void writeDictionary(String[] values) throws IOException {
+        byte[][] encoded = new byte[values.length][];
+        long length = 4;
+        for (int i = 0; i < values.length; i++) {
+            encoded[i] = values[i].getBytes(StandardCharsets.UTF_8);
+            length += 4 + encoded[i].length;
+        }
+        beginSection(length);
+        putInt(values.length);
+        for (byte[] value : encoded) {
+            putInt(value.length);
+            putBytes(value);
+        }
+        endSection(length);
+    }
+    
+    /**
+     * writes the names section: the offsets of every name, then the bytes.
+     */
+    private void writeNames(String[] names, int rows) throws IOException {
+        long textLength = 0;
+        for (int row = 0; row < rows; row++) {
+            textLength += utf8Length(names[row]);
+        }
+        if (textLength > Integer.MAX_VALUE) {
+            throw new IOException("Product names exceed 2 GB in '" + outputPath + "'.");
+        }
+        
+        long length = 4L * (rows + 1) + textLength;
+        beginSection(length);
+        int offset = 0;
+        putInt(offset);
+        for (int row = 0; row < rows; row++) {
+            offset += utf8Length(names[row]);
+            putInt(offset);
+        }
+        for (int row = 0; row < rows; row++) {
+            putUtf8(names[row]);
+        }
+        endSection(length);
+    }
+    
+    /**
+     * counts the bytes String.getBytes(UTF_8) would produce, without encoding.
+     */
+    static int utf8Length(String value) {
+        int length = 0;
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c < 0x80) {
+                length += 1;
+            } else if (c < 0x800) {
+                length += 2;
+            } else if (Character.isHighSurrogate(c) && i + 1 < value.length()
+                    && Character.isLowSurrogate(value.charAt(i + 1))) {
+                length += 4;
+                i++;
+            } else if (Character.isSurrogate(c)) {
+                length += 1; // unpaired surrogates are replaced by '?'
+            } else {
+                length += 3;
+            }
+        }
+        return length;
+    }
+    
+    /**
+     * writes text as UTF-8, copying ASCII characters directly.
+     */
+    private void putUtf8(String value) throws IOException {
+        for (int i = 0; i < value.length(); i++) {
+            if (value.charAt(i) >= 0x80) {
+                putBytes(value.getBytes(StandardCharsets.UTF_8));
+                return;
+            }
+        }
+        for (int i = 0; i < value.length(); i++) {
+            putByte((byte) value.charAt(i));
+        }
+    }
+    
+    private void beginSection(long length) throws IOException {
+        putLong(length);
+    }
+    
+    /**
+     * pads a section so that the next one starts on an 8-byte boundary.
+     */
+    private void endSection(long length) throws IOException {
+        for (long i = length; i % 8 != 0; i++) {
+            putByte((byte) 0);
+        }
+    }
+    
+    private void putByte(byte value) throws IOException {
+        ensureSpace(1);
+        buffer.put(value);
+    }
+    
+    private void putInt(int value) throws IOException {
+        ensureSpace(4);
+        buffer.putInt(value);
+    }
+    
+    private void putLong(long value) throws IOException {
+        ensureSpace(8);
+        buffer.putLong(value);
+    }
+    
+    private void putDouble(double value) throws IOException {
+        ensureSpace(8);
+        buffer.putDouble(value);
+    }
+    
+    private void putBytes(byte[] bytes) throws IOException {
+        int offset = 0;
+        while (offset < bytes.length) {
+            ensureSpace(1);
+            int chunk = Math.min(buffer.remaining(), bytes.length - offset);
+            buffer.put(bytes, offset, chunk);
+            offset += chunk;
+        }
+    }
+    
+    private void ensureSpace(int bytes) throws IOException {
+        if (buffer.remaining() < bytes) {
+            flush();
+        }
+    }
+    
+    private void flush() throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+}
\ No newline at end of file
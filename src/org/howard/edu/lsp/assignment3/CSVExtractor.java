@@ -1,14 +1,38 @@
 package org.howard.edu.lsp.assignment3;
 
 import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
 import java.util.*;
+import java.util.concurrent.*;
 
 /**
  * handles extraction of product data from CSV files.
  * encapsulates file reading and parsing logic.
  */
 public class CSVExtractor {
+    private static final long MIN_PARALLEL_BYTES = 1L << 20;
+    private static final long MAX_CHUNK_BYTES = 16L << 20;
+    
     private String filePath;
+    private boolean memoryMapped;
+    private boolean fixedPoint;
+    private ETLMetrics metrics;
+    private boolean quiet;
+    
+    /**
+     * receives products one at a time as they are parsed.
+     */
+    public interface ProductHandler {
+        /**
+         * handles a single parsed product.
+         * 
+         * @param product the parsed product
+         * @throws IOException if the product cannot be handled
+         */
+        void handle(Product product) throws IOException;
+    }
     
     /**
      * constructs a CSVExtractor for the specified file path.
@@ -19,6 +43,50 @@ public class CSVExtractor {
         this.filePath = filePath;
     }
     
+    /**
+     * selects the memory-mapped reader backend, which scans the file bytes
+     * directly instead of decoding every line through a BufferedReader.
+     * 
+     * @param memoryMapped true to read through {@link MappedCSVReader}
+     */
+    public void setMemoryMapped(boolean memoryMapped) {
+        this.memoryMapped = memoryMapped;
+    }
+    
+    /**
+     * selects fixed-point money mode, where plain prices with up to two
+     * decimals are kept as exact cents; other prices use the double path.
+     * 
+     * @param fixedPoint true to parse prices as cents where possible
+     */
+    public void setFixedPoint(boolean fixedPoint) {
+        this.fixedPoint = fixedPoint;
+    }
+    
+    /**
+     * sets the metrics that count the bytes and rows read and the rows skipped.
+     * 
+     * @param metrics the metrics to update, or null for none
+     */
+    public void setMetrics(ETLMetrics metrics) {
+        this.metrics = metrics;
+    }
+    
+    /**
+     * creates an extractor for a second pass over the same file. it uses the
+     * same reader options but prints no warnings and updates no metrics, so
+     * skipped rows are only reported once.
+     * 
+     * @return the new extractor
+     */
+    CSVExtractor rescan() {
+        CSVExtractor extractor = new CSVExtractor(filePath);
+        extractor.memoryMapped = memoryMapped;
+        extractor.fixedPoint = fixedPoint;
+        extractor.quiet = true;
+        return extractor;
+    }
+    
     /**
      * extracts products from the CSV file.
      * 
@@ -27,58 +95,319 @@ public class CSVExtractor {
      */
     public List<Product> extract() throws IOException {
         List<Product> products = new ArrayList<>();
+        stream(products::add);
+        return products;
+    }
+    
+    /**
+     * extracts products from the CSV file into a columnar batch.
+     * 
+     * @return batch holding every valid row
+     * @throws IOException if file cannot be read
+     */
+    public ProductBatch extractBatch() throws IOException {
+        ProductBatch batch = new ProductBatch();
+        stream(batch::add);
+        return batch;
+    }
+    
+    /**
+     * streams products from the CSV file to the handler one row at a time.
+     * only the current line is held in memory, and the next line is not read
+     * until the handler returns, so a slow handler throttles the reader.
+     * files ending in .gz, .deflate or .zz are decompressed on the fly; see
+     * {@link CompressionCodec}.
+     * 
+     * @param handler the handler receiving each parsed product
+     * @return the number of products passed to the handler
+     * @throws IOException if file cannot be read or the handler fails
+     */
+    public int stream(ProductHandler handler) throws IOException {
+        File file = new File(filePath);
+        
+        if (!file.exists()) {
+            throw new IOException("Input file '" + filePath + "' not found.");
+        }
+        
+        if (metrics != null) {
+            metrics.bytesIn(file.length());
+        }
+        
+        CompressionCodec codec = CompressionCodec.forPath(filePath);
+        if (memoryMapped && codec == CompressionCodec.NONE) {
+            return newMappedReader().read(handler);
+        }
+        
+        Reader input = codec == CompressionCodec.NONE
+            ? new FileReader(file)
+            : new InputStreamReader(codec.openInput(file));
+        try (BufferedReader reader = new BufferedReader(input)) {
+            return readRows(reader, true, handler);
+        }
+    }
+    
+    /**
+     * extracts products by splitting the file into newline-aligned byte ranges
+     * and parsing the ranges concurrently on a pool of worker threads.
+     * products are returned in input order; only the warnings for skipped rows
+     * may be printed out of order. small and compressed files fall back to
+     * {@link #extract()}.
+     * 
+     * @param threads the number of worker threads to use
+     * @return list of Product objects in input order
+     * @throws IOException if file cannot be read
+     */
+    public List<Product> extractParallel(int threads) throws IOException {
         File file = new File(filePath);
         
         if (!file.exists()) {
             throw new IOException("Input file '" + filePath + "' not found.");
         }
+        if (threads <= 1 || file.length() < MIN_PARALLEL_BYTES
+                || CompressionCodec.forPath(filePath) != CompressionCodec.NONE) {
+            return extract();
+        }
+        if (metrics != null) {
+            metrics.bytesIn(file.length());
+        }
         
-        try (BufferedReader reader = new BufferedReader(new FileReader(file))) {
-            String line;
-            boolean isHeader = true;
+        long[] bounds = splitRanges(file, threads);
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<List<Product>>> chunks = new ArrayList<>();
+            for (int i = 0; i + 1 < bounds.length; i++) {
+                long start = bounds[i];
+                long end = bounds[i + 1];
+                boolean hasHeader = i == 0;
+                chunks.add(pool.submit(() -> extractRange(file, start, end, hasHeader)));
+            }
             
-            while ((line = reader.readLine()) != null) {
-                if (line.trim().isEmpty()) continue;
-                
-                if (isHeader) {
-                    isHeader = false;
-                    continue; // Skip header row
-                }
+            // join chunks in submission order to keep input order
+            List<Product> products = new ArrayList<>();
+            for (Future<List<Product>> chunk : chunks) {
+                products.addAll(chunk.get());
+            }
+            return products;
+            
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while extracting '" + filePath + "'.", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException) throw (IOException) cause;
+            throw new IOException("Error extracting '" + filePath + "': " + cause.getMessage(), cause);
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+    
+    /**
+     * computes chunk boundaries so that every chunk starts at the beginning
+     * of a line. boundaries are byte offsets, with the first at 0 and the
+     * last at the file length.
+     * 
+     * @param file the input file
+     * @param threads the number of worker threads
+     * @return the chunk boundaries
+     * @throws IOException if file cannot be read
+     */
+    private long[] splitRanges(File file, int threads) throws IOException {
+        long length = file.length();
+        long chunkCount = Math.max(threads * 4L, (length + MAX_CHUNK_BYTES - 1) / MAX_CHUNK_BYTES);
+        long chunkSize = Math.max(1, length / chunkCount);
+        
+        List<Long> bounds = new ArrayList<>();
+        bounds.add(0L);
+        try (RandomAccessFile raf = new RandomAccessFile(file, "r")) {
+            byte[] buffer = new byte[8192];
+            long position = chunkSize;
+            while (position < length) {
+                position = nextLineStart(raf, position, buffer);
+                if (position >= length) break;
                 
-                Product product = parseLine(line);
-                if (product != null) {
-                    products.add(product);
+                bounds.add(position);
+                position += chunkSize;
+            }
+        }
+        bounds.add(length);
+        
+        long[] result = new long[bounds.size()];
+        for (int i = 0; i < result.length; i++) {
+            result[i] = bounds.get(i);
+        }
+        return result;
+    }
+    
+    /**
+     * finds the start of the line after a position, reading the file in
+     * blocks rather than one byte per call.
+     * 
+     * @param raf the open input file
+     * @param position where to start searching
+     * @param buffer the block buffer
+     * @return the offset just past the next newline, or the file length if there is none
+     * @throws IOException if file cannot be read
+     */
+    private static long nextLineStart(RandomAccessFile raf, long position, byte[] buffer) throws IOException {
+        raf.seek(position);
+        int count;
+        while ((count = raf.read(buffer, 0, buffer.length)) > 0) {
+            for (int i = 0; i < count; i++) {
+                if (buffer[i] == '\n') {
+                    return position + i + 1;
                 }
             }
+            position += count;
+        }
+        return raf.length();
+    }
+    
+    /**
+     * extracts products from one byte range of the file.
+     * 
+     * @param file the input file
+     * @param start the first byte of the range
+     * @param end the byte after the last byte of the range
+     * @param hasHeader whether the range starts with the header row
+     * @return list of Product objects from the range
+     * @throws IOException if file cannot be read
+     */
+    private List<Product> extractRange(File file, long start, long end, boolean hasHeader) throws IOException {
+        List<Product> products = new ArrayList<>();
+        if (memoryMapped) {
+            newMappedReader().read(start, end, hasHeader, products::add);
+            return products;
         }
         
+        byte[] bytes = new byte[(int) (end - start)];
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            ByteBuffer buffer = ByteBuffer.wrap(bytes);
+            while (buffer.hasRemaining()) {
+                if (channel.read(buffer, start + buffer.position()) < 0) break;
+            }
+        }
+        
+        try (BufferedReader reader = new BufferedReader(
+                new InputStreamReader(new ByteArrayInputStream(bytes)))) {
+            readRows(reader, hasHeader, products::add);
+        }
         return products;
     }
     
+    /**
+     * creates a memory-mapped reader with this extractor's settings.
+     * 
+     * @return the mapped reader
+     */
+    private MappedCSVReader newMappedReader() {
+        MappedCSVReader reader = new MappedCSVReader(filePath);
+        reader.setFixedPoint(fixedPoint);
+        reader.setMetrics(metrics);
+        reader.setQuiet(quiet);
+        return reader;
+    }
+    
+    /**
+     * reads rows from the reader, skipping blank lines and optionally the
+     * header, and passes each valid product to the handler.
+     * 
+     * @param reader the reader positioned at the first row
+     * @param hasHeader whether the first non-blank line is the header
+     * @param handler the handler receiving each parsed product
+     * @return the number of products passed to the handler
+     * @throws IOException if the rows cannot be read or the handler fails
+     */
+    private int readRows(BufferedReader reader, boolean hasHeader, ProductHandler handler) throws IOException {
+        int count = 0;
+        String line;
+        boolean isHeader = hasHeader;
+        
+        while ((line = reader.readLine()) != null) {
+            if (line.trim().isEmpty()) continue;
+            
+            if (isHeader) {
+                isHeader = false;
+                continue; // Skip header row
+            }
+            
+            Product product = parseLine(line);
+            if (product != null) {
+                handler.handle(product);
+                count++;
+            }
+        }
+        
+        return count;
+    }
+    
     /**
      * parses a CSV line into a Product object.
+     * columns are located by index and the numeric fields are parsed in
+     * place with {@link FieldParser}, following the same column rules as
+     * String.split(","), which drops trailing empty columns.
      * 
      * @param line the CSV line to parse
      * @return product object or null if parsing fails
      */
     private Product parseLine(String line) {
-        try {
-            String[] columns = line.split(",");
-            if (columns.length != 4) {
+        int c1 = line.indexOf(',');
+        int c2 = c1 < 0 ? -1 : line.indexOf(',', c1 + 1);
+        int c3 = c2 < 0 ? -1 : line.indexOf(',', c2 + 1);
+        int c4 = c3 < 0 ? -1 : line.indexOf(',', c3 + 1);
+        int end = c4 < 0 ? line.length() : c4;
+        if (metrics != null) {
+            metrics.rowRead();
+        }
+        
+        if (c3 < 0 || end == c3 + 1 || !onlyCommasFrom(line, end)) {
+            if (!quiet) {
                 System.out.println("Warning: Skipping invalid row: " + line);
-                return null;
+            }
+            skipped(ETLMetrics.SkipReason.WRONG_COLUMN_COUNT);
+            return null;
+        }
+        
+        try {
+            int productId = FieldParser.parseInt(line, 0, c1);
+            long cents = fixedPoint ? Cents.parse(line, c2 + 1, c3) : Cents.NONE;
+            if (cents != Cents.NONE) {
+                String name = line.substring(c1 + 1, c2).trim();
+                String category = line.substring(c3 + 1, end).trim();
+                return Product.withCents(productId, name, cents, CategoryDictionary.shared().intern(category));
             }
             
-            int productId = Integer.parseInt(columns[0].trim());
-            String name = columns[1].trim();
-            double price = Double.parseDouble(columns[2].trim());
-            String category = columns[3].trim();
+            double price = FieldParser.parseDouble(line, c2 + 1, c3);
+            String name = line.substring(c1 + 1, c2).trim();
+            String category = line.substring(c3 + 1, end).trim();
             
             return new Product(productId, name, price, category);
             
         } catch (NumberFormatException e) {
-            System.out.println("Warning: Skipping row with invalid data: " + line);
+            if (!quiet) {
+                System.out.println("Warning: Skipping row with invalid data: " + line);
+            }
+            skipped(ETLMetrics.SkipReason.INVALID_NUMBER);
             return null;
         }
     }
+    
+    private void skipped(ETLMetrics.SkipReason reason) {
+        if (metrics != null) {
+            metrics.rowSkipped(reason);
+        }
+    }
+    
+    /**
+     * checks whether the rest of the line holds only empty columns.
+     * 
+     * @param line the CSV line
+     * @param from the index to start checking at
+     * @return true if every character from the index on is a comma
+     */
+    private static boolean onlyCommasFrom(String line, int from) {
+        for (int i = from; i < line.length(); i++) {
+            if (line.charAt(i) != ',') return false;
+        }
+        return true;
+    }
 }
\ No newline at end of file
@@ -1,14 +1,26 @@
 package org.howard.edu.lsp.assignment3;
 
 import java.io.*;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.StandardOpenOption;
 import java.util.List;
 
 /**
  * handles loading of transformed product data to CSV files.
- * encapsulates file writing logic.
+ * encapsulates file writing logic. rows are encoded into a reusable byte
+ * buffer and written to a FileChannel in large blocks. output paths ending
+ * in .gz, .deflate or .zz are compressed on a background thread; see
+ * {@link CompressionCodec}.
  */
-public class CSVLoader {
+public class CSVLoader implements Closeable {
+    private static final int FLUSH_BYTES = 1 << 18;
+    
     private String outputPath;
+    private WritableByteChannel channel;
+    private CSVRowEncoder encoder = new CSVRowEncoder(FLUSH_BYTES + (1 << 12));
+    private ETLMetrics metrics;
     
     /**
      * constructs a CSVLoader for the specified output path.
@@ -19,6 +31,16 @@ public class CSVLoader {
         this.outputPath = outputPath;
     }
     
+    /**
+     * sets the metrics that count the rows written and, once the loader is
+     * closed, the size of the output file.
+     * 
+     * @param metrics the metrics to update, or null for none
+     */
+    public void setMetrics(ETLMetrics metrics) {
+        this.metrics = metrics;
+    }
+    
     /**
      * writes products to a CSV file with header.
      * 
@@ -27,15 +49,118 @@ public class CSVLoader {
      * @throws IOException if file cannot be written
      */
     public void load(List<Product> products, String header) throws IOException {
+        open(header);
+        try {
+            for (Product product : products) {
+                write(product);
+            }
+        } finally {
+            close();
+        }
+    }
+    
+    /**
+     * writes a columnar batch to a CSV file with header.
+     * 
+     * @param batch the batch to write
+     * @param header the CSV header
+     * @throws IOException if file cannot be written
+     */
+    public void load(ProductBatch batch, String header) throws IOException {
+        open(header);
+        try {
+            write(batch);
+        } finally {
+            close();
+        }
+    }
+    
+    /**
+     * opens the output file and writes the header, so products can be
+     * written one at a time with {@link #write(Product)}.
+     * 
+     * @param header the CSV header
+     * @throws IOException if file cannot be opened
+     */
+    public void open(String header) throws IOException {
         File outputFile = new File(outputPath);
         outputFile.getParentFile().mkdirs(); // create adirectory if needed
         
-        try (PrintWriter writer = new PrintWriter(new FileWriter(outputFile))) {
-            writer.println(header);
-            
-            for (Product product : products) {
-                writer.println(product.toCSV());
-            }
+        CompressionCodec codec = CompressionCodec.forPath(outputPath);
+        if (codec == CompressionCodec.NONE) {
+            channel = FileChannel.open(outputFile.toPath(), StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE);
+        } else {
+            channel = Channels.newChannel(codec.openOutput(outputFile));
+        }
+        encoder.appendLine(header);
+    }
+    
+    /**
+     * writes a single product to the open output file.
+     * 
+     * @param product the product to write
+     * @throws IOException if the loader has not been opened
+     */
+    public void write(Product product) throws IOException {
+        if (channel == null) {
+            throw new IOException("Output file '" + outputPath + "' is not open.");
+        }
+        encoder.encode(product);
+        if (metrics != null) {
+            metrics.rowsWritten(1);
+        }
+        flushIfFull();
+    }
+    
+    /**
+     * writes every row of a batch to the open output file.
+     * 
+     * @param batch the batch to write
+     * @throws IOException if the loader has not been opened
+     */
+    public void write(ProductBatch batch) throws IOException {
+        if (channel == null) {
+            throw new IOException("Output file '" + outputPath + "' is not open.");
+        }
+        for (int row = 0; row < batch.size(); row++) {
+            encoder.encode(batch, row);
+            flushIfFull();
+        }
+        if (metrics != null) {
+            metrics.rowsWritten(batch.size());
+        }
+    }
+    
+    /**
+     * writes the encoded rows to the file once enough bytes are buffered.
+     * 
+     * @throws IOException if the rows cannot be written
+     */
+    private void flushIfFull() throws IOException {
+        if (encoder.size() >= FLUSH_BYTES) {
+            encoder.writeTo(channel);
+        }
+    }
+    
+    /**
+     * flushes and closes the output file.
+     * 
+     * @throws IOException if the output could not be written
+     */
+    @Override
+    public void close() throws IOException {
+        if (channel == null) return;
+        
+        try (WritableByteChannel out = channel) {
+            channel = null;
+            encoder.writeTo(out);
+        } finally {
+            // drop rows a failed write left behind so they never reach the next file
+            encoder.reset();
+        }
+        if (metrics != null) {
+            metrics.bytesOut(new File(outputPath).length());
         }
     }
 }
\ No newline at end of file
@@ -0,0 +1,286 @@
+package org.howard.edu.lsp.assignment3;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.Charset;
+import java.util.Arrays;
+import java.util.Locale;
+
+/**
+ * encodes transformed product rows straight into a reusable byte buffer.
+ * ints, two-decimal prices and ASCII text are written digit by digit with
+ * no Formatter or intermediate strings, and the output matches
+ * {@link Product#toCSV()} byte for byte. text is encoded with the default
+ * charset, which is expected to be ASCII-compatible such as UTF-8.
+ */
+public class CSVRowEncoder {
+    private static final byte[] LINE_SEPARATOR = System.lineSeparator().getBytes();
+    private static final byte[] MIN_INT = String.valueOf(Integer.MIN_VALUE).getBytes();
+    // prices below this are formatted from exact cents
+    private static final double MAX_FAST_PRICE = 1e13;
+    
+    private Charset charset = Charset.defaultCharset();
+    private byte[] buffer;
+    private int size;
+    
+    /**
+     * constructs a CSVRowEncoder with a 64 KB starting buffer.
+     */
+    public CSVRowEncoder() {
+        this(1 << 16);
+    }
+    
+    /**
+     * constructs a CSVRowEncoder with the given starting buffer size.
+     * 
+     * @param capacity the starting buffer size in bytes
+     */
+    public CSVRowEncoder(int capacity) {
+        this.buffer = new byte[Math.max(capacity, 64)];
+    }
+    
+    /**
+     * appends one product as a CSV row followed by a line separator.
+     * 
+     * @param product the product to encode
+     */
+    public void encode(Product product) {
+        appendInt(product.getProductId());
+        appendByte(',');
+        appendString(product.getName());
+        appendByte(',');
+        if (product.getPriceCents() != Cents.NONE) {
+            appendCents(product.getPriceCents());
+        } else {
+            appendPrice(product.getPrice());
+        }
+        appendByte(',');
+        appendString(product.getCategory());
+        appendByte(',');
+        appendString(product.getPriceRange());
+        endRow();
+    }
+    
+    /**
+     * appends one row of a batch as a CSV row followed by a line separator.
+     * 
+     * @param batch the batch holding the row
+     * @param row the row index
+     */
+    public void encode(ProductBatch batch, int row) {
+        appendInt(batch.getProductIds()[row]);
+        appendByte(',');
+        appendString(batch.getNames()[row]);
+        appendByte(',');
+        appendPrice(batch.getPrices()[row]);
+        appendByte(',');
+        appendString(batch.getCategory(row));
+        appendByte(',');
+        appendString(batch.getPriceRange(row));
+        endRow();
+    }
+    
+    /**
+     * appends a line of text followed by a line separator.
+     * 
+     * @param line the text to append
+     */
+    public void appendLine(String line) {
+        appendString(line);
+        endRow();
+    }
+    
+    /**
+     * gets the number of encoded bytes waiting in the buffer.
+     * 
+     * @return the buffered byte count
+     */
+    public int size() {
+        return size;
+    }
+    
+    /**
+     * discards any buffered bytes.
+     */
+    public void reset() {
+        size = 0;
+    }
+    
+    /**
+     * writes the buffered bytes to a channel and empties the buffer.
+     * if the write fails the bytes stay buffered; call {@link #reset()}
+     * before reusing the encoder for other output.
+     * 
+     * @param channel the channel to write to
+     * @throws IOException if the bytes cannot be written
+     */
+    public void writeTo(WritableByteChannel channel) throws IOException {
+        ByteBuffer out = ByteBuffer.wrap(buffer, 0, size);
+        while (out.hasRemaining()) {
+            channel.write(out);
+        }
+        size = 0;
+    }
+    
+    /**
+     * appends a price with exactly two decimals, as String.format("%.2f") would.
+     * 
+     * @param price the price to append
+     */
+    public void appendPrice(double price) {
+        long cents = exactCents(price);
+        if (cents == Cents.NONE) {
+            appendString(String.format(Locale.ROOT, "%.2f", price));
+            return;
+        }
+        if (Double.doubleToRawLongBits(price) < 0) {
+            appendByte('-');
+        }
+        appendCents(cents);
+    }
+    
+    /**
+     * appends a price with exactly two decimals, as String.format("%.2f") would.
+     * 
+     * @param sb the builder to append to
+     * @param price the price to append
+     * @return the builder
+     */
+    public static StringBuilder appendPrice(StringBuilder sb, double price) {
+        long cents = exactCents(price);
+        if (cents == Cents.NONE) {
+            return sb.append(String.format(Locale.ROOT, "%.2f", price));
+        }
+        if (Double.doubleToRawLongBits(price) < 0) {
+            sb.append('-');
+        }
+        return Cents.append(sb, cents);
+    }
+    
+    /**
+     * finds the whole number of cents a price's magnitude is closest to, when
+     * that amount converts back to exactly this double. such a price has no
+     * shorter decimal form than the cents amount, so "%.2f" prints exactly
+     * those cents.
+     * 
+     * @param price the price
+     * @return the cents in the price's magnitude, or {@link Cents#NONE}
+     */
+    static long exactCents(double price) {
+        double magnitude = Math.abs(price);
+        if (!(magnitude < MAX_FAST_PRICE)) {
+            return Cents.NONE;
+        }
+        long cents = Math.round(magnitude * 100);
+        return Cents.toDouble(cents) == magnitude ? cents : Cents.NONE;
+    }
+    
+    /**
+     * finds the signed amount of cents that {@link #appendPrice} prints for a
+     * price, so totals of printed prices can be kept exactly.
+     * 
+     * @param price the price, with magnitude below 10^13
+     * @return the printed price in cents
+     */
+    static long printedCents(double price) {
+        long cents = exactCents(price);
+        if (cents == Cents.NONE) {
+            // "%.2f" rounds the shortest decimal form of the double half-up
+            return new BigDecimal(Double.toString(price)).setScale(2, RoundingMode.HALF_UP).unscaledValue().longValueExact();
+        }
+        return price < 0 ? -cents : cents;
+    }
+    
+    /**
+     * appends an amount of cents with exactly two decimals.
+     */
+    private void appendCents(long cents) {
+        if (cents < 0) {
+            appendByte('-');
+            cents = -cents;
+        }
+        appendLong(cents / 100);
+        int fraction = (int) (cents % 100);
+        ensureCapacity(3);
+        buffer[size++] = '.';
+        buffer[size++] = (byte) ('0' + fraction / 10);
+        buffer[size++] = (byte) ('0' + fraction % 10);
+    }
+    
+    /**
+     * appends the decimal digits of an int.
+     */
+    private void appendInt(int value) {
+        if (value == Integer.MIN_VALUE) {
+            appendBytes(MIN_INT);
+            return;
+        }
+        if (value < 0) {
+            appendByte('-');
+            value = -value;
+        }
+        appendLong(value);
+    }
+    
+    /**
+     * appends the decimal digits of a non-negative long.
+     */
+    private void appendLong(long value) {
+        int digits = 1;
+        for (long rest = value / 10; rest > 0; rest /= 10) {
+            digits++;
+        }
+        ensureCapacity(digits);
+        for (int i = size + digits - 1; i >= size; i--) {
+            buffer[i] = (byte) ('0' + value % 10);
+            value /= 10;
+        }
+        size += digits;
+    }
+    
+    /**
+     * appends text, copying ASCII characters directly and encoding anything
+     * else with the charset. null is written as "null", like "%s".
+     */
+    private void appendString(String value) {
+        if (value == null) {
+            value = "null";
+        }
+        int length = value.length();
+        ensureCapacity(length);
+        int start = size;
+        for (int i = 0; i < length; i++) {
+            char c = value.charAt(i);
+            if (c >= 0x80) {
+                size = start;
+                appendBytes(value.getBytes(charset));
+                return;
+            }
+            buffer[size++] = (byte) c;
+        }
+    }
+    
+    private void endRow() {
+        appendBytes(LINE_SEPARATOR);
+    }
+    
+    private void appendByte(char c) {
+        ensureCapacity(1);
+        buffer[size++] = (byte) c;
+    }
+    
+    private void appendBytes(byte[] bytes) {
+        ensureCapacity(bytes.length);
+        System.arraycopy(bytes, 0, buffer, size, bytes.length);
+        size += bytes.length;
+    }
+    
+    private void ensureCapacity(int extra) {
+        if (size + extra > buffer.length) {
+            buffer = Arrays.copyOf(buffer, Math.max(buffer.length * 2, size + extra));
+        }
+    }
+}
\ No newline at end of file
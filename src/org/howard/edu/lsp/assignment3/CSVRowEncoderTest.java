@@ -0,0 +1,141 @@
+package org.howard.edu.lsp.assignment3;
+
+import static org.junit.Assert.*;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.Charset;
+import java.util.Locale;
+import java.util.Random;
+
+import org.junit.Test;
+
+/**
+ * conformance tests checking the digit-by-digit price formatting of
+ * CSVRowEncoder against the String.format("%.2f") path it replaces.
+ */
+public class CSVRowEncoderTest {
+    
+    /**
+     * formats a price with a fresh encoder and returns the bytes as text.
+     */
+    private static String encodePrice(double price) throws IOException {
+        CSVRowEncoder encoder = new CSVRowEncoder();
+        encoder.appendPrice(price);
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        encoder.writeTo(Channels.newChannel(bytes));
+        return bytes.toString();
+    }
+    
+    private static void check(double price) throws IOException {
+        String expected = String.format(Locale.ROOT, "%.2f", price);
+        assertEquals("encoder " + price, expected, encodePrice(price));
+        assertEquals("builder " + price, expected, CSVRowEncoder.appendPrice(new StringBuilder(), price).toString());
+        if (Math.abs(price) < 1e13) {
+            long printed = new BigDecimal(expected).movePointRight(2).longValueExact();
+            assertEquals("cents " + price, printed, CSVRowEncoder.printedCents(price));
+        }
+    }
+    
+    @Test
+    public void testPriceMatchesFormatNearHalfCents() throws IOException {
+        double[] prices = {
+            0.005, 0.015, 0.125, 0.375, 1.005, 1.115, 2.675, 8.345, 11.115, 100.005,
+            629.545, 1234.565, 0.0, -0.0, -0.005, -2.675, -1.115, 0.001, 0.004, 0.006
+        };
+        for (double price : prices) {
+            check(price);
+        }
+        
+        Random random = new Random(11);
+        for (int i = 0; i < 10000; i++) {
+            double price = (random.nextInt(100000000) + 0.5) / 100.0;
+            check(price);
+            check(-price);
+            check(Math.nextUp(price));
+            check(Math.nextDown(price));
+        }
+    }
+    
+    @Test
+    public void testPriceMatchesFormatOnWholeCents() throws IOException {
+        Random random = new Random(3);
+        for (int i = 0; i < 10000; i++) {
+            long cents = (random.nextLong() >>> 1) % 1000000000000000L;
+            check(cents / 100.0);
+            check(Cents.toDouble(cents));
+        }
+    }
+    
+    @Test
+    public void testPriceMatchesFormatOnLargePrices() throws IOException {
+        double[] prices = {
+            9999999999999.99, 9999999999999.995, 1e13 - 0.01, 1e13, 1e13 + 0.01, 123456789012.345,
+            0x1p53, 0x1p53 + 2, 1e15 + 0.5, 1e16, 1e20, 1.7976931348623157e308, -1e13, -9007199254740993.0,
+            Double.MIN_VALUE, Double.NaN, Double.POSITIVE_INFINITY, Double.NEGATIVE_INFINITY
+        };
+        for (double price : prices) {
+            check(price);
+        }
+        
+        Random random = new Random(5);
+        for (int i = 0; i < 5000; i++) {
+            check(random.nextDouble() * Math.pow(10, 10 + random.nextInt(10)));
+        }
+    }
+    
+    @Test
+    public void testEncodeMatchesToCSV() throws IOException {
+        Product product = new Product(-7, "Desk", 150.125, "Office");
+        product.setPriceRange("High");
+        CSVRowEncoder encoder = new CSVRowEncoder(64);
+        encoder.encode(product);
+        encoder.encode(Product.withCents(Integer.MIN_VALUE, "Mug é", 1999, CategoryDictionary.ELECTRONICS));
+        
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        encoder.writeTo(Channels.newChannel(bytes));
+        String expected = product.toCSV() + System.lineSeparator()
+            + Product.withCents(Integer.MIN_VALUE, "Mug é", 1999, CategoryDictionary.ELECTRONICS).toCSV()
+            + System.lineSeparator();
+        // the encoder writes names in the default charset, so compare the bytes that produces
+        assertArrayEquals(expected.getBytes(Charset.defaultCharset()), bytes.toByteArray());
+        assertEquals(0, encoder.size());
+    }
+    
+    @Test
+    public void testResetAfterFailedWrite() throws IOException {
+        CSVRowEncoder encoder = new CSVRowEncoder();
+        encoder.appendLine("stale");
+        WritableByteChannel failing = new WritableByteChannel() {
+            @Override
+            public int write(ByteBuffer src) throws IOException {
+                throw new IOException("disk full");
+            }
+            
+            @Override
+            public boolean isOpen() {
+                return true;
+            }
+            
+            @Override
+            public void close() {
+            }
+        };
+        try {
+            encoder.writeTo(failing);
+            fail("expected IOException");
+        } catch (IOException e) {
+            assertTrue(encoder.size() > 0);
+        }
+        
+        encoder.reset();
+        encoder.appendLine("fresh");
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        encoder.writeTo(Channels.newChannel(bytes));
+        assertEquals("fresh" + System.lineSeparator(), bytes.toString());
+    }
+}
\ No newline at end of file
@@ -0,0 +1,137 @@
+package org.howard.edu.lsp.assignment3;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * assigns small integer codes to category strings.
+ * each distinct category is stored once and rows refer to it by code.
+ * every code also has a folded code shared by all spellings that are equal
+ * ignoring case, so case-insensitive category checks become int comparisons.
+ * lookups are lock-free and safe to use from several threads.
+ * codes are never removed, so a dictionary grows with every distinct
+ * category it has seen.
+ */
+public class CategoryDictionary {
+    /** code of "Electronics", present in every dictionary. */
+    public static final int ELECTRONICS = 0;
+    /** code of "Premium Electronics", present in every dictionary. */
+    public static final int PREMIUM_ELECTRONICS = 1;
+    
+    private static final CategoryDictionary SHARED = new CategoryDictionary();
+    
+    private Map<String, Integer> codes = new ConcurrentHashMap<>();
+    private Map<String, Integer> foldedCodes = new HashMap<>();
+    private volatile String[] values = new String[16];
+    private volatile int[] folded = new int[16];
+    private volatile int size;
+    
+    /**
+     * constructs a CategoryDictionary holding the built-in categories.
+     */
+    public CategoryDictionary() {
+        intern("Electronics");
+        intern("Premium Electronics");
+    }
+    
+    /**
+     * gets the dictionary shared by Product objects and the extractors.
+     * it lives as long as the class and keeps every distinct category
+     * interned by any run in this JVM, so callers feeding it unbounded
+     * or untrusted category values should use their own dictionary.
+     * 
+     * @return the shared dictionary
+     */
+    public static CategoryDictionary shared() {
+        return SHARED;
+    }
+    
+    /**
+     * returns the code for a category, adding it if it is new.
+     * 
+     * @param category the category string
+     * @return the category code
+     * @throws IllegalArgumentException if the category is null
+     */
+    public int intern(String category) {
+        if (category == null) {
+            throw new IllegalArgumentException("Category must not be null");
+        }
+        Integer code = codes.get(category);
+        if (code != null) {
+            return code;
+        }
+        
+        synchronized (this) {
+            code = codes.get(category);
+            if (code != null) {
+                return code;
+            }
+            
+            int next = size;
+            if (next == values.length) {
+                folded = Arrays.copyOf(folded, next * 2);
+                values = Arrays.copyOf(values, next * 2);
+            }
+            
+            // the first spelling seen becomes the folded code for its group
+            Integer group = foldedCodes.putIfAbsent(foldCase(category), next);
+            folded[next] = group == null ? next : group;
+            values[next] = category;
+            size = next + 1;
+            codes.put(category, next);
+            return next;
+        }
+    }
+    
+    /**
+     * returns the stored instance of a category, adding it if it is new.
+     * 
+     * @param category the category string
+     * @return the shared instance equal to the category
+     * @throws IllegalArgumentException if the category is null
+     */
+    public String canonical(String category) {
+        return get(intern(category));
+    }
+    
+    /**
+     * returns the category string for a code.
+     * 
+     * @param code the category code
+     * @return the category string
+     */
+    public String get(int code) {
+        return values[code];
+    }
+    
+    /**
+     * returns the code shared by every category equal to this one ignoring case.
+     * 
+     * @param code the category code
+     * @return the folded code
+     */
+    public int foldedCode(int code) {
+        return folded[code];
+    }
+    
+    /**
+     * returns the number of distinct categories.
+     * 
+     * @return the number of categories
+     */
+    public int size() {
+        return size;
+    }
+    
+    /**
+     * folds a string one code point at a time the way String.equalsIgnoreCase
+     * compares characters.
+     */
+    private static String foldCase(String value) {
+        StringBuilder sb = new StringBuilder(value.length());
+        value.codePoints().forEach(cp -> sb.appendCodePoint(
+            Character.toLowerCase(Character.toUpperCase(cp))));
+        return sb.toString();
+    }
+}
\ No newline at end of file
@@ -0,0 +1,219 @@
+package org.howard.edu.lsp.assignment3;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.ByteBuffer;
+
+/**
+ * fixed-point money helpers that hold prices as a long number of cents.
+ * every result matches the double and BigDecimal path it replaces:
+ * rounding agrees with new BigDecimal(price).setScale(2, HALF_UP), and
+ * formatting agrees with String.format("%.2f", cents / 100.0).
+ */
+public final class Cents {
+    /** marker for a price that has no exact cents value. */
+    public static final long NONE = Long.MIN_VALUE;
+    
+    // parsed prices must stay below this many cents
+    private static final long MAX_CENTS = 10_000_000_000_000L;
+    private static final double MAX_EXACT_PRICE = 0x1p43;
+    
+    private Cents() {
+    }
+    
+    /**
+     * converts cents to the double price the double path would hold.
+     * cents / 100.0 is correctly rounded, so it equals both the parsed
+     * decimal and BigDecimal.doubleValue() of the same amount.
+     * 
+     * @param cents the amount in cents
+     * @return the price as a double
+     */
+    public static double toDouble(long cents) {
+        return cents / 100.0;
+    }
+    
+    /**
+     * rounds a price to two decimal places with half-up rounding.
+     * 
+     * @param price the price to round
+     * @return the rounded price
+     */
+    public static double round(double price) {
+        if (Math.abs(price) < MAX_EXACT_PRICE) {
+            return toDouble(roundHalfUp(price));
+        }
+        BigDecimal bd = new BigDecimal(price);
+        bd = bd.setScale(2, RoundingMode.HALF_UP);
+        return bd.doubleValue();
+    }
+    
+    /**
+     * rounds the exact binary value of a price to whole cents, half-up,
+     * without BigDecimal. a first guess from price * 100 is checked against
+     * the rounding boundaries with Math.fma, whose single rounding keeps the
+     * sign of price * 200 - boundary exact, and moved by one cent if needed.
+     * 
+     * @param price the price to round, with magnitude below 2^43
+     * @return the rounded price in cents
+     */
+    public static long roundHalfUp(double price) {
+        double magnitude = Math.abs(price);
+        if (!(magnitude < MAX_EXACT_PRICE)) {
+            throw new IllegalArgumentException("Price out of range for cents: " + price);
+        }
+        
+        long cents = (long) Math.floor(magnitude * 100 + 0.5);
+        if (Math.fma(magnitude, 200.0, -(2 * cents - 1)) < 0) {
+            cents--;
+        } else if (Math.fma(magnitude, 200.0, -(2 * cents + 1)) >= 0) {
+            cents++;
+        }
+        return price < 0 ? -cents : cents;
+    }
+    
+    /**
+     * applies the 10% Electronics discount to an amount in cents.
+     * 
+     * @param cents the amount in cents, from 0 to 10^13
+     * @return the discounted amount in cents
+     */
+    public static long discount(long cents) {
+        return discount(cents, 10);
+    }
+    
+    /**
+     * applies a whole-number percentage discount to an amount in cents,
+     * giving the same cents as rounding price * factor through BigDecimal.
+     * unless the exact result ends in half a cent, the double error is far
+     * too small to change the rounding, so plain integer math is used; exact
+     * halves are decided from the double product like the original code.
+     * 
+     * @param cents the amount in cents, from 0 to 10^13
+     * @param percent the discount percentage, from 0 to 100
+     * @return the discounted amount in cents
+     */
+    public static long discount(long cents, int percent) {
+        long hundredths = cents * (100 - percent);
+        if (hundredths % 100 != 50) {
+            return (hundredths + 50) / 100;
+        }
+        return roundHalfUp(toDouble(cents) * TransformRules.discountFactor(percent));
+    }
+    
+    /**
+     * appends an amount in cents with exactly two decimal places.
+     * 
+     * @param sb the builder to append to
+     * @param cents the amount in cents
+     * @return the builder
+     */
+    public static StringBuilder append(StringBuilder sb, long cents) {
+        if (cents < 0) {
+            sb.append('-');
+            cents = -cents;
+        }
+        long fraction = cents % 100;
+        sb.append(cents / 100).append('.');
+        if (fraction < 10) {
+            sb.append('0');
+        }
+        return sb.append(fraction);
+    }
+    
+    /**
+     * formats an amount in cents with exactly two decimal places.
+     * 
+     * @param cents the amount in cents
+     * @return the formatted amount
+     */
+    public static String toString(long cents) {
+        return append(new StringBuilder(16), cents).toString();
+    }
+    
+    /**
+     * parses a price field as cents when it is a plain non-negative decimal
+     * with at most two fraction digits, ignoring surrounding whitespace.
+     * 
+     * @param text the characters to read
+     * @param start the first character of the field
+     * @param end the character after the last character of the field
+     * @return the amount in cents, or {@link #NONE} if the field has another form
+     */
+    public static long parse(CharSequence text, int start, int end) {
+        while (start < end && text.charAt(start) <= ' ') start++;
+        while (end > start && text.charAt(end - 1) <= ' ') end--;
+        if (start < end && text.charAt(start) == '+') start++;
+        
+        long whole = 0;
+        int wholeDigits = 0;
+        int i = start;
+        for (; i < end && text.charAt(i) != '.'; i++) {
+            char c = text.charAt(i);
+            if (c < '0' || c > '9') return NONE;
+            whole = whole * 10 + (c - '0');
+            if (whole >= MAX_CENTS / 100) return NONE;
+            wholeDigits++;
+        }
+        
+        long fraction = 0;
+        int fractionDigits = 0;
+        for (i++; i < end; i++) {
+            char c = text.charAt(i);
+            if (c < '0' || c > '9' || fractionDigits == 2) return NONE;
+            fraction = fraction * 10 + (c - '0');
+            fractionDigits++;
+        }
+        
+        return toCents(whole, wholeDigits, fraction, fractionDigits);
+    }
+    
+    /**
+     * parses a price field from a range of bytes. see {@link #parse(CharSequence, int, int)}.
+     * 
+     * @param bytes the bytes to read, using absolute positions
+     * @param start the first byte of the field
+     * @param end the byte after the last byte of the field
+     * @return the amount in cents, or {@link #NONE} if the field has another form
+     */
+    public static long parse(ByteBuffer bytes, int start, int end) {
+        while (start < end && (bytes.get(start) & 0xFF) <= ' ') start++;
+        while (end > start && (bytes.get(end - 1) & 0xFF) <= ' ') end--;
+        if (start < end && bytes.get(start) == '+') start++;
+        
+        long whole = 0;
+        int wholeDigits = 0;
+        int i = start;
+        for (; i < end && bytes.get(i) != '.'; i++) {
+            int c = bytes.get(i);
+            if (c < '0' || c > '9') return NONE;
+            whole = whole * 10 + (c - '0');
+            if (whole >= MAX_CENTS / 100) return NONE;
+            wholeDigits++;
+        }
+        
+        long fraction = 0;
+        int fractionDigits = 0;
+        for (i++; i < end; i++) {
+            int c = bytes.get(i);
+            if (c < '0' || c > '9' || fractionDigits == 2) return NONE;
+            fraction = fraction * 10 + (c - '0');
+            fractionDigits++;
+        }
+        
+        return toCents(whole, wholeDigits, fraction, fractionDigits);
+    }
+    
+    /**
+     * combines the parsed whole and fraction digits into cents.
+     */
+    private static long toCents(long whole, int wholeDigits, long fraction, int fractionDigits) {
+        if (wholeDigits == 0 && fractionDigits == 0) {
+            return NONE;
+        }
+        if (fractionDigits == 1) {
+            fraction *= 10;
+        }
+        return whole * 100 + fraction;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,123 @@
+package org.howard.edu.lsp.assignment3;
+
+import static org.junit.Assert.*;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Random;
+
+import org.junit.Test;
+
+/**
+ * conformance tests checking the fixed-point cents path against the
+ * BigDecimal and String.format path it replaces.
+ */
+public class CentsTest {
+    
+    /**
+     * the original rounding used by Product.roundPrice.
+     */
+    private static double bigDecimalRound(double price) {
+        BigDecimal bd = new BigDecimal(price);
+        bd = bd.setScale(2, RoundingMode.HALF_UP);
+        return bd.doubleValue();
+    }
+    
+    @Test
+    public void testRoundMatchesBigDecimal() {
+        Random random = new Random(42);
+        for (int i = 0; i < 200000; i++) {
+            double price = random.nextDouble() * 10000;
+            assertEquals(bigDecimalRound(price), Cents.round(price), 0.0);
+        }
+    }
+    
+    @Test
+    public void testRoundMatchesBigDecimalNearHalfCents() {
+        double[] prices = {0.005, 0.015, 1.005, 1.115, 2.675, 8.345, 100.005, 629.541, 11.115, -2.675};
+        for (double price : prices) {
+            assertEquals(bigDecimalRound(price), Cents.round(price), 0.0);
+        }
+        
+        Random random = new Random(7);
+        for (int i = 0; i < 200000; i++) {
+            double price = (random.nextInt(10000000) + 0.5) / 100.0;
+            assertEquals(bigDecimalRound(price), Cents.round(price), 0.0);
+        }
+    }
+    
+    @Test
+    public void testRoundLargeValuesFallsBack() {
+        double price = 0x1p50 + 0.5;
+        assertEquals(bigDecimalRound(price), Cents.round(price), 0.0);
+    }
+    
+    @Test
+    public void testDiscountMatchesDoublePath() {
+        for (long cents = 0; cents < 500000; cents++) {
+            double expected = bigDecimalRound(Cents.toDouble(cents) * 0.9);
+            assertEquals(expected, Cents.toDouble(Cents.discount(cents)), 0.0);
+        }
+    }
+    
+    @Test
+    public void testDiscountMatchesDoublePathForAnyPercent() {
+        double[] percents = {0, 1, 12.5, 25, 33, 50, 66.6, 99, 100};
+        Random random = new Random(13);
+        for (double percent : percents) {
+            double factor = TransformRules.discountFactor(percent);
+            for (int i = 0; i < 100000; i++) {
+                long cents = i < 50000 ? i : (random.nextLong() >>> 1) % 10000000000000L;
+                double expected = bigDecimalRound(Cents.toDouble(cents) * factor);
+                if (percent == Math.rint(percent)) {
+                    assertEquals(percent + "% of " + cents, expected,
+                        Cents.toDouble(Cents.discount(cents, (int) percent)), 0.0);
+                }
+                // products take the integer path for whole percents and the double path otherwise
+                Product product = Product.withCents(1, "Mug", cents, CategoryDictionary.ELECTRONICS);
+                product.applyDiscount(percent);
+                assertEquals(percent + "% of " + cents, expected, product.getPrice(), 0.0);
+            }
+        }
+    }
+    
+    @Test
+    public void testFormatMatchesStringFormat() {
+        Random random = new Random(11);
+        for (int i = 0; i < 200000; i++) {
+            long cents = i < 100000 ? i : (long) (random.nextDouble() * 1e13);
+            assertEquals(String.format("%.2f", Cents.toDouble(cents)), Cents.toString(cents));
+        }
+    }
+    
+    @Test
+    public void testParse() {
+        assertEquals(1299, Cents.parse("12.99", 0, 5));
+        assertEquals(1250, Cents.parse(" 12.5 ", 0, 6));
+        assertEquals(1200, Cents.parse("12", 0, 2));
+        assertEquals(50, Cents.parse("+.5", 0, 3));
+        assertEquals(Cents.NONE, Cents.parse("12.999", 0, 6));
+        assertEquals(Cents.NONE, Cents.parse("-1.00", 0, 5));
+        assertEquals(Cents.NONE, Cents.parse("1e2", 0, 3));
+        assertEquals(Cents.NONE, Cents.parse(".", 0, 1));
+        assertEquals(Cents.NONE, Cents.parse("", 0, 0));
+    }
+    
+    @Test
+    public void testFixedPointProductMatchesDoubleProduct() {
+        String[] prices = {"12.99", "999.99", "2.49", "199.99", "0.99", "699.49", "555.55", "10.05", "500.00", "0"};
+        for (String price : prices) {
+            int code = CategoryDictionary.shared().intern("Electronics");
+            Product exact = Product.withCents(1, "Item", Cents.parse(price, 0, price.length()), code);
+            Product plain = new Product(1, "Item", Double.parseDouble(price), "Electronics");
+            
+            for (Product product : new Product[] {exact, plain}) {
+                product.uppercaseName();
+                product.applyElectronicsDiscount();
+                product.upgradeToPremium();
+                product.calculatePriceRange();
+            }
+            assertEquals(plain.toCSV(), exact.toCSV());
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,279 @@
+package org.howard.edu.lsp.assignment3;
+
+import java.io.*;
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.concurrent.*;
+import java.util.zip.*;
+
+/**
+ * stream compression formats chosen by file extension: .gz for gzip and
+ * .deflate or .zz for zlib deflate; any other file is read and written as is.
+ * 
+ * compressed streams run the codec on a background thread. a reader thread
+ * inflates the file into 64 KB chunks ahead of the parser, and a writer
+ * thread deflates chunks behind the encoder. the two sides meet in a bounded
+ * queue of a few chunks, so neither side waits on the other for long and
+ * memory stays flat.
+ */
+public enum CompressionCodec {
+    NONE,
+    GZIP,
+    DEFLATE;
+    
+    private static final int CHUNK_BYTES = 1 << 16;
+    private static final int QUEUE_CHUNKS = 8;
+    // ends the chunk queue
+    private static final byte[] END = new byte[0];
+    
+    /**
+     * chooses the codec for a file name.
+     * 
+     * @param path the file path
+     * @return the codec for its extension
+     */
+    public static CompressionCodec forPath(String path) {
+        String name = path.toLowerCase(Locale.ROOT);
+        if (name.endsWith(".gz")) {
+            return GZIP;
+        } else if (name.endsWith(".deflate") || name.endsWith(".zz")) {
+            return DEFLATE;
+        }
+        return NONE;
+    }
+    
+    /**
+     * opens a file for reading, decompressing it on a background thread.
+     * 
+     * @param file the file to read
+     * @return the decompressed stream
+     * @throws IOException if the file cannot be opened
+     */
+    public InputStream openInput(File file) throws IOException {
+        InputStream in = new FileInputStream(file);
+        if (this == NONE) {
+            return in;
+        }
+        try {
+            InputStream decoded = this == GZIP
+                ? new GZIPInputStream(in, CHUNK_BYTES)
+                : new InflaterInputStream(in, new Inflater(), CHUNK_BYTES);
+            return new ReadAheadInputStream(decoded, file.getName());
+        } catch (IOException e) {
+            in.close();
+            throw e;
+        }
+    }
+    
+    /**
+     * opens a file for writing, compressing it on a background thread.
+     * 
+     * @param file the file to write
+     * @return the stream to write uncompressed bytes to
+     * @throws IOException if the file cannot be created
+     */
+    public OutputStream openOutput(File file) throws IOException {
+        OutputStream out = new FileOutputStream(file);
+        if (this == NONE) {
+            return out;
+        }
+        OutputStream encoded = this == GZIP
+            ? new GZIPOutputStream(out, CHUNK_BYTES)
+            : new DeflaterOutputStream(out, new Deflater(), CHUNK_BYTES);
+        return new WriteBehindOutputStream(encoded, file.getName());
+    }
+    
+    /**
+     * throws the error that stopped a background thread, if any.
+     */
+    private static void rethrow(Throwable e) throws IOException {
+        if (e instanceof IOException) throw (IOException) e;
+        if (e instanceof RuntimeException) throw (RuntimeException) e;
+        if (e instanceof Error) throw (Error) e;
+    }
+    
+    /**
+     * fills chunks from the source on a daemon thread and hands them to the
+     * reader through a bounded queue. the thread always ends the queue, even
+     * when the codec fails, and the reader rethrows whatever stopped it.
+     */
+    private static class ReadAheadInputStream extends InputStream {
+        private BlockingQueue<byte[]> chunks = new ArrayBlockingQueue<>(QUEUE_CHUNKS);
+        private Thread thread;
+        private volatile Throwable failure;
+        private byte[] current = new byte[0];
+        private int position;
+        private boolean finished;
+        
+        ReadAheadInputStream(InputStream source, String name) {
+            thread = new Thread(() -> {
+                try {
+                    readChunks(source);
+                } catch (InterruptedException e) {
+                    // the reader was closed; keep the flag so the put below gives up at once
+                    Thread.currentThread().interrupt();
+                } catch (IOException | RuntimeException | Error e) {
+                    failure = e;
+                } finally {
+                    try {
+                        chunks.put(END);
+                    } catch (InterruptedException e) {
+                        // the reader was closed
+                    }
+                }
+            }, "inflate-" + name);
+            thread.setDaemon(true);
+            thread.start();
+        }
+        
+        private void readChunks(InputStream source) throws IOException, InterruptedException {
+            try (InputStream in = source) {
+                while (true) {
+                    byte[] chunk = new byte[CHUNK_BYTES];
+                    int length = in.readNBytes(chunk, 0, chunk.length);
+                    if (length == 0) break;
+                    chunks.put(length == chunk.length ? chunk : Arrays.copyOf(chunk, length));
+                }
+            }
+        }
+        
+        @Override
+        public int read() throws IOException {
+            if (!fill()) return -1;
+            return current[position++] & 0xFF;
+        }
+        
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            if (len == 0) return 0;
+            if (!fill()) return -1;
+            int count = Math.min(len, current.length - position);
+            System.arraycopy(current, position, b, off, count);
+            position += count;
+            return count;
+        }
+        
+        /**
+         * makes sure the current chunk has bytes left.
+         * 
+         * @return false at the end of the stream
+         */
+        private boolean fill() throws IOException {
+            while (position == current.length) {
+                if (finished) return false;
+                try {
+                    current = chunks.take();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new InterruptedIOException("Interrupted while decompressing");
+                }
+                position = 0;
+                if (current == END) {
+                    finished = true;
+                    rethrow(failure);
+                    return false;
+                }
+            }
+            return true;
+        }
+        
+        @Override
+        public void close() {
+            thread.interrupt();
+        }
+    }
+    
+    /**
+     * collects written bytes into chunks and passes them to a daemon thread
+     * that feeds the compressor. close() waits for the last chunk to be
+     * written, and put and close rethrow whatever stopped the background
+     * thread, so a failed codec never leaves a silently truncated file.
+     */
+    static class WriteBehindOutputStream extends OutputStream {
+        private BlockingQueue<byte[]> chunks = new ArrayBlockingQueue<>(QUEUE_CHUNKS);
+        private Thread thread;
+        private volatile Throwable failure;
+        private byte[] current = new byte[CHUNK_BYTES];
+        private int size;
+        private boolean closed;
+        
+        WriteBehindOutputStream(OutputStream target, String name) {
+            thread = new Thread(() -> {
+                try (OutputStream out = target) {
+                    byte[] chunk;
+                    while ((chunk = chunks.take()) != END) {
+                        out.write(chunk);
+                    }
+                } catch (IOException | RuntimeException | Error e) {
+                    failure = e;
+                    chunks.clear(); // unblock the writer
+                } catch (InterruptedException e) {
+                    failure = new InterruptedIOException("Interrupted while compressing");
+                }
+            }, "deflate-" + name);
+            thread.setDaemon(true);
+            thread.start();
+        }
+        
+        @Override
+        public void write(int b) throws IOException {
+            if (size == current.length) {
+                handOff();
+            }
+            current[size++] = (byte) b;
+        }
+        
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            while (len > 0) {
+                if (size == current.length) {
+                    handOff();
+                }
+                int count = Math.min(len, current.length - size);
+                System.arraycopy(b, off, current, size, count);
+                size += count;
+                off += count;
+                len -= count;
+            }
+        }
+        
+        /**
+         * queues the current chunk for compression and starts a new one.
+         */
+        private void handOff() throws IOException {
+            put(size == current.length ? current : Arrays.copyOf(current, size));
+            current = new byte[CHUNK_BYTES];
+            size = 0;
+        }
+        
+        private void put(byte[] chunk) throws IOException {
+            rethrow(failure);
+            try {
+                while (!chunks.offer(chunk, 100, TimeUnit.MILLISECONDS)) {
+                    rethrow(failure);
+                    if (!thread.isAlive()) throw new IOException("Compression thread stopped");
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Interrupted while compressing");
+            }
+        }
+        
+        @Override
+        public void close() throws IOException {
+            if (closed) return;
+            closed = true;
+            if (size > 0) {
+                handOff();
+            }
+            put(END);
+            try {
+                thread.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Interrupted while compressing");
+            }
+            rethrow(failure);
+        }
+    }
+}
\ No newline at end of file
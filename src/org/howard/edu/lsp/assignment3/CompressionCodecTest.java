@@ -0,0 +1,82 @@
+package org.howard.edu.lsp.assignment3;
+
+import static org.junit.Assert.*;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Random;
+
+import org.junit.Test;
+
+/**
+ * tests for {@link CompressionCodec} and its background codec threads.
+ */
+public class CompressionCodecTest {
+    
+    /**
+     * a target whose codec fails with an unchecked exception on the first write.
+     */
+    private static class BrokenStream extends OutputStream {
+        @Override
+        public void write(int b) {
+            throw new IllegalStateException("codec failed");
+        }
+        
+        @Override
+        public void write(byte[] b, int off, int len) {
+            throw new IllegalStateException("codec failed");
+        }
+    }
+    
+    @Test
+    public void testRoundTrip() throws IOException {
+        byte[] data = new byte[300000];
+        new Random(1).nextBytes(data);
+        for (String suffix : new String[] {".gz", ".deflate"}) {
+            File file = File.createTempFile("codec", suffix);
+            try {
+                CompressionCodec codec = CompressionCodec.forPath(file.getPath());
+                try (OutputStream out = codec.openOutput(file)) {
+                    out.write(data, 0, 1000);
+                    out.write(data[1000]);
+                    out.write(data, 1001, data.length - 1001);
+                }
+                try (InputStream in = codec.openInput(file)) {
+                    assertArrayEquals(data, in.readAllBytes());
+                }
+            } finally {
+                file.delete();
+            }
+        }
+    }
+    
+    @Test
+    public void testCloseRethrowsUncheckedFailure() throws IOException {
+        OutputStream out = new CompressionCodec.WriteBehindOutputStream(new BrokenStream(), "test");
+        out.write(new byte[10]);
+        try {
+            out.close();
+            fail("expected the codec failure");
+        } catch (IllegalStateException e) {
+            assertEquals("codec failed", e.getMessage());
+        }
+    }
+    
+    @Test
+    public void testWriteRethrowsUncheckedFailure() throws IOException {
+        OutputStream out = new CompressionCodec.WriteBehindOutputStream(new BrokenStream(), "test");
+        byte[] chunk = new byte[1 << 16];
+        try {
+            // far more than the queue holds, so a write must see the failure
+            for (int i = 0; i < 1000; i++) {
+                out.write(chunk);
+            }
+            out.close();
+            fail("expected the codec failure");
+        } catch (IllegalStateException e) {
+            assertEquals("codec failed", e.getMessage());
+        }
+    }
+}
\ No newline at end of file
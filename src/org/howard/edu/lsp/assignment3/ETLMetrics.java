@@ -0,0 +1,568 @@
+package org.howard.edu.lsp.assignment3;
+
+import java.io.*;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.ToLongFunction;
+import javax.management.*;
+
+/**
+ * counts what an ETL run did and how long each stage took.
+ * row and byte counters are LongAdders, so extractor, loader and worker
+ * threads can update one instance without contention. each stage keeps its
+ * total wall and CPU time plus a log2 latency histogram of its timed calls:
+ * one call per stage in the list modes, one per batch in pipelined mode and
+ * one per file in batch mode. CPU time is that of the thread that timed the
+ * call, so work handed to other pools is only counted in wall time.
+ * 
+ * the streaming, deduplicated, incremental, sorted and aggregate modes
+ * extract, transform and load each row in turn inside one call, so they
+ * time only TOTAL. stages that were never timed are reported as not
+ * measured in the summary and left out of the JMX stage maps and the JSON
+ * report, rather than shown as taking no time.
+ * 
+ * the metrics are read through the getters, through JMX once
+ * {@link #register(String)} has been called, or as a JSON report.
+ */
+public class ETLMetrics implements ETLMetricsMXBean {
+    private static final ThreadMXBean THREADS = ManagementFactory.getThreadMXBean();
+    private static final String DOMAIN = "org.howard.edu.lsp.assignment3";
+    
+    /**
+     * the timed parts of a run.
+     */
+    public enum Stage {
+        EXTRACT, TRANSFORM, LOAD, TOTAL
+    }
+    
+    /**
+     * why an input row was not turned into a product.
+     */
+    public enum SkipReason {
+        /** the row did not have exactly four non-empty leading columns. */
+        WRONG_COLUMN_COUNT,
+        /** the ProductID or Price column was not a number. */
+        INVALID_NUMBER
+    }
+    
+    private LongAdder rowsRead = new LongAdder();
+    private LongAdder rowsWritten = new LongAdder();
+    private LongAdder bytesIn = new LongAdder();
+    private LongAdder bytesOut = new LongAdder();
+    private LongAdder[] skipped = adders(SkipReason.values().length);
+    private StageStats[] stages = new StageStats[Stage.values().length];
+    private ObjectName registeredName;
+    
+    /**
+     * constructs an ETLMetrics with every counter at zero.
+     */
+    public ETLMetrics() {
+        for (int i = 0; i < stages.length; i++) {
+            stages[i] = new StageStats();
+        }
+    }
+    
+    /**
+     * counts one non-blank data row read from the input. rows that are not
+     * skipped count as parsed.
+     */
+    public void rowRead() {
+        rowsRead.increment();
+    }
+    
+    /**
+     * counts one row skipped by the extractor.
+     * 
+     * @param reason why the row was skipped
+     */
+    public void rowSkipped(SkipReason reason) {
+        skipped[reason.ordinal()].increment();
+    }
+    
+    /**
+     * counts rows written to the output.
+     * 
+     * @param rows the number of rows
+     */
+    public void rowsWritten(long rows) {
+        rowsWritten.add(rows);
+    }
+    
+    /**
+     * counts bytes of input as stored on disk.
+     * 
+     * @param bytes the number of bytes
+     */
+    public void bytesIn(long bytes) {
+        bytesIn.add(bytes);
+    }
+    
+    /**
+     * counts bytes of output as stored on disk.
+     * 
+     * @param bytes the number of bytes
+     */
+    public void bytesOut(long bytes) {
+        bytesOut.add(bytes);
+    }
+    
+    /**
+     * starts timing a stage on the current thread. stop the returned timer
+     * in a finally block when the stage's work is done.
+     * 
+     * @param stage the stage being timed
+     * @return the running timer
+     */
+    public Timer time(Stage stage) {
+        return new Timer(stage);
+    }
+    
+    /**
+     * records one timed call of a stage.
+     * 
+     * @param stage the stage
+     * @param wallNanos the elapsed wall time
+     * @param cpuNanos the CPU time used, or a negative value if unknown
+     */
+    public void record(Stage stage, long wallNanos, long cpuNanos) {
+        StageStats stats = stages[stage.ordinal()];
+        stats.calls.increment();
+        stats.wallNanos.add(wallNanos);
+        if (cpuNanos > 0) {
+            stats.cpuNanos.add(cpuNanos);
+        }
+        stats.latency.record(wallNanos);
+    }
+    
+    @Override
+    public long getRowsRead() {
+        return rowsRead.sum();
+    }
+    
+    @Override
+    public long getRowsParsed() {
+        return getRowsRead() - getRowsSkipped();
+    }
+    
+    @Override
+    public long getRowsWritten() {
+        return rowsWritten.sum();
+    }
+    
+    @Override
+    public long getBytesIn() {
+        return bytesIn.sum();
+    }
+    
+    @Override
+    public long getBytesOut() {
+        return bytesOut.sum();
+    }
+    
+    @Override
+    public long getRowsSkipped() {
+        long total = 0;
+        for (LongAdder adder : skipped) {
+            total += adder.sum();
+        }
+        return total;
+    }
+    
+    /**
+     * gets the number of rows skipped for one reason.
+     * 
+     * @param reason the skip reason
+     * @return the number of rows
+     */
+    public long getRowsSkipped(SkipReason reason) {
+        return skipped[reason.ordinal()].sum();
+    }
+    
+    /**
+     * gets the total wall time of a stage. a stage that was not timed in
+     * this run reads 0; its latency histogram then has no calls.
+     * 
+     * @param stage the stage
+     * @return the wall time in nanoseconds
+     */
+    public long getWallNanos(Stage stage) {
+        return stages[stage.ordinal()].wallNanos.sum();
+    }
+    
+    /**
+     * gets the total CPU time of a stage.
+     * 
+     * @param stage the stage
+     * @return the CPU time in nanoseconds
+     */
+    public long getCpuNanos(Stage stage) {
+        return stages[stage.ordinal()].cpuNanos.sum();
+    }
+    
+    /**
+     * gets the latency histogram of a stage's timed calls.
+     * 
+     * @param stage the stage
+     * @return the live histogram
+     */
+    public LatencyHistogram getLatency(Stage stage) {
+        return stages[stage.ordinal()].latency;
+    }
+    
+    @Override
+    public Map<String, Long> getRowsSkippedByReason() {
+        Map<String, Long> map = new LinkedHashMap<>();
+        for (SkipReason reason : SkipReason.values()) {
+            map.put(reason.name(), getRowsSkipped(reason));
+        }
+        return map;
+    }
+    
+    @Override
+    public Map<String, Long> getStageWallMillis() {
+        return perStage(s -> s.wallNanos.sum() / 1_000_000);
+    }
+    
+    @Override
+    public Map<String, Long> getStageCpuMillis() {
+        return perStage(s -> s.cpuNanos.sum() / 1_000_000);
+    }
+    
+    @Override
+    public Map<String, Long> getStageCalls() {
+        return perStage(s -> s.calls.sum());
+    }
+    
+    @Override
+    public Map<String, Long> getStageP50Micros() {
+        return perStage(s -> s.latency.percentile(0.50) / 1000);
+    }
+    
+    @Override
+    public Map<String, Long> getStageP99Micros() {
+        return perStage(s -> s.latency.percentile(0.99) / 1000);
+    }
+    
+    @Override
+    public Map<String, Long> getStageMaxMicros() {
+        return perStage(s -> s.latency.getMax() / 1000);
+    }
+    
+    /**
+     * collects one value per stage that has been timed at least once.
+     */
+    private Map<String, Long> perStage(ToLongFunction<StageStats> value) {
+        Map<String, Long> map = new LinkedHashMap<>();
+        for (Stage stage : Stage.values()) {
+            StageStats stats = stages[stage.ordinal()];
+            if (stats.calls.sum() > 0) {
+                map.put(stage.name(), value.applyAsLong(stats));
+            }
+        }
+        return map;
+    }
+    
+    @Override
+    public void reset() {
+        for (LongAdder adder : new LongAdder[] {rowsRead, rowsWritten, bytesIn, bytesOut}) {
+            adder.reset();
+        }
+        for (LongAdder adder : skipped) {
+            adder.reset();
+        }
+        for (StageStats stats : stages) {
+            stats.reset();
+        }
+    }
+    
+    /**
+     * registers these metrics with the platform MBean server as
+     * org.howard.edu.lsp.assignment3:type=ETLMetrics,name=NAME, replacing
+     * any metrics already registered under that name.
+     * 
+     * @param name the name that identifies this run
+     * @return the registered object name
+     * @throws IllegalArgumentException if the name is not valid in an ObjectName
+     */
+    public ObjectName register(String name) {
+        try {
+            ObjectName objectName = new ObjectName(DOMAIN + ":type=ETLMetrics,name=" + ObjectName.quote(name));
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            if (server.isRegistered(objectName)) {
+                server.unregisterMBean(objectName);
+            }
+            server.registerMBean(this, objectName);
+            registeredName = objectName;
+            return objectName;
+        } catch (JMException e) {
+            throw new IllegalArgumentException("Cannot register metrics '" + name + "': " + e.getMessage(), e);
+        }
+    }
+    
+    /**
+     * removes these metrics from the platform MBean server, if registered.
+     */
+    public void unregister() {
+        if (registeredName == null) return;
+        
+        try {
+            ManagementFactory.getPlatformMBeanServer().unregisterMBean(registeredName);
+        } catch (JMException e) {
+            // already gone
+        }
+        registeredName = null;
+    }
+    
+    @Override
+    public String toJson() {
+        StringBuilder sb = new StringBuilder(512);
+        sb.append("{\n");
+        sb.append("  \"rowsRead\": ").append(getRowsRead()).append(",\n");
+        sb.append("  \"rowsParsed\": ").append(getRowsParsed()).append(",\n");
+        sb.append("  \"rowsSkipped\": ").append(getRowsSkipped()).append(",\n");
+        sb.append("  \"rowsSkippedByReason\": ").append(jsonObject(getRowsSkippedByReason())).append(",\n");
+        sb.append("  \"rowsWritten\": ").append(getRowsWritten()).append(",\n");
+        sb.append("  \"bytesIn\": ").append(getBytesIn()).append(",\n");
+        sb.append("  \"bytesOut\": ").append(getBytesOut()).append(",\n");
+        sb.append("  \"stages\": {");
+        String separator = "\n";
+        for (Stage stage : Stage.values()) {
+            StageStats stats = stages[stage.ordinal()];
+            if (stats.calls.sum() == 0) continue;
+            
+            sb.append(separator).append("    \"").append(stage.name()).append("\": {")
+                .append("\"calls\": ").append(stats.calls.sum())
+                .append(", \"wallNanos\": ").append(stats.wallNanos.sum())
+                .append(", \"cpuNanos\": ").append(stats.cpuNanos.sum())
+                .append(", \"p50Nanos\": ").append(stats.latency.percentile(0.50))
+                .append(", \"p99Nanos\": ").append(stats.latency.percentile(0.99))
+                .append(", \"maxNanos\": ").append(stats.latency.getMax())
+                .append('}');
+            separator = ",\n";
+        }
+        sb.append(separator.equals("\n") ? "}\n" : "\n  }\n");
+        return sb.append('}').toString();
+    }
+    
+    /**
+     * writes the JSON report to a file.
+     * 
+     * @param path the report path
+     * @throws IOException if the report cannot be written
+     */
+    public void writeJson(String path) throws IOException {
+        File file = new File(path);
+        if (file.getParentFile() != null) {
+            file.getParentFile().mkdirs();
+        }
+        Files.write(Paths.get(path), toJson().getBytes(StandardCharsets.UTF_8));
+    }
+    
+    /**
+     * formats the metrics as lines for a run summary.
+     * 
+     * @return the summary lines
+     */
+    public String summary() {
+        StringBuilder sb = new StringBuilder();
+        sb.append("Rows read: ").append(getRowsRead()).append('\n');
+        sb.append("Rows parsed: ").append(getRowsParsed()).append('\n');
+        sb.append("Rows skipped: ").append(getRowsSkipped());
+        for (SkipReason reason : SkipReason.values()) {
+            long count = getRowsSkipped(reason);
+            if (count > 0) {
+                sb.append("\n  ").append(reason.name().toLowerCase(Locale.ROOT).replace('_', ' ')).append(": ").append(count);
+            }
+        }
+        sb.append('\n');
+        sb.append("Rows written: ").append(getRowsWritten()).append('\n');
+        sb.append("Bytes in: ").append(getBytesIn()).append(", bytes out: ").append(getBytesOut());
+        boolean timed = stages[Stage.TOTAL.ordinal()].calls.sum() > 0;
+        for (Stage stage : Stage.values()) {
+            StageStats stats = stages[stage.ordinal()];
+            String name = stage.name().charAt(0) + stage.name().substring(1).toLowerCase(Locale.ROOT);
+            if (stats.calls.sum() == 0) {
+                if (timed) {
+                    sb.append('\n').append(name).append(": not measured in this mode");
+                }
+                continue;
+            }
+            
+            sb.append('\n').append(name)
+                .append(": ").append(stats.wallNanos.sum() / 1_000_000).append(" ms wall, ")
+                .append(stats.cpuNanos.sum() / 1_000_000).append(" ms CPU");
+            if (stats.calls.sum() > 1) {
+                sb.append(", ").append(stats.calls.sum()).append(" calls, p50 ")
+                    .append(stats.latency.percentile(0.50) / 1000).append(" us, p99 ")
+                    .append(stats.latency.percentile(0.99) / 1000).append(" us");
+            }
+        }
+        return sb.toString();
+    }
+    
+    private static String jsonObject(Map<String, Long> map) {
+        StringJoiner joiner = new StringJoiner(", ", "{", "}");
+        for (Map.Entry<String, Long> entry : map.entrySet()) {
+            joiner.add("\"" + entry.getKey() + "\": " + entry.getValue());
+        }
+        return joiner.toString();
+    }
+    
+    private static LongAdder[] adders(int count) {
+        LongAdder[] adders = new LongAdder[count];
+        for (int i = 0; i < count; i++) {
+            adders[i] = new LongAdder();
+        }
+        return adders;
+    }
+    
+    /**
+     * reads the CPU time of the current thread.
+     * 
+     * @return the CPU time in nanoseconds, or -1 if the JVM cannot measure it
+     */
+    static long currentThreadCpuNanos() {
+        return THREADS.isCurrentThreadCpuTimeSupported() ? THREADS.getCurrentThreadCpuTime() : -1;
+    }
+    
+    /**
+     * the totals and latency histogram of one stage.
+     */
+    private static class StageStats {
+        LongAdder calls = new LongAdder();
+        LongAdder wallNanos = new LongAdder();
+        LongAdder cpuNanos = new LongAdder();
+        LatencyHistogram latency = new LatencyHistogram();
+        
+        /**
+         * zeroes the totals and histogram in place, so histograms already
+         * handed out by {@link ETLMetrics#getLatency} stay live.
+         */
+        void reset() {
+            calls.reset();
+            wallNanos.reset();
+            cpuNanos.reset();
+            latency.reset();
+        }
+    }
+    
+    /**
+     * times one call of a stage on the current thread.
+     */
+    public class Timer implements AutoCloseable {
+        private Stage stage;
+        private long startWall;
+        private long startCpu;
+        private boolean stopped;
+        
+        Timer(Stage stage) {
+            this.stage = stage;
+            this.startCpu = currentThreadCpuNanos();
+            this.startWall = System.nanoTime();
+        }
+        
+        /**
+         * records the elapsed time of the call. stopping again has no effect,
+         * so a timer can be stopped early inside its try block.
+         */
+        public void stop() {
+            if (stopped) return;
+            
+            stopped = true;
+            long wall = System.nanoTime() - startWall;
+            long cpu = startCpu < 0 ? -1 : currentThreadCpuNanos() - startCpu;
+            record(stage, wall, cpu);
+        }
+        
+        /**
+         * stops the timer if it is still running.
+         */
+        @Override
+        public void close() {
+            stop();
+        }
+    }
+    
+    /**
+     * a lock-free histogram of durations in power-of-two buckets.
+     * bucket i counts durations from 2^(i-1) up to 2^i - 1 nanoseconds, so
+     * percentiles are accurate to within a factor of two.
+     */
+    public static class LatencyHistogram {
+        private AtomicLongArray buckets = new AtomicLongArray(64);
+        private LongAdder count = new LongAdder();
+        private LongAccumulator max = new LongAccumulator(Math::max, 0);
+        
+        /**
+         * adds one duration.
+         * 
+         * @param nanos the duration in nanoseconds
+         */
+        public void record(long nanos) {
+            nanos = Math.max(nanos, 0);
+            buckets.incrementAndGet(Math.min(63, 64 - Long.numberOfLeadingZeros(nanos)));
+            count.increment();
+            max.accumulate(nanos);
+        }
+        
+        /**
+         * removes every recorded duration. durations recorded while the
+         * reset runs may be kept or dropped.
+         */
+        public void reset() {
+            for (int i = 0; i < 64; i++) {
+                buckets.set(i, 0);
+            }
+            count.reset();
+            max.reset();
+        }
+        
+        /**
+         * gets the number of recorded durations.
+         * 
+         * @return the count
+         */
+        public long getCount() {
+            return count.sum();
+        }
+        
+        /**
+         * gets the longest recorded duration.
+         * 
+         * @return the maximum in nanoseconds
+         */
+        public long getMax() {
+            return max.get();
+        }
+        
+        /**
+         * estimates a percentile as the upper bound of the bucket it falls in,
+         * capped at the maximum.
+         * 
+         * @param quantile the quantile, from 0 to 1
+         * @return the estimated duration in nanoseconds, or 0 if nothing was recorded
+         */
+        public long percentile(double quantile) {
+            long total = count.sum();
+            if (total == 0) return 0;
+            
+            long rank = Math.max(1, (long) Math.ceil(quantile * total));
+            long seen = 0;
+            for (int i = 0; i < 64; i++) {
+                seen += buckets.get(i);
+                if (seen >= rank) {
+                    long upper = i == 0 ? 0 : i >= 63 ? Long.MAX_VALUE : (1L << i) - 1;
+                    return Math.min(upper, getMax());
+                }
+            }
+            return getMax();
+        }
+    }
+}
\ No newline at end of file
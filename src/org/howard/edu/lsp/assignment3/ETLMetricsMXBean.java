@@ -0,0 +1,36 @@
+package org.howard.edu.lsp.assignment3;
+
+import java.util.Map;
+
+/**
+ * the JMX view of {@link ETLMetrics}. maps are keyed by skip reason or stage
+ * name, and times are in milliseconds or microseconds as named. the stage
+ * maps only hold the stages timed in the run.
+ */
+public interface ETLMetricsMXBean {
+    long getRowsRead();
+    long getRowsParsed();
+    long getRowsSkipped();
+    long getRowsWritten();
+    long getBytesIn();
+    long getBytesOut();
+    Map<String, Long> getRowsSkippedByReason();
+    Map<String, Long> getStageWallMillis();
+    Map<String, Long> getStageCpuMillis();
+    Map<String, Long> getStageCalls();
+    Map<String, Long> getStageP50Micros();
+    Map<String, Long> getStageP99Micros();
+    Map<String, Long> getStageMaxMicros();
+    
+    /**
+     * formats every metric as a JSON object.
+     * 
+     * @return the JSON report
+     */
+    String toJson();
+    
+    /**
+     * sets every counter and histogram back to zero.
+     */
+    void reset();
+}
\ No newline at end of file
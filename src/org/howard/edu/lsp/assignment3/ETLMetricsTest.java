@@ -0,0 +1,149 @@
+package org.howard.edu.lsp.assignment3;
+
+import static org.junit.Assert.*;
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * tests for {@link ETLMetrics} and the counters updated by the extractor and loader.
+ */
+public class ETLMetricsTest {
+    private File input;
+    private File output;
+    
+    @Before
+    public void setUp() throws IOException {
+        input = File.createTempFile("products", ".csv");
+        output = File.createTempFile("transformed", ".csv");
+        String csv = "ProductID,Name,Price,Category\n"
+            + "1,Laptop,999.99,Electronics\n"
+            + "2,Mug,abc,Kitchen\n"
+            + "\n"
+            + "3,Desk,150.00\n"
+            + "4,Pen,1.50,Office\n";
+        Files.write(input.toPath(), csv.getBytes(StandardCharsets.UTF_8));
+    }
+    
+    @After
+    public void tearDown() {
+        input.delete();
+        output.delete();
+    }
+    
+    @Test
+    public void testCountsRowsBySkipReason() throws IOException {
+        for (boolean memoryMapped : new boolean[] {false, true}) {
+            ETLMetrics metrics = new ETLMetrics();
+            CSVExtractor extractor = new CSVExtractor(input.getPath());
+            extractor.setMemoryMapped(memoryMapped);
+            extractor.setMetrics(metrics);
+            
+            assertEquals(2, extractor.extract().size());
+            assertEquals(4, metrics.getRowsRead());
+            assertEquals(2, metrics.getRowsParsed());
+            assertEquals(2, metrics.getRowsSkipped());
+            assertEquals(1, metrics.getRowsSkipped(ETLMetrics.SkipReason.WRONG_COLUMN_COUNT));
+            assertEquals(1, metrics.getRowsSkipped(ETLMetrics.SkipReason.INVALID_NUMBER));
+            assertEquals(input.length(), metrics.getBytesIn());
+        }
+    }
+    
+    @Test
+    public void testOrchestratorRecordsOutputAndStages() throws IOException {
+        ETLOrchestrator orchestrator = new ETLOrchestrator(input.getPath(), output.getPath());
+        orchestrator.execute();
+        
+        ETLMetrics metrics = orchestrator.getMetrics();
+        assertEquals(2, metrics.getRowsWritten());
+        assertEquals(output.length(), metrics.getBytesOut());
+        for (ETLMetrics.Stage stage : ETLMetrics.Stage.values()) {
+            assertEquals(1, metrics.getLatency(stage).getCount());
+        }
+        assertTrue(metrics.getWallNanos(ETLMetrics.Stage.TOTAL) >= metrics.getWallNanos(ETLMetrics.Stage.LOAD));
+        assertTrue(metrics.toJson().contains("\"rowsSkippedByReason\": {\"WRONG_COLUMN_COUNT\": 1, \"INVALID_NUMBER\": 1}"));
+    }
+    
+    @Test
+    public void testStreamingMarksStagesNotMeasured() throws IOException {
+        ETLOrchestrator orchestrator = new ETLOrchestrator(input.getPath(), output.getPath());
+        orchestrator.executeStreaming();
+        
+        ETLMetrics metrics = orchestrator.getMetrics();
+        assertEquals(1, metrics.getLatency(ETLMetrics.Stage.TOTAL).getCount());
+        assertEquals(0, metrics.getLatency(ETLMetrics.Stage.TRANSFORM).getCount());
+        assertFalse(metrics.getStageWallMillis().containsKey("TRANSFORM"));
+        String summary = metrics.summary();
+        assertTrue(summary, summary.contains("\nExtract: not measured in this mode"));
+        assertTrue(summary, summary.contains("\nTransform: not measured in this mode"));
+        assertTrue(summary, summary.contains("\nLoad: not measured in this mode"));
+        assertTrue(summary, summary.contains("\nTotal: "));
+        assertFalse(new ETLMetrics().summary().contains("not measured"));
+    }
+    
+    @Test
+    public void testHistogramPercentiles() {
+        ETLMetrics.LatencyHistogram histogram = new ETLMetrics.LatencyHistogram();
+        assertEquals(0, histogram.percentile(0.5));
+        for (int i = 0; i < 99; i++) {
+            histogram.record(1000);
+        }
+        histogram.record(1_000_000);
+        
+        // 1000 falls in the bucket up to 1023
+        assertEquals(1023, histogram.percentile(0.5));
+        assertEquals(1023, histogram.percentile(0.99));
+        assertEquals(1_000_000, histogram.percentile(1.0));
+        assertEquals(1_000_000, histogram.getMax());
+        assertEquals(100, histogram.getCount());
+    }
+    
+    @Test
+    public void testResetKeepsHistogramsLive() {
+        ETLMetrics metrics = new ETLMetrics();
+        metrics.rowRead();
+        metrics.rowSkipped(ETLMetrics.SkipReason.INVALID_NUMBER);
+        metrics.record(ETLMetrics.Stage.LOAD, 5000, 4000);
+        ETLMetrics.LatencyHistogram latency = metrics.getLatency(ETLMetrics.Stage.LOAD);
+        
+        metrics.reset();
+        assertEquals(0, metrics.getRowsRead());
+        assertEquals(0, metrics.getRowsSkipped());
+        assertEquals(0, metrics.getWallNanos(ETLMetrics.Stage.LOAD));
+        assertEquals(0, metrics.getCpuNanos(ETLMetrics.Stage.LOAD));
+        assertTrue(metrics.getStageCalls().isEmpty());
+        assertEquals(0, latency.getCount());
+        assertEquals(0, latency.getMax());
+        assertEquals(0, latency.percentile(0.5));
+        
+        // the histogram taken before the reset still sees new calls
+        metrics.record(ETLMetrics.Stage.LOAD, 1000, 1000);
+        assertSame(latency, metrics.getLatency(ETLMetrics.Stage.LOAD));
+        assertEquals(1, latency.getCount());
+        assertEquals(1000, latency.getMax());
+    }
+    
+    @Test
+    public void testRegistersWithPlatformMBeanServer() throws Exception {
+        ETLMetrics metrics = new ETLMetrics();
+        metrics.rowRead();
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        ObjectName name = metrics.register("test");
+        try {
+            assertEquals(1L, server.getAttribute(name, "RowsRead"));
+        } finally {
+            metrics.unregister();
+        }
+        assertFalse(server.isRegistered(name));
+    }
+}
\ No newline at end of file
@@ -1,7 +1,10 @@
 package org.howard.edu.lsp.assignment3;
 
+import java.io.File;
 import java.io.IOException;
+import java.nio.file.Path;
 import java.util.List;
+import java.util.concurrent.ForkJoinPool;
 
 /**
  * orchestrates the entire ETL process using dedicated components.
@@ -13,6 +16,12 @@ public class ETLOrchestrator {
     private CSVLoader loader;
     private String inputPath;
     private String outputPath;
+    private int extractThreads = 1;
+    private int transformThreads = 1;
+    private boolean memoryMapped;
+    private boolean fixedPoint;
+    private boolean binaryOutput;
+    private ETLMetrics metrics = new ETLMetrics();
     
     /**
      * constructs an ETLOrchestrator with specified file paths.
@@ -26,6 +35,77 @@ public class ETLOrchestrator {
         this.extractor = new CSVExtractor(inputPath);
         this.transformer = new ProductTransformer();
         this.loader = new CSVLoader(outputPath);
+        extractor.setMetrics(metrics);
+        loader.setMetrics(metrics);
+    }
+    
+    /**
+     * gets the metrics of the runs made by this orchestrator: rows read,
+     * skipped and written, bytes in and out, and per-stage timings.
+     * 
+     * @return the live metrics
+     */
+    public ETLMetrics getMetrics() {
+        return metrics;
+    }
+    
+    /**
+     * sets the number of threads used to extract the input file.
+     * values above 1 parse newline-aligned chunks of the file in parallel.
+     * 
+     * @param extractThreads the number of extraction threads
+     */
+    public void setExtractThreads(int extractThreads) {
+        this.extractThreads = extractThreads;
+    }
+    
+    /**
+     * sets the number of threads used to transform products.
+     * values above 1 transform chunks of rows on a fork-join pool.
+     * 
+     * @param transformThreads the number of transformation threads
+     */
+    public void setTransformThreads(int transformThreads) {
+        this.transformThreads = transformThreads;
+    }
+    
+    /**
+     * selects the memory-mapped reader backend for extraction.
+     * 
+     * @param memoryMapped true to read the input through a memory-mapped file
+     */
+    public void setMemoryMapped(boolean memoryMapped) {
+        this.memoryMapped = memoryMapped;
+        extractor.setMemoryMapped(memoryMapped);
+    }
+    
+    /**
+     * selects fixed-point money mode, keeping prices as exact cents.
+     * 
+     * @param fixedPoint true to parse prices as cents where possible
+     */
+    public void setFixedPoint(boolean fixedPoint) {
+        this.fixedPoint = fixedPoint;
+        extractor.setFixedPoint(fixedPoint);
+    }
+    
+    /**
+     * selects the binary columnar output format instead of CSV. the output
+     * is written next to the CSV path with a .bin extension.
+     * 
+     * @param binaryOutput true to write a binary product file
+     */
+    public void setBinaryOutput(boolean binaryOutput) {
+        this.binaryOutput = binaryOutput;
+    }
+    
+    /**
+     * replaces the built-in transformation rules with configured ones.
+     * 
+     * @param rules the compiled rules
+     */
+    public void setRules(TransformRules rules) {
+        this.transformer = new ProductTransformer(rules);
     }
     
     /**
@@ -34,18 +114,52 @@ public class ETLOrchestrator {
     public void execute() {
         System.out.println("Starting Object-Oriented ETL Pipeline...");
         
-        try {
+        try (ETLMetrics.Timer total = metrics.time(ETLMetrics.Stage.TOTAL)) {
             // extract
-            List<Product> products = extractor.extract();
+            List<Product> products;
+            ETLMetrics.Timer extractTimer = metrics.time(ETLMetrics.Stage.EXTRACT);
+            try {
+                products = extractThreads > 1
+                    ? extractor.extractParallel(extractThreads)
+                    : extractor.extract();
+            } finally {
+                extractTimer.stop();
+            }
             System.out.println("Extracted " + products.size() + " products from " + inputPath);
             
             // transform
-            transformer.transform(products);
+            ETLMetrics.Timer transformTimer = metrics.time(ETLMetrics.Stage.TRANSFORM);
+            try {
+                if (transformThreads > 1) {
+                    ForkJoinPool pool = new ForkJoinPool(transformThreads);
+                    try {
+                        transformer.transformParallel(products, pool);
+                    } finally {
+                        pool.shutdown();
+                    }
+                } else {
+                    transformer.transform(products);
+                }
+            } finally {
+                transformTimer.stop();
+            }
             System.out.println("Transformed " + products.size() + " products");
             
             // load
-            loader.load(products, transformer.getHeader());
-            System.out.println("Loaded transformed data to " + outputPath);
+            ETLMetrics.Timer loadTimer = metrics.time(ETLMetrics.Stage.LOAD);
+            try {
+                if (binaryOutput) {
+                    new BinaryProductWriter(binaryPath()).write(products);
+                    countOutput(products.size(), binaryPath());
+                } else {
+                    loader.load(products, transformer.getHeader());
+                }
+            } finally {
+                loadTimer.stop();
+            }
+            System.out.println("Loaded transformed data to " + (binaryOutput ? binaryPath() : outputPath));
+            
+            total.stop();
             
             // summary
             printSummary(products.size());
@@ -58,6 +172,337 @@ public class ETLOrchestrator {
         }
     }
     
+    /**
+     * executes the ETL process in streaming mode.
+     * each product is extracted, transformed and written before the next row
+     * is read, so memory use stays flat regardless of input size and output
+     * starts with the first row.
+     */
+    public void executeStreaming() {
+        System.out.println("Starting Object-Oriented ETL Pipeline (streaming)...");
+        
+        try (ETLMetrics.Timer total = metrics.time(ETLMetrics.Stage.TOTAL)) {
+            // extract, transform and load each row in turn
+            int rowsProcessed;
+            try (CSVLoader output = loader) {
+                output.open(transformer.getHeader());
+                rowsProcessed = extractor.stream(product -> {
+                    transformer.transform(product);
+                    output.write(product);
+                });
+            }
+            total.stop();
+            System.out.println("Streamed " + rowsProcessed + " products from " + inputPath + " to " + outputPath);
+            
+            // summary
+            printSummary(rowsProcessed);
+            
+        } catch (IOException e) {
+            System.err.println("Error: " + e.getMessage());
+            System.err.println("Please ensure the input file exists in the data/ directory.");
+        } catch (Exception e) {
+            System.err.println("Unexpected error: " + e.getMessage());
+        }
+    }
+    
+    /**
+     * executes the ETL process in streaming mode with duplicate ProductIDs
+     * removed before the transformation. policies other than first-wins read
+     * the input twice.
+     * 
+     * @param policy which row to keep for a repeated ProductID
+     * @param denseLimit IDs below this are tracked in flat arrays; 0 for none
+     */
+    public void executeDeduplicated(ProductDeduplicator.Policy policy, int denseLimit) {
+        System.out.println("Starting Object-Oriented ETL Pipeline (deduplicated)...");
+        
+        try (ETLMetrics.Timer total = metrics.time(ETLMetrics.Stage.TOTAL)) {
+            ProductDeduplicator deduplicator = new ProductDeduplicator(policy);
+            deduplicator.setDenseLimit(denseLimit);
+            
+            int rowsProcessed;
+            try (CSVLoader output = loader) {
+                output.open(transformer.getHeader());
+                rowsProcessed = deduplicator.stream(extractor, product -> {
+                    transformer.transform(product);
+                    output.write(product);
+                });
+            }
+            total.stop();
+            System.out.println("Dropped " + deduplicator.getDuplicates() + " duplicate rows (" + policy + ")");
+            System.out.println("Streamed " + rowsProcessed + " products from " + inputPath + " to " + outputPath);
+            
+            // summary
+            printSummary(rowsProcessed);
+            
+        } catch (IOException e) {
+            System.err.println("Error: " + e.getMessage());
+            System.err.println("Please ensure the input file exists in the data/ directory.");
+        } catch (Exception e) {
+            System.err.println("Unexpected error: " + e.getMessage());
+        }
+    }
+    
+    /**
+     * executes the ETL process over a columnar {@link ProductBatch}.
+     * rows are held in primitive column arrays instead of Product objects,
+     * and each transformation runs as a tight loop over a column.
+     */
+    public void executeColumnar() {
+        System.out.println("Starting Object-Oriented ETL Pipeline (columnar)...");
+        
+        try (ETLMetrics.Timer total = metrics.time(ETLMetrics.Stage.TOTAL)) {
+            // extract
+            ProductBatch batch;
+            ETLMetrics.Timer extractTimer = metrics.time(ETLMetrics.Stage.EXTRACT);
+            try {
+                batch = extractor.extractBatch();
+            } finally {
+                extractTimer.stop();
+            }
+            System.out.println("Extracted " + batch.size() + " products from " + inputPath);
+            
+            // transform
+            ETLMetrics.Timer transformTimer = metrics.time(ETLMetrics.Stage.TRANSFORM);
+            try {
+                if (transformThreads > 1) {
+                    ForkJoinPool pool = new ForkJoinPool(transformThreads);
+                    try {
+                        transformer.transformParallel(batch, pool);
+                    } finally {
+                        pool.shutdown();
+                    }
+                } else {
+                    transformer.transform(batch);
+                }
+            } finally {
+                transformTimer.stop();
+            }
+            System.out.println("Transformed " + batch.size() + " products");
+            
+            // load
+            ETLMetrics.Timer loadTimer = metrics.time(ETLMetrics.Stage.LOAD);
+            try {
+                if (binaryOutput) {
+                    new BinaryProductWriter(binaryPath()).write(batch);
+                    countOutput(batch.size(), binaryPath());
+                } else {
+                    loader.load(batch, transformer.getHeader());
+                }
+            } finally {
+                loadTimer.stop();
+            }
+            System.out.println("Loaded transformed data to " + (binaryOutput ? binaryPath() : outputPath));
+            total.stop();
+            
+            // summary
+            printSummary(batch.size());
+            
+        } catch (IOException e) {
+            System.err.println("Error: " + e.getMessage());
+            System.err.println("Please ensure the input file exists in the data/ directory.");
+        } catch (Exception e) {
+            System.err.println("Unexpected error: " + e.getMessage());
+        }
+    }
+    
+    /**
+     * executes the ETL process as three pipelined stages.
+     * extraction, transformation and loading each run on their own thread
+     * and pass batches of rows through bounded queues, so reading, CPU work
+     * and writing overlap. queue and stall counters are printed afterwards.
+     */
+    public void executePipelined() {
+        System.out.println("Starting Object-Oriented ETL Pipeline (pipelined)...");
+        
+        try {
+            PipelinedETL pipeline = new PipelinedETL(extractor, transformer, loader);
+            pipeline.setMetrics(metrics);
+            int rowsProcessed;
+            ETLMetrics.Timer total = metrics.time(ETLMetrics.Stage.TOTAL);
+            try {
+                rowsProcessed = pipeline.run(transformer.getHeader());
+            } finally {
+                total.stop();
+            }
+            System.out.println("Pipelined " + rowsProcessed + " products from " + inputPath + " to " + outputPath);
+            System.out.println(pipeline.getStats());
+            
+            // summary
+            printSummary(rowsProcessed);
+            
+        } catch (IOException e) {
+            System.err.println("Error: " + e.getMessage());
+            System.err.println("Please ensure the input file exists in the data/ directory.");
+        } catch (Exception e) {
+            System.err.println("Unexpected error: " + e.getMessage());
+        }
+    }
+    
+    /**
+     * executes the ETL process incrementally.
+     * rows whose input is unchanged since the previous run are copied from
+     * the existing output; only inserted and updated rows are transformed.
+     */
+    public void executeIncremental() {
+        System.out.println("Starting Object-Oriented ETL Pipeline (incremental)...");
+        
+        try {
+            IncrementalETL incremental = new IncrementalETL(extractor, transformer, outputPath);
+            int rowsProcessed;
+            ETLMetrics.Timer total = metrics.time(ETLMetrics.Stage.TOTAL);
+            try {
+                rowsProcessed = incremental.run(transformer.getHeader());
+            } finally {
+                total.stop();
+            }
+            countOutput(rowsProcessed, outputPath);
+            System.out.println(incremental.getStats());
+            System.out.println("Refreshed " + outputPath + " from " + inputPath);
+            
+            // summary
+            printSummary(rowsProcessed);
+            
+        } catch (IOException e) {
+            System.err.println("Error: " + e.getMessage());
+            System.err.println("Please ensure the input file exists in the data/ directory.");
+        } catch (Exception e) {
+            System.err.println("Unexpected error: " + e.getMessage());
+        }
+    }
+    
+    /**
+     * executes the ETL process with output sorted by an external merge sort.
+     * transformed products are spilled to temporary files in sorted runs that
+     * fit the memory budget and merged into the output, so inputs many times
+     * larger than the heap can be sorted.
+     * 
+     * @param order the output order
+     * @param memoryBytes the memory budget for buffered products, in bytes
+     */
+    public void executeSorted(ExternalSorter.SortOrder order, long memoryBytes) {
+        System.out.println("Starting Object-Oriented ETL Pipeline (sorted)...");
+        
+        try {
+            ExternalSorter sorter = new ExternalSorter(transformer, order);
+            sorter.setMemoryBudget(memoryBytes);
+            int rowsProcessed;
+            ETLMetrics.Timer total = metrics.time(ETLMetrics.Stage.TOTAL);
+            try {
+                rowsProcessed = sorter.sort(extractor, loader, transformer.getHeader());
+            } finally {
+                total.stop();
+            }
+            System.out.println("Sorted " + rowsProcessed + " products by " + order + " in "
+                + sorter.getRunCount() + " runs and " + sorter.getMergePasses() + " extra merge passes");
+            System.out.println("Loaded transformed data to " + outputPath);
+            
+            // summary
+            printSummary(rowsProcessed);
+            
+        } catch (IOException e) {
+            System.err.println("Error: " + e.getMessage());
+            System.err.println("Please ensure the input file exists in the data/ directory.");
+        } catch (Exception e) {
+            System.err.println("Unexpected error: " + e.getMessage());
+        }
+    }
+    
+    /**
+     * computes summary reports instead of writing the transformed file:
+     * count and price totals per category, products per price range and
+     * the most expensive products. rows are streamed and transformed one at
+     * a time, so memory does not grow with the input.
+     * 
+     * @param topN the number of most expensive products to list
+     */
+    public void executeAggregate(int topN) {
+        System.out.println("Starting Object-Oriented ETL Pipeline (aggregate)...");
+        
+        try {
+            ProductAggregator aggregator = new ProductAggregator(transformer);
+            aggregator.setTopN(topN);
+            ProductAggregator.Result result;
+            ETLMetrics.Timer total = metrics.time(ETLMetrics.Stage.TOTAL);
+            try {
+                result = aggregator.aggregate(extractor);
+            } finally {
+                total.stop();
+            }
+            System.out.println("Aggregated " + result.getRows() + " products from " + inputPath);
+            
+            // report
+            System.out.println("\n=== ETL Aggregate Report ===");
+            System.out.print(result.format());
+            
+        } catch (IOException e) {
+            System.err.println("Error: " + e.getMessage());
+            System.err.println("Please ensure the input file exists in the data/ directory.");
+        } catch (Exception e) {
+            System.err.println("Unexpected error: " + e.getMessage());
+        }
+    }
+    
+    /**
+     * executes the ETL process over every file matching a directory or glob.
+     * files are processed concurrently on a pool sized to the available
+     * cores, each written to its own output in the output directory, using
+     * this orchestrator's reader options and rules.
+     * 
+     * @param inputPattern a directory of CSV files or a glob
+     * @param outputDir the directory for the transformed files
+     */
+    public void executeBatch(String inputPattern, String outputDir) {
+        System.out.println("Starting Object-Oriented ETL Pipeline (batch)...");
+        
+        try {
+            List<Path> inputs = BatchETL.findInputs(inputPattern);
+            System.out.println("Found " + inputs.size() + " input files matching " + inputPattern);
+            
+            BatchETL batch = new BatchETL(outputDir, Runtime.getRuntime().availableProcessors());
+            batch.setTransformer(transformer);
+            batch.setMemoryMapped(memoryMapped);
+            batch.setFixedPoint(fixedPoint);
+            batch.setMetrics(metrics);
+            
+            long start = System.nanoTime();
+            List<BatchETL.FileResult> results = batch.run(inputs);
+            long wallMillis = (System.nanoTime() - start) / 1_000_000;
+            
+            // summary
+            System.out.println("\n=== ETL Batch Summary ===");
+            System.out.println(BatchETL.summarize(results, wallMillis));
+            System.out.println(metrics.summary());
+            System.out.println("Output directory: " + outputDir);
+            
+        } catch (IOException e) {
+            System.err.println("Error: " + e.getMessage());
+        } catch (Exception e) {
+            System.err.println("Unexpected error: " + e.getMessage());
+        }
+    }
+    
+    /**
+     * gets the binary output path: the CSV path with a .bin extension.
+     * 
+     * @return the binary output path
+     */
+    private String binaryPath() {
+        return outputPath.replaceFirst("\\.csv$", "") + ".bin";
+    }
+    
+    /**
+     * counts rows and bytes written by a writer that does not update the
+     * metrics itself.
+     * 
+     * @param rows the number of rows written
+     * @param path the file written
+     */
+    private void countOutput(int rows, String path) {
+        metrics.rowsWritten(rows);
+        metrics.bytesOut(new File(path).length());
+    }
+    
     /**
      * prints a summary of the ETL process.
      * 
@@ -66,6 +511,7 @@ public class ETLOrchestrator {
     private void printSummary(int rowsProcessed) {
         System.out.println("\n=== ETL Pipeline Summary ===");
         System.out.println("Rows processed: " + rowsProcessed);
+        System.out.println(metrics.summary());
         System.out.println("Output path: " + outputPath);
         System.out.println("ETL process completed successfully!");
     }
@@ -73,13 +519,183 @@ public class ETLOrchestrator {
     /**
      * main method to run the ETL pipeline.
      * 
-     * @param args command line arguments (not used)
+     * @param args command line arguments; pass --input FILE and --output FILE
+     *             to replace the default data/ files, where names ending in
+     *             .gz, .deflate or .zz are compressed, --stream to run in streaming mode,
+     *             --columnar to transform a columnar batch, --pipelined to
+     *             overlap the three stages on separate threads, --incremental
+     *             to transform only rows changed since the last run, --batch
+     *             PATTERN to process every file in a directory or glob into
+     *             --output-dir DIR (default data/transformed), --aggregate to
+     *             print per-category totals, a price range histogram and the
+     *             --top N (default 100) most expensive products, --sort id or
+     *             --sort category-price to sort the output within --sort-memory
+     *             MB (default 64) of buffered products, --dedup first, last or
+     *             max-price to keep one row per ProductID, with --dense-ids N
+     *             to track IDs below N in flat arrays, --parallel to
+     *             extract and transform on all available cores, --mmap to read the input
+     *             through a memory-mapped file, --fixed-point to keep
+     *             prices as exact cents, --binary to write the binary
+     *             columnar format in the default or columnar mode, --rules FILE to load the
+     *             transformation rules from a config file, or --metrics-json
+     *             FILE to write the run's metrics as a JSON report
      */
     public static void main(String[] args) {
-        ETLOrchestrator orchestrator = new ETLOrchestrator(
-            "data/products.csv", 
-            "data/transformed_products.csv"
-        );
-        orchestrator.execute();
+        String inputPath = "data/products.csv";
+        String outputPath = "data/transformed_products.csv";
+        for (int i = 0; i + 1 < args.length; i++) {
+            if ("--input".equals(args[i])) {
+                inputPath = args[++i];
+            } else if ("--output".equals(args[i])) {
+                outputPath = args[++i];
+            }
+        }
+        
+        ETLOrchestrator orchestrator = new ETLOrchestrator(inputPath, outputPath);
+        boolean streaming = false;
+        boolean columnar = false;
+        boolean pipelined = false;
+        boolean incremental = false;
+        boolean aggregate = false;
+        int topN = ProductAggregator.DEFAULT_TOP_N;
+        ExternalSorter.SortOrder sortOrder = null;
+        long sortMemory = ExternalSorter.DEFAULT_MEMORY_BYTES;
+        ProductDeduplicator.Policy dedupPolicy = null;
+        int denseLimit = 0;
+        String batchInput = null;
+        String batchOutputDir = "data/transformed";
+        String metricsJson = null;
+        for (int i = 0; i < args.length; i++) {
+            String arg = args[i];
+            if ("--stream".equals(arg)) {
+                streaming = true;
+            } else if ("--columnar".equals(arg)) {
+                columnar = true;
+            } else if ("--pipelined".equals(arg)) {
+                pipelined = true;
+            } else if ("--incremental".equals(arg)) {
+                incremental = true;
+            } else if ("--aggregate".equals(arg)) {
+                aggregate = true;
+            } else if ("--top".equals(arg) && i + 1 < args.length) {
+                Long value = parseOption(arg, args[++i], 0, Integer.MAX_VALUE);
+                if (value == null) return;
+                topN = value.intValue();
+            } else if ("--sort".equals(arg) && i + 1 < args.length) {
+                String key = args[++i];
+                if ("id".equals(key)) {
+                    sortOrder = ExternalSorter.SortOrder.PRODUCT_ID;
+                } else if ("category-price".equals(key)) {
+                    sortOrder = ExternalSorter.SortOrder.CATEGORY_PRICE;
+                } else {
+                    System.err.println("Error: Unknown sort order '" + key + "', expected id or category-price.");
+                    return;
+                }
+            } else if ("--sort-memory".equals(arg) && i + 1 < args.length) {
+                // at least 1 MB, and small enough not to overflow in bytes
+                Long value = parseOption(arg, args[++i], 1, Long.MAX_VALUE >> 20);
+                if (value == null) return;
+                sortMemory = value << 20;
+            } else if ("--dedup".equals(arg) && i + 1 < args.length) {
+                String name = args[++i];
+                if ("first".equals(name)) {
+                    dedupPolicy = ProductDeduplicator.Policy.FIRST_WINS;
+                } else if ("last".equals(name)) {
+                    dedupPolicy = ProductDeduplicator.Policy.LAST_WINS;
+                } else if ("max-price".equals(name)) {
+                    dedupPolicy = ProductDeduplicator.Policy.MAX_PRICE;
+                } else {
+                    System.err.println("Error: Unknown dedup policy '" + name + "', expected first, last or max-price.");
+                    return;
+                }
+            } else if ("--dense-ids".equals(arg) && i + 1 < args.length) {
+                Long value = parseOption(arg, args[++i], 0, Integer.MAX_VALUE);
+                if (value == null) return;
+                denseLimit = value.intValue();
+            } else if (("--input".equals(arg) || "--output".equals(arg)) && i + 1 < args.length) {
+                i++; // read above
+            } else if ("--batch".equals(arg) && i + 1 < args.length) {
+                batchInput = args[++i];
+            } else if ("--output-dir".equals(arg) && i + 1 < args.length) {
+                batchOutputDir = args[++i];
+            } else if ("--metrics-json".equals(arg) && i + 1 < args.length) {
+                metricsJson = args[++i];
+            } else if ("--parallel".equals(arg)) {
+                int cores = Runtime.getRuntime().availableProcessors();
+                orchestrator.setExtractThreads(cores);
+                orchestrator.setTransformThreads(cores);
+            } else if ("--mmap".equals(arg)) {
+                orchestrator.setMemoryMapped(true);
+            } else if ("--binary".equals(arg)) {
+                orchestrator.setBinaryOutput(true);
+            } else if ("--fixed-point".equals(arg)) {
+                orchestrator.setFixedPoint(true);
+            } else if ("--rules".equals(arg) && i + 1 < args.length) {
+                try {
+                    orchestrator.setRules(TransformRules.load(args[++i]));
+                } catch (IOException e) {
+                    System.err.println("Error: " + e.getMessage());
+                    return;
+                }
+            }
+        }
+        
+        // visible to JConsole and other JMX clients while the run is going
+        ETLMetrics metrics = orchestrator.getMetrics();
+        metrics.register("ETLOrchestrator");
+        try {
+            if (batchInput != null) {
+                orchestrator.executeBatch(batchInput, batchOutputDir);
+            } else if (aggregate) {
+                orchestrator.executeAggregate(topN);
+            } else if (sortOrder != null) {
+                orchestrator.executeSorted(sortOrder, sortMemory);
+            } else if (dedupPolicy != null) {
+                orchestrator.executeDeduplicated(dedupPolicy, denseLimit);
+            } else if (streaming) {
+                orchestrator.executeStreaming();
+            } else if (incremental) {
+                orchestrator.executeIncremental();
+            } else if (pipelined) {
+                orchestrator.executePipelined();
+            } else if (columnar) {
+                orchestrator.executeColumnar();
+            } else {
+                orchestrator.execute();
+            }
+            
+            if (metricsJson != null) {
+                metrics.writeJson(metricsJson);
+                System.out.println("Metrics report: " + metricsJson);
+            }
+        } catch (IOException e) {
+            System.err.println("Error: " + e.getMessage());
+        } finally {
+            metrics.unregister();
+        }
+    }
+    
+    /**
+     * parses the whole-number value of a command line option, printing an
+     * error like the other option checks if it is not a number in range.
+     * 
+     * @param option the option, for the error message
+     * @param value the text to parse
+     * @param min the smallest allowed value
+     * @param max the largest allowed value
+     * @return the value, or null if it was invalid
+     */
+    private static Long parseOption(String option, String value, long min, long max) {
+        try {
+            long number = Long.parseLong(value.trim());
+            if (number >= min && number <= max) {
+                return number;
+            }
+        } catch (NumberFormatException e) {
+            // reported below
+        }
+        System.err.println("Error: Invalid value '" + value + "' for " + option
+            + ", expected a whole number from " + min + " to " + max + ".");
+        return null;
     }
 }
\ No newline at end of file
@@ -0,0 +1,369 @@
+package org.howard.edu.lsp.assignment3;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+
+/**
+ * writes transformed products in sorted order using an external merge sort.
+ * products are read and transformed as a stream and collected until their
+ * estimated size reaches the memory budget; each full buffer is sorted and
+ * spilled to a temporary run file. the runs are then merged k ways with a
+ * priority queue straight into the output, so only the budget plus one
+ * buffered record per run is held in memory and the input can be many times
+ * larger than the heap. when there are more runs than can be open at once,
+ * extra merge passes combine them first. an input that fits in the budget is
+ * sorted in memory without touching the disk.
+ * 
+ * the sort is stable: products that compare equal keep their input order.
+ */
+public class ExternalSorter {
+    /** the default memory budget for buffered products, in bytes. */
+    public static final long DEFAULT_MEMORY_BYTES = 64L << 20;
+    private static final int MAX_FAN_IN = 64;
+    private static final int BUFFER_BYTES = 1 << 16;
+    // rough heap cost of a Product, its name and its list slot, excluding the name characters
+    private static final int PRODUCT_OVERHEAD_BYTES = 120;
+    
+    /**
+     * the orders products can be sorted in.
+     */
+    public enum SortOrder {
+        /** ascending ProductID. */
+        PRODUCT_ID(Comparator.comparingInt(Product::getProductId)),
+        /** category name, then ascending price, then ProductID. */
+        CATEGORY_PRICE(Comparator.comparing(Product::getCategory)
+            .thenComparingDouble(Product::getPrice)
+            .thenComparingInt(Product::getProductId));
+        
+        private final Comparator<Product> comparator;
+        
+        SortOrder(Comparator<Product> comparator) {
+            this.comparator = comparator;
+        }
+        
+        /**
+         * gets the comparator defining this order.
+         * 
+         * @return the comparator
+         */
+        public Comparator<Product> comparator() {
+            return comparator;
+        }
+    }
+    
+    private ProductTransformer transformer;
+    private SortOrder order;
+    private long memoryBytes = DEFAULT_MEMORY_BYTES;
+    private File tempDir;
+    private int runCount;
+    private int mergePasses;
+    private List<File> tempFiles = new ArrayList<>();
+    
+    /**
+     * constructs an ExternalSorter.
+     * 
+     * @param transformer the transformer applied to each product before sorting
+     * @param order the output order
+     */
+    public ExternalSorter(ProductTransformer transformer, SortOrder order) {
+        this.transformer = transformer;
+        this.order = order;
+    }
+    
+    /**
+     * sets how many bytes of products may be buffered before a run is spilled.
+     * 
+     * @param memoryBytes the memory budget in bytes
+     */
+    public void setMemoryBudget(long memoryBytes) {
+        this.memoryBytes = Math.max(1, memoryBytes);
+    }
+    
+    /**
+     * sets the directory for the temporary run files.
+     * 
+     * @param tempDir the directory, or null for the system temporary directory
+     */
+    public void setTempDir(File tempDir) {
+        this.tempDir = tempDir;
+    }
+    
+    /**
+     * gets the number of runs spilled to disk by the last sort.
+     * 
+     * @return the run count, 0 if the input fit in memory
+     */
+    public int getRunCount() {
+        return runCount;
+    }
+    
+    /**
+     * gets the number of intermediate merge passes of the last sort, not
+     * counting the final merge into the output.
+     * 
+     * @return the number of passes
+     */
+    public int getMergePasses() {
+        return mergePasses;
+    }
+    
+    /**
+     * reads, transforms and sorts every product and writes them through the
+     * loader. temporary run files are deleted before returning, also on failure.
+     * 
+     * @param extractor the extractor reading the input
+     * @param loader the loader writing the sorted output
+     * @param header the CSV header
+     * @return the number of products written
+     * @throws IOException if the input, the run files or the output cannot be used
+     */
+    public int sort(CSVExtractor extractor, CSVLoader loader, String header) throws IOException {
+        runCount = 0;
+        mergePasses = 0;
+        List<Run> runs = new ArrayList<>();
+        List<Product> buffer = new ArrayList<>();
+        long[] buffered = new long[1];
+        
+        try {
+            int rows = extractor.stream(product -> {
+                transformer.transform(product);
+                buffer.add(product);
+                buffered[0] += PRODUCT_OVERHEAD_BYTES + 2L * product.getName().length();
+                if (buffered[0] >= memoryBytes) {
+                    runs.add(spill(buffer, runs.size()));
+                    buffer.clear();
+                    buffered[0] = 0;
+                }
+            });
+            
+            buffer.sort(order.comparator());
+            if (!runs.isEmpty()) {
+                // the last partial run is merged straight from memory
+                runs.add(new ListRun(buffer, runs.size()));
+            }
+            
+            try (CSVLoader output = loader) {
+                output.open(header);
+                if (runs.isEmpty()) {
+                    for (Product product : buffer) {
+                        output.write(product);
+                    }
+                } else {
+                    List<Run> remaining = runs;
+                    while (remaining.size() > MAX_FAN_IN) {
+                        remaining = mergePass(remaining);
+                        runs.addAll(remaining);
+                        mergePasses++;
+                    }
+                    merge(remaining, output::write);
+                }
+            }
+            return rows;
+            
+        } finally {
+            // closing an exhausted or already closed run does nothing
+            for (Run run : runs) {
+                run.close();
+            }
+            for (File file : tempFiles) {
+                file.delete();
+            }
+            tempFiles.clear();
+        }
+    }
+    
+    /**
+     * sorts a buffer and writes it to a new run file.
+     */
+    private Run spill(List<Product> buffer, int index) throws IOException {
+        buffer.sort(order.comparator());
+        File file = newRunFile();
+        try (RunWriter writer = new RunWriter(file)) {
+            for (Product product : buffer) {
+                writer.write(product);
+            }
+        }
+        runCount++;
+        return new FileRun(file, index);
+    }
+    
+    /**
+     * merges groups of at most MAX_FAN_IN runs into new run files.
+     */
+    private List<Run> mergePass(List<Run> runs) throws IOException {
+        List<Run> merged = new ArrayList<>();
+        for (int from = 0; from < runs.size(); from += MAX_FAN_IN) {
+            List<Run> group = runs.subList(from, Math.min(from + MAX_FAN_IN, runs.size()));
+            File file = newRunFile();
+            try (RunWriter writer = new RunWriter(file)) {
+                merge(group, writer::write);
+            }
+            for (Run run : group) {
+                run.close();
+            }
+            merged.add(new FileRun(file, merged.size()));
+        }
+        return merged;
+    }
+    
+    /**
+     * merges sorted runs into one sorted stream. ties go to the run with the
+     * lower index, which holds the earlier input rows, keeping the sort stable.
+     */
+    private void merge(List<Run> runs, CSVExtractor.ProductHandler sink) throws IOException {
+        Comparator<Product> comparator = order.comparator();
+        PriorityQueue<Run> heap = new PriorityQueue<>(Math.max(1, runs.size()), (a, b) -> {
+            int result = comparator.compare(a.head, b.head);
+            return result != 0 ? result : Integer.compare(a.index, b.index);
+        });
+        for (Run run : runs) {
+            if (run.advance()) {
+                heap.add(run);
+            }
+        }
+        
+        while (!heap.isEmpty()) {
+            Run run = heap.poll();
+            sink.handle(run.head);
+            if (run.advance()) {
+                heap.add(run);
+            }
+        }
+    }
+    
+    private File newRunFile() throws IOException {
+        File file = File.createTempFile("etl-sort-", ".run", tempDir);
+        file.deleteOnExit();
+        tempFiles.add(file);
+        return file;
+    }
+    
+    /**
+     * a sorted sequence of products being merged.
+     */
+    private abstract static class Run implements Closeable {
+        int index;
+        Product head;
+        
+        Run(int index) {
+            this.index = index;
+        }
+        
+        /**
+         * moves to the next product.
+         * 
+         * @return false once the run is exhausted
+         */
+        abstract boolean advance() throws IOException;
+        
+        @Override
+        public void close() throws IOException {
+        }
+    }
+    
+    /**
+     * a run still held in memory.
+     */
+    private static class ListRun extends Run {
+        private Iterator<Product> products;
+        
+        ListRun(List<Product> products, int index) {
+            super(index);
+            this.products = products.iterator();
+        }
+        
+        @Override
+        boolean advance() {
+            head = products.hasNext() ? products.next() : null;
+            return head != null;
+        }
+    }
+    
+    /**
+     * a run read back from a spill file. a record is the ProductID, the
+     * length and UTF-8 bytes of the name, the price, the price in cents or
+     * {@link Cents#NONE}, the category code and the price range code, or -1
+     * for none. category codes refer to the shared
+     * {@link CategoryDictionary}, which is valid because run files never
+     * outlive the sort that wrote them.
+     */
+    private static class FileRun extends Run {
+        private File file;
+        private DataInputStream in;
+        private boolean closed;
+        
+        FileRun(File file, int index) {
+            super(index);
+            this.file = file;
+        }
+        
+        @Override
+        boolean advance() throws IOException {
+            if (closed) return false;
+            
+            if (in == null) {
+                in = new DataInputStream(new BufferedInputStream(new FileInputStream(file), BUFFER_BYTES));
+            }
+            
+            int productId;
+            try {
+                productId = in.readInt();
+            } catch (EOFException e) {
+                head = null;
+                close();
+                return false;
+            }
+            byte[] nameBytes = new byte[in.readInt()];
+            in.readFully(nameBytes);
+            String name = new String(nameBytes, StandardCharsets.UTF_8);
+            double price = in.readDouble();
+            long cents = in.readLong();
+            int categoryCode = in.readInt();
+            int range = in.readByte();
+            
+            head = cents != Cents.NONE
+                ? Product.withCents(productId, name, cents, categoryCode)
+                : new Product(productId, name, price, categoryCode);
+            head.setPriceRange(range < 0 ? "" : PriceRange.fromCode(range).getLabel());
+            return true;
+        }
+        
+        @Override
+        public void close() throws IOException {
+            closed = true;
+            if (in != null) {
+                in.close();
+            }
+            file.delete();
+        }
+    }
+    
+    /**
+     * writes products to a run file in the {@link FileRun} record layout.
+     */
+    private static class RunWriter implements Closeable {
+        private DataOutputStream out;
+        
+        RunWriter(File file) throws IOException {
+            out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file), BUFFER_BYTES));
+        }
+        
+        void write(Product product) throws IOException {
+            PriceRange range = PriceRange.fromLabel(product.getPriceRange());
+            byte[] name = product.getName().getBytes(StandardCharsets.UTF_8);
+            out.writeInt(product.getProductId());
+            out.writeInt(name.length);
+            out.write(name);
+            out.writeDouble(product.getPrice());
+            out.writeLong(product.getPriceCents());
+            out.writeInt(product.getCategoryCode());
+            out.writeByte(range == null ? -1 : range.ordinal());
+        }
+        
+        @Override
+        public void close() throws IOException {
+            out.close();
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,100 @@
+package org.howard.edu.lsp.assignment3;
+
+import static org.junit.Assert.*;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * tests for {@link ExternalSorter}.
+ */
+public class ExternalSorterTest {
+    private File input;
+    private File output;
+    private File tempDir;
+    
+    @Before
+    public void setUp() throws IOException {
+        input = File.createTempFile("products", ".csv");
+        output = File.createTempFile("sorted", ".csv");
+        tempDir = Files.createTempDirectory("runs").toFile();
+        
+        // ids repeat so stability can be checked through the name
+        StringBuilder csv = new StringBuilder("ProductID,Name,Price,Category\n");
+        Random random = new Random(7);
+        String[] categories = {"Electronics", "Kitchen", "Books"};
+        for (int row = 0; row < 300; row++) {
+            csv.append(random.nextInt(50)).append(",item ").append(row).append(',')
+                .append(random.nextInt(1000)).append(".50,").append(categories[row % 3]).append('\n');
+        }
+        Files.write(input.toPath(), csv.toString().getBytes(StandardCharsets.UTF_8));
+    }
+    
+    @After
+    public void tearDown() {
+        input.delete();
+        output.delete();
+        tempDir.delete();
+    }
+    
+    private List<Product> expected(ExternalSorter.SortOrder order) throws IOException {
+        List<Product> products = new CSVExtractor(input.getPath()).extract();
+        new ProductTransformer().transform(products);
+        products.sort(order.comparator());
+        return products;
+    }
+    
+    private List<String> sort(ExternalSorter.SortOrder order, long memoryBytes) throws IOException {
+        ExternalSorter sorter = new ExternalSorter(new ProductTransformer(), order);
+        sorter.setMemoryBudget(memoryBytes);
+        sorter.setTempDir(tempDir);
+        assertEquals(300, sorter.sort(new CSVExtractor(input.getPath()),
+            new CSVLoader(output.getPath()), new ProductTransformer().getHeader()));
+        return Files.readAllLines(output.toPath(), StandardCharsets.UTF_8);
+    }
+    
+    private static List<String> lines(List<Product> products) {
+        List<String> lines = new ArrayList<>();
+        lines.add(new ProductTransformer().getHeader());
+        for (Product product : products) {
+            lines.add(product.toCSV());
+        }
+        return lines;
+    }
+    
+    @Test
+    public void testInMemorySortMatchesListSort() throws IOException {
+        assertEquals(lines(expected(ExternalSorter.SortOrder.PRODUCT_ID)),
+            sort(ExternalSorter.SortOrder.PRODUCT_ID, ExternalSorter.DEFAULT_MEMORY_BYTES));
+    }
+    
+    @Test
+    public void testSpilledRunsMergeStably() throws IOException {
+        // a tiny budget spills every few rows, needing an extra merge pass
+        ExternalSorter sorter = new ExternalSorter(new ProductTransformer(), ExternalSorter.SortOrder.PRODUCT_ID);
+        sorter.setMemoryBudget(300);
+        sorter.setTempDir(tempDir);
+        sorter.sort(new CSVExtractor(input.getPath()), new CSVLoader(output.getPath()), new ProductTransformer().getHeader());
+        
+        assertTrue(sorter.getRunCount() > 64);
+        assertEquals(1, sorter.getMergePasses());
+        assertEquals(lines(expected(ExternalSorter.SortOrder.PRODUCT_ID)),
+            Files.readAllLines(output.toPath(), StandardCharsets.UTF_8));
+        assertEquals(0, tempDir.list().length);
+    }
+    
+    @Test
+    public void testSortsByCategoryThenPrice() throws IOException {
+        assertEquals(lines(expected(ExternalSorter.SortOrder.CATEGORY_PRICE)),
+            sort(ExternalSorter.SortOrder.CATEGORY_PRICE, 2000));
+    }
+}
\ No newline at end of file
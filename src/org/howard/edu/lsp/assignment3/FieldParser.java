@@ -0,0 +1,234 @@
+package org.howard.edu.lsp.assignment3;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+
+/**
+ * parses numeric CSV fields directly from a range of characters or bytes.
+ * results match Integer.parseInt and Double.parseDouble applied to the
+ * trimmed field, including throwing NumberFormatException for bad input.
+ * plain decimal values are parsed without creating any objects; anything
+ * else (exponents, non-ASCII digits, very long values) falls back to the
+ * standard library on a decoded string.
+ */
+public final class FieldParser {
+    // largest mantissa that can take another digit and stay below 2^53
+    private static final long MAX_MANTISSA_BEFORE_DIGIT = ((1L << 53) - 9) / 10;
+    private static final double[] POWERS_OF_TEN = new double[23];
+    
+    static {
+        POWERS_OF_TEN[0] = 1.0;
+        for (int i = 1; i < POWERS_OF_TEN.length; i++) {
+            POWERS_OF_TEN[i] = POWERS_OF_TEN[i - 1] * 10.0;
+        }
+    }
+    
+    private FieldParser() {
+    }
+    
+    /**
+     * parses an int from a range of characters, ignoring surrounding whitespace.
+     * 
+     * @param text the characters to read
+     * @param start the first character of the field
+     * @param end the character after the last character of the field
+     * @return the parsed value
+     * @throws NumberFormatException if the field is not a valid int
+     */
+    public static int parseInt(CharSequence text, int start, int end) {
+        while (start < end && text.charAt(start) <= ' ') start++;
+        while (end > start && text.charAt(end - 1) <= ' ') end--;
+        if (start == end) {
+            throw new NumberFormatException("For input string: \"\"");
+        }
+        
+        char first = text.charAt(start);
+        boolean negative = first == '-';
+        int i = (negative || first == '+') ? start + 1 : start;
+        if (i == end) {
+            throw invalid(text, start, end);
+        }
+        
+        // accumulate negatively so Integer.MIN_VALUE does not overflow
+        int limit = negative ? Integer.MIN_VALUE : -Integer.MAX_VALUE;
+        int result = 0;
+        for (; i < end; i++) {
+            char c = text.charAt(i);
+            if (c < '0' || c > '9') {
+                if (c >= 0x80) {
+                    return Integer.parseInt(text.subSequence(start, end).toString());
+                }
+                throw invalid(text, start, end);
+            }
+            int digit = c - '0';
+            if (result < limit / 10) {
+                throw invalid(text, start, end);
+            }
+            result *= 10;
+            if (result < limit + digit) {
+                throw invalid(text, start, end);
+            }
+            result -= digit;
+        }
+        return negative ? result : -result;
+    }
+    
+    /**
+     * parses a double from a range of characters, ignoring surrounding whitespace.
+     * 
+     * @param text the characters to read
+     * @param start the first character of the field
+     * @param end the character after the last character of the field
+     * @return the parsed value
+     * @throws NumberFormatException if the field is not a valid double
+     */
+    public static double parseDouble(CharSequence text, int start, int end) {
+        while (start < end && text.charAt(start) <= ' ') start++;
+        while (end > start && text.charAt(end - 1) <= ' ') end--;
+        
+        int i = start;
+        boolean negative = false;
+        if (i < end && (text.charAt(i) == '-' || text.charAt(i) == '+')) {
+            negative = text.charAt(i) == '-';
+            i++;
+        }
+        
+        long mantissa = 0;
+        int digits = 0;
+        int fractionDigits = 0;
+        boolean seenPoint = false;
+        for (; i < end; i++) {
+            char c = text.charAt(i);
+            if (c == '.' && !seenPoint) {
+                seenPoint = true;
+            } else if (c >= '0' && c <= '9' && mantissa <= MAX_MANTISSA_BEFORE_DIGIT) {
+                mantissa = mantissa * 10 + (c - '0');
+                digits++;
+                if (seenPoint) fractionDigits++;
+            } else {
+                return Double.parseDouble(text.subSequence(start, end).toString());
+            }
+        }
+        
+        if (digits == 0 || fractionDigits >= POWERS_OF_TEN.length) {
+            return Double.parseDouble(text.subSequence(start, end).toString());
+        }
+        return toDouble(mantissa, fractionDigits, negative);
+    }
+    
+    /**
+     * parses an int from a range of bytes, ignoring surrounding whitespace.
+     * 
+     * @param bytes the bytes to read, using absolute positions
+     * @param start the first byte of the field
+     * @param end the byte after the last byte of the field
+     * @param charset the charset used to decode the field on the slow path
+     * @return the parsed value
+     * @throws NumberFormatException if the field is not a valid int
+     */
+    public static int parseInt(ByteBuffer bytes, int start, int end, Charset charset) {
+        while (start < end && (bytes.get(start) & 0xFF) <= ' ') start++;
+        while (end > start && (bytes.get(end - 1) & 0xFF) <= ' ') end--;
+        if (start == end) {
+            throw new NumberFormatException("For input string: \"\"");
+        }
+        
+        byte first = bytes.get(start);
+        boolean negative = first == '-';
+        int i = (negative || first == '+') ? start + 1 : start;
+        if (i == end) {
+            throw invalid(bytes, start, end, charset);
+        }
+        
+        // accumulate negatively so Integer.MIN_VALUE does not overflow
+        int limit = negative ? Integer.MIN_VALUE : -Integer.MAX_VALUE;
+        int result = 0;
+        for (; i < end; i++) {
+            int c = bytes.get(i) & 0xFF;
+            if (c < '0' || c > '9') {
+                if (c >= 0x80) {
+                    return Integer.parseInt(decode(bytes, start, end, charset));
+                }
+                throw invalid(bytes, start, end, charset);
+            }
+            int digit = c - '0';
+            if (result < limit / 10) {
+                throw invalid(bytes, start, end, charset);
+            }
+            result *= 10;
+            if (result < limit + digit) {
+                throw invalid(bytes, start, end, charset);
+            }
+            result -= digit;
+        }
+        return negative ? result : -result;
+    }
+    
+    /**
+     * parses a double from a range of bytes, ignoring surrounding whitespace.
+     * 
+     * @param bytes the bytes to read, using absolute positions
+     * @param start the first byte of the field
+     * @param end the byte after the last byte of the field
+     * @param charset the charset used to decode the field on the slow path
+     * @return the parsed value
+     * @throws NumberFormatException if the field is not a valid double
+     */
+    public static double parseDouble(ByteBuffer bytes, int start, int end, Charset charset) {
+        while (start < end && (bytes.get(start) & 0xFF) <= ' ') start++;
+        while (end > start && (bytes.get(end - 1) & 0xFF) <= ' ') end--;
+        
+        int i = start;
+        boolean negative = false;
+        if (i < end && (bytes.get(i) == '-' || bytes.get(i) == '+')) {
+            negative = bytes.get(i) == '-';
+            i++;
+        }
+        
+        long mantissa = 0;
+        int digits = 0;
+        int fractionDigits = 0;
+        boolean seenPoint = false;
+        for (; i < end; i++) {
+            int c = bytes.get(i) & 0xFF;
+            if (c == '.' && !seenPoint) {
+                seenPoint = true;
+            } else if (c >= '0' && c <= '9' && mantissa <= MAX_MANTISSA_BEFORE_DIGIT) {
+                mantissa = mantissa * 10 + (c - '0');
+                digits++;
+                if (seenPoint) fractionDigits++;
+            } else {
+                return Double.parseDouble(decode(bytes, start, end, charset));
+            }
+        }
+        
+        if (digits == 0 || fractionDigits >= POWERS_OF_TEN.length) {
+            return Double.parseDouble(decode(bytes, start, end, charset));
+        }
+        return toDouble(mantissa, fractionDigits, negative);
+    }
+    
+    /**
+     * converts an exact decimal mantissa and scale to a double. both operands
+     * of the division are exact, so the single rounding of the division gives
+     * the same correctly rounded result as Double.parseDouble.
+     */
+    private static double toDouble(long mantissa, int fractionDigits, boolean negative) {
+        double value = mantissa / POWERS_OF_TEN[fractionDigits];
+        return negative ? -value : value;
+    }
+    
+    private static NumberFormatException invalid(CharSequence text, int start, int end) {
+        return new NumberFormatException("For input string: \"" + text.subSequence(start, end) + "\"");
+    }
+    
+    private static NumberFormatException invalid(ByteBuffer bytes, int start, int end, Charset charset) {
+        return new NumberFormatException("For input string: \"" + decode(bytes, start, end, charset) + "\"");
+    }
+    
+    private static String decode(ByteBuffer bytes, int start, int end, Charset charset) {
+        byte[] copy = new byte[end - start];
+        bytes.get(start, copy);
+        return new String(copy, charset);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,131 @@
+package org.howard.edu.lsp.assignment3;
+
+import static org.junit.Assert.*;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+
+import org.junit.Test;
+
+/**
+ * conformance tests checking the fast int and double paths of FieldParser
+ * against Integer.parseInt and Double.parseDouble, for both the character
+ * and the byte versions.
+ */
+public class FieldParserTest {
+    
+    /**
+     * parses a field from the middle of a longer line with both versions.
+     * the field sits between commas so the parser must honour start and end.
+     */
+    private static void checkInt(String field) {
+        Integer expected;
+        try {
+            expected = Integer.parseInt(field.trim());
+        } catch (NumberFormatException e) {
+            expected = null;
+        }
+        
+        String line = "a," + field + ",b";
+        int start = 2;
+        int end = start + field.length();
+        ByteBuffer bytes = ByteBuffer.wrap(line.getBytes(StandardCharsets.UTF_8));
+        int byteEnd = start + field.getBytes(StandardCharsets.UTF_8).length;
+        try {
+            int actual = FieldParser.parseInt(line, start, end);
+            assertEquals("chars \"" + field + "\"", expected, Integer.valueOf(actual));
+        } catch (NumberFormatException e) {
+            assertNull("chars \"" + field + "\" threw", expected);
+        }
+        try {
+            int actual = FieldParser.parseInt(bytes, start, byteEnd, StandardCharsets.UTF_8);
+            assertEquals("bytes \"" + field + "\"", expected, Integer.valueOf(actual));
+        } catch (NumberFormatException e) {
+            assertNull("bytes \"" + field + "\" threw", expected);
+        }
+    }
+    
+    private static void checkDouble(String field) {
+        Double expected;
+        try {
+            expected = Double.parseDouble(field);
+        } catch (NumberFormatException e) {
+            expected = null;
+        }
+        
+        String line = "a," + field + ",b";
+        int start = 2;
+        int end = start + field.length();
+        ByteBuffer bytes = ByteBuffer.wrap(line.getBytes(StandardCharsets.UTF_8));
+        int byteEnd = start + field.getBytes(StandardCharsets.UTF_8).length;
+        try {
+            double actual = FieldParser.parseDouble(line, start, end);
+            assertNotNull("chars \"" + field + "\" should throw", expected);
+            // compare bits so -0.0 and 0.0 are told apart
+            assertEquals("chars \"" + field + "\"",
+                Double.doubleToRawLongBits(expected), Double.doubleToRawLongBits(actual));
+        } catch (NumberFormatException e) {
+            assertNull("chars \"" + field + "\" threw", expected);
+        }
+        try {
+            double actual = FieldParser.parseDouble(bytes, start, byteEnd, StandardCharsets.UTF_8);
+            assertNotNull("bytes \"" + field + "\" should throw", expected);
+            assertEquals("bytes \"" + field + "\"",
+                Double.doubleToRawLongBits(expected), Double.doubleToRawLongBits(actual));
+        } catch (NumberFormatException e) {
+            assertNull("bytes \"" + field + "\" threw", expected);
+        }
+    }
+    
+    @Test
+    public void testIntMatchesParseInt() {
+        String[] fields = {
+            "0", "7", "-7", "+7", "-0", "+0", "007", " 42", "42 ", "  -42\t",
+            "2147483647", "-2147483648", "2147483648", "-2147483649", "99999999999",
+            "12345678901234567890", "", " ", "-", "+", "--1", "+-1", "1-", "1 2",
+            "1.0", "1e3", "abc", "١٢"
+        };
+        for (String field : fields) {
+            checkInt(field);
+        }
+        
+        Random random = new Random(42);
+        for (int i = 0; i < 100000; i++) {
+            checkInt(Integer.toString(random.nextInt()));
+        }
+    }
+    
+    @Test
+    public void testDoubleMatchesParseDouble() {
+        String[] fields = {
+            "0", "0.0", "-0", "-0.0", "+0.0", "1", "-1", "+1.5", ".5", "5.", ".", "-.",
+            " 19.99", "19.99 ", "\t-19.99 ", "0.1", "0.3", "2.675", "1.005", "629.54",
+            "1e3", "1E-3", "-2.5e+10", "1.5e308", "4.9e-324", "1e400",
+            // mantissas at and above 2^53
+            "9007199254740991", "9007199254740992", "9007199254740993",
+            "900719925474099.3", "9007199254740993.5",
+            // more than 19 digits
+            "12345678901234567890", "1234567890123456789012345", "0.12345678901234567890123",
+            "0.0000000000000000000001", "0.00000000000000000000001",
+            "NaN", "-Infinity", "1d", "2f", "0x1p3", "", " ", "-", "+", "1.2.3", "1,5", "abc"
+        };
+        for (String field : fields) {
+            checkDouble(field);
+        }
+    }
+    
+    @Test
+    public void testDoubleMatchesParseDoubleOnPrices() {
+        Random random = new Random(7);
+        for (int i = 0; i < 200000; i++) {
+            long cents = random.nextInt(100000000);
+            String price = (cents / 100) + "." + String.format("%02d", cents % 100);
+            checkDouble(price);
+            checkDouble("-" + price);
+        }
+        for (int i = 0; i < 100000; i++) {
+            checkDouble(Double.toString(random.nextDouble() * Math.pow(10, random.nextInt(20))));
+        }
+    }
+}
\ No newline at end of file
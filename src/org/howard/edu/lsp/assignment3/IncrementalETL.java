@@ -0,0 +1,394 @@
+package org.howard.edu.lsp.assignment3;
+
+import java.io.*;
+import java.nio.channels.FileChannel;
+import java.nio.file.*;
+import java.util.Arrays;
+
+/**
+ * refreshes the output file by transforming only the input rows that changed
+ * since the previous run.
+ * 
+ * alongside the output, an index file (the output path plus ".idx") keeps a
+ * 64-bit fingerprint of every input row by ProductID together with where its
+ * transformed line sits in the output. on the next run each parsed row is
+ * fingerprinted again: unchanged rows are copied from the old output in
+ * contiguous runs with FileChannel.transferTo, while inserted and updated
+ * rows are transformed and encoded. deleted rows are simply not copied.
+ * the new output and index are written to temporary files and moved into place.
+ * 
+ * the old output is only reused when the header, the rules and the output
+ * file size match what the index recorded; otherwise every row is rebuilt.
+ */
+public class IncrementalETL {
+    private static final int MAGIC = 0x45544C49; // "ETLI"
+    private static final int VERSION = 1;
+    private static final int FLUSH_BYTES = 1 << 18;
+    private static final long FNV_OFFSET = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+    
+    private CSVExtractor extractor;
+    private ProductTransformer transformer;
+    private String outputPath;
+    
+    private int inserted;
+    private int updated;
+    private int deleted;
+    private int unchanged;
+    private boolean rebuilt;
+    
+    /**
+     * constructs an IncrementalETL.
+     * 
+     * @param extractor the extractor reading the input
+     * @param transformer the transformer applied to changed rows
+     * @param outputPath the output CSV file path; the index is stored next to it
+     */
+    public IncrementalETL(CSVExtractor extractor, ProductTransformer transformer, String outputPath) {
+        this.extractor = extractor;
+        this.transformer = transformer;
+        this.outputPath = outputPath;
+    }
+    
+    /**
+     * reads the input, reuses the output lines of unchanged rows and writes
+     * the refreshed output and index.
+     * 
+     * @param header the CSV header
+     * @return the number of rows written
+     * @throws IOException if a file cannot be read or written
+     */
+    public int run(String header) throws IOException {
+        inserted = updated = deleted = unchanged = 0;
+        if (CompressionCodec.forPath(outputPath) != CompressionCodec.NONE) {
+            throw new IOException("Incremental mode needs an uncompressed output file, not '" + outputPath + "'.");
+        }
+        
+        Path output = Paths.get(outputPath);
+        Path indexPath = Paths.get(outputPath + ".idx");
+        long config = hash(FNV_OFFSET, header + System.lineSeparator() + rulesText());
+        RowIndex previous = RowIndex.read(indexPath, config, output);
+        rebuilt = previous == null;
+        
+        if (output.getParent() != null) {
+            Files.createDirectories(output.getParent());
+        }
+        Path tempOutput = Paths.get(outputPath + ".tmp");
+        RowIndex next = new RowIndex(previous == null ? 1024 : previous.size);
+        
+        int rows;
+        try (FileChannel oldOutput = previous == null ? null : FileChannel.open(output, StandardOpenOption.READ);
+             FileChannel out = FileChannel.open(tempOutput, StandardOpenOption.CREATE,
+                 StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            Writer writer = new Writer(oldOutput, out);
+            writer.encoder.appendLine(header);
+            
+            rows = extractor.stream(product -> {
+                long fingerprint = fingerprint(product);
+                int old = previous == null ? -1 : previous.find(product.getProductId());
+                
+                if (old >= 0 && previous.fingerprints[old] == fingerprint) {
+                    previous.seen[old] = true;
+                    unchanged++;
+                    next.add(product.getProductId(), fingerprint, writer.position(), previous.lengths[old]);
+                    writer.copy(previous.offsets[old], previous.lengths[old]);
+                    return;
+                }
+                
+                if (old >= 0) {
+                    previous.seen[old] = true;
+                    updated++;
+                } else {
+                    inserted++;
+                }
+                transformer.transform(product);
+                long offset = writer.position();
+                writer.encode(product);
+                next.add(product.getProductId(), fingerprint, offset, (int) (writer.position() - offset));
+            });
+            writer.finish();
+        }
+        
+        if (previous != null) {
+            deleted = previous.unseenCount();
+        }
+        
+        Path tempIndex = Paths.get(outputPath + ".idx.tmp");
+        next.write(tempIndex, config, Files.size(tempOutput));
+        move(tempOutput, output);
+        move(tempIndex, indexPath);
+        return rows;
+    }
+    
+    /**
+     * formats the change counts of the last run.
+     * 
+     * @return a one-line summary
+     */
+    public String getStats() {
+        return (rebuilt ? "Full rebuild: " : "Incremental refresh: ") + inserted + " inserted, "
+            + updated + " updated, " + deleted + " deleted, " + unchanged + " unchanged";
+    }
+    
+    // counts from the last run
+    public int getInserted() { return inserted; }
+    public int getUpdated() { return updated; }
+    public int getDeleted() { return deleted; }
+    public int getUnchanged() { return unchanged; }
+    
+    /**
+     * describes the rules so that a rule change invalidates the index.
+     */
+    private String rulesText() {
+        TransformRules rules = transformer.getRules();
+        return rules == null ? "built-in" : rules.toString();
+    }
+    
+    /**
+     * fingerprints the parsed input fields of a row before transformation.
+     * 
+     * @param product the untransformed product
+     * @return the 64-bit fingerprint
+     */
+    static long fingerprint(Product product) {
+        long h = mix(FNV_OFFSET, product.getProductId());
+        h = hash(h, product.getName());
+        h = mix(h, Double.doubleToLongBits(product.getPrice()));
+        return hash(h, product.getCategory());
+    }
+    
+    /**
+     * folds a string into an FNV-1a hash one char at a time, followed by its
+     * length so that adjacent fields cannot run together.
+     */
+    private static long hash(long h, String value) {
+        for (int i = 0; i < value.length(); i++) {
+            h = (h ^ value.charAt(i)) * FNV_PRIME;
+        }
+        return mix(h, value.length());
+    }
+    
+    /**
+     * folds the eight bytes of a long into an FNV-1a hash.
+     */
+    private static long mix(long h, long value) {
+        for (int i = 0; i < 8; i++) {
+            h = (h ^ (value & 0xFF)) * FNV_PRIME;
+            value >>>= 8;
+        }
+        return h;
+    }
+    
+    /**
+     * replaces the target with the source file, atomically when the file
+     * system supports it.
+     */
+    private static void move(Path source, Path target) throws IOException {
+        try {
+            Files.move(source, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(source, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+    
+    /**
+     * writes the new output, interleaving encoded rows with byte ranges copied
+     * from the old output. adjacent copied lines are merged into one transfer.
+     */
+    private static class Writer {
+        private FileChannel oldOutput;
+        private FileChannel out;
+        private CSVRowEncoder encoder = new CSVRowEncoder(FLUSH_BYTES + (1 << 12));
+        private long written;
+        private long runStart;
+        private long runLength;
+        
+        Writer(FileChannel oldOutput, FileChannel out) {
+            this.oldOutput = oldOutput;
+            this.out = out;
+        }
+        
+        /**
+         * gets the output offset the next line will be written at.
+         */
+        long position() {
+            return written + encoder.size() + runLength;
+        }
+        
+        void encode(Product product) throws IOException {
+            flushRun();
+            encoder.encode(product);
+            if (encoder.size() >= FLUSH_BYTES) {
+                flushEncoder();
+            }
+        }
+        
+        void copy(long offset, int length) throws IOException {
+            if (runLength > 0 && runStart + runLength == offset) {
+                runLength += length;
+                return;
+            }
+            flushRun();
+            flushEncoder();
+            runStart = offset;
+            runLength = length;
+        }
+        
+        void finish() throws IOException {
+            flushRun();
+            flushEncoder();
+        }
+        
+        private void flushEncoder() throws IOException {
+            written += encoder.size();
+            encoder.writeTo(out);
+        }
+        
+        private void flushRun() throws IOException {
+            long position = runStart;
+            long end = runStart + runLength;
+            while (position < end) {
+                long copied = oldOutput.transferTo(position, end - position, out);
+                if (copied <= 0) {
+                    throw new IOException("Previous output changed while it was being copied.");
+                }
+                position += copied;
+            }
+            written += runLength;
+            runLength = 0;
+        }
+    }
+    
+    /**
+     * the per-row fingerprints of one output file, in output order, with an
+     * open-addressing table from ProductID to the last row holding that ID.
+     */
+    private static class RowIndex {
+        private int size;
+        private int[] productIds;
+        private long[] fingerprints;
+        private long[] offsets;
+        private int[] lengths;
+        private boolean[] seen;
+        private int[] table;
+        
+        RowIndex(int capacity) {
+            capacity = Math.max(capacity, 16);
+            productIds = new int[capacity];
+            fingerprints = new long[capacity];
+            offsets = new long[capacity];
+            lengths = new int[capacity];
+        }
+        
+        void add(int productId, long fingerprint, long offset, int length) {
+            if (size == productIds.length) {
+                int capacity = size * 2;
+                productIds = Arrays.copyOf(productIds, capacity);
+                fingerprints = Arrays.copyOf(fingerprints, capacity);
+                offsets = Arrays.copyOf(offsets, capacity);
+                lengths = Arrays.copyOf(lengths, capacity);
+            }
+            productIds[size] = productId;
+            fingerprints[size] = fingerprint;
+            offsets[size] = offset;
+            lengths[size] = length;
+            size++;
+        }
+        
+        /**
+         * builds the lookup table; later rows with the same ID replace earlier ones.
+         */
+        void buildTable() {
+            table = new int[Integer.highestOneBit(Math.max(size, 1) * 2) * 2];
+            seen = new boolean[size];
+            int mask = table.length - 1;
+            for (int row = 0; row < size; row++) {
+                int slot = slot(productIds[row], mask);
+                while (table[slot] != 0 && productIds[table[slot] - 1] != productIds[row]) {
+                    slot = (slot + 1) & mask;
+                }
+                table[slot] = row + 1;
+            }
+        }
+        
+        /**
+         * finds the row for a ProductID.
+         * 
+         * @return the row, or -1 if the ID is not in the index
+         */
+        int find(int productId) {
+            int mask = table.length - 1;
+            for (int slot = slot(productId, mask); table[slot] != 0; slot = (slot + 1) & mask) {
+                int row = table[slot] - 1;
+                if (productIds[row] == productId) {
+                    return row;
+                }
+            }
+            return -1;
+        }
+        
+        /**
+         * counts the distinct IDs that were never looked up during the run.
+         */
+        int unseenCount() {
+            int count = 0;
+            for (int slot : table) {
+                if (slot != 0 && !seen[slot - 1]) {
+                    count++;
+                }
+            }
+            return count;
+        }
+        
+        private static int slot(int productId, int mask) {
+            int h = productId * 0x9E3779B9;
+            return (h ^ h >>> 16) & mask;
+        }
+        
+        void write(Path path, long config, long outputLength) throws IOException {
+            try (DataOutputStream out = new DataOutputStream(
+                    new BufferedOutputStream(Files.newOutputStream(path), 1 << 16))) {
+                out.writeInt(MAGIC);
+                out.writeInt(VERSION);
+                out.writeLong(config);
+                out.writeLong(outputLength);
+                out.writeInt(size);
+                for (int row = 0; row < size; row++) {
+                    out.writeInt(productIds[row]);
+                    out.writeLong(fingerprints[row]);
+                    out.writeLong(offsets[row]);
+                    out.writeInt(lengths[row]);
+                }
+            }
+        }
+        
+        /**
+         * reads an index if it matches the current configuration and output.
+         * 
+         * @return the index, or null if there is no usable index
+         */
+        static RowIndex read(Path path, long config, Path output) throws IOException {
+            if (!Files.exists(path) || !Files.exists(output)) {
+                return null;
+            }
+            
+            try (DataInputStream in = new DataInputStream(
+                    new BufferedInputStream(Files.newInputStream(path), 1 << 16))) {
+                if (in.readInt() != MAGIC || in.readInt() != VERSION || in.readLong() != config
+                        || in.readLong() != Files.size(output)) {
+                    return null;
+                }
+                
+                int size = in.readInt();
+                RowIndex index = new RowIndex(size);
+                for (int row = 0; row < size; row++) {
+                    index.add(in.readInt(), in.readLong(), in.readLong(), in.readInt());
+                }
+                index.buildTable();
+                return index;
+            } catch (EOFException e) {
+                return null; // truncated index; rebuild everything
+            }
+        }
+    }
+}
\ No newline at end of file
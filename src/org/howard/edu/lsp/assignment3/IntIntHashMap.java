@@ -0,0 +1,124 @@
+package org.howard.edu.lsp.assignment3;
+
+/**
+ * a hash map from int keys to int values without boxing.
+ * keys and values live in two parallel arrays with open addressing and
+ * linear probing, so each entry costs about 11 to 21 bytes instead of the
+ * 60 or more of a HashMap entry with boxed keys and values. key 0 marks an
+ * empty slot and is stored separately.
+ */
+class IntIntHashMap {
+    private static final float LOAD_FACTOR = 0.75f;
+    
+    private int[] keys;
+    private int[] values;
+    private int mask;
+    private int shift;
+    private int size;
+    private int threshold;
+    private boolean hasZeroKey;
+    private int zeroValue;
+    
+    /**
+     * constructs an IntIntHashMap sized for the expected number of keys.
+     * 
+     * @param expectedSize the number of keys expected
+     */
+    IntIntHashMap(int expectedSize) {
+        int capacity = Integer.highestOneBit(Math.max(16, (int) (expectedSize / LOAD_FACTOR)) - 1) << 1;
+        allocate(capacity);
+    }
+    
+    /**
+     * gets the value of a key.
+     * 
+     * @param key the key
+     * @param missing the value returned if the key is absent
+     * @return the value, or missing
+     */
+    int get(int key, int missing) {
+        if (key == 0) {
+            return hasZeroKey ? zeroValue : missing;
+        }
+        for (int slot = slot(key); ; slot = (slot + 1) & mask) {
+            int k = keys[slot];
+            if (k == key) return values[slot];
+            if (k == 0) return missing;
+        }
+    }
+    
+    /**
+     * sets the value of a key.
+     * 
+     * @param key the key
+     * @param value the value
+     */
+    void put(int key, int value) {
+        if (key == 0) {
+            if (!hasZeroKey) {
+                hasZeroKey = true;
+                size++;
+            }
+            zeroValue = value;
+            return;
+        }
+        
+        int slot = slot(key);
+        while (keys[slot] != 0) {
+            if (keys[slot] == key) {
+                values[slot] = value;
+                return;
+            }
+            slot = (slot + 1) & mask;
+        }
+        keys[slot] = key;
+        values[slot] = value;
+        if (++size > threshold) {
+            rehash();
+        }
+    }
+    
+    /**
+     * gets the number of keys.
+     * 
+     * @return the size
+     */
+    int size() {
+        return size;
+    }
+    
+    /**
+     * spreads the key bits with Fibonacci hashing and keeps the top bits.
+     */
+    private int slot(int key) {
+        return (key * 0x9E3779B9) >>> shift;
+    }
+    
+    private void allocate(int capacity) {
+        keys = new int[capacity];
+        values = new int[capacity];
+        mask = capacity - 1;
+        shift = Integer.numberOfLeadingZeros(mask);
+        threshold = (int) (capacity * LOAD_FACTOR);
+    }
+    
+    /**
+     * doubles the table and reinserts every key.
+     */
+    private void rehash() {
+        int[] oldKeys = keys;
+        int[] oldValues = values;
+        allocate(keys.length * 2);
+        for (int i = 0; i < oldKeys.length; i++) {
+            int key = oldKeys[i];
+            if (key == 0) continue;
+            
+            int slot = slot(key);
+            while (keys[slot] != 0) {
+                slot = (slot + 1) & mask;
+            }
+            keys[slot] = key;
+            values[slot] = oldValues[i];
+        }
+    }
+}
\ No newline at end of file
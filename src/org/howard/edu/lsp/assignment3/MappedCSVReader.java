@@ -0,0 +1,338 @@
+package org.howard.edu.lsp.assignment3;
+
+import java.io.*;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * reads products from a memory-mapped CSV file.
+ * delimiters and line breaks are found directly in the mapped bytes, numbers
+ * are parsed in place, and categories are matched against a small cache of
+ * previously seen byte sequences, so only the name is decoded per row.
+ * the file is expected to use an ASCII-compatible encoding such as UTF-8.
+ */
+public class MappedCSVReader {
+    private static final long MAX_WINDOW_BYTES = 1L << 30;
+    private static final int COLUMNS = 4;
+    private static final int MAX_CACHED_CATEGORIES = 4096;
+    
+    private String filePath;
+    private Charset charset = Charset.defaultCharset();
+    private boolean fixedPoint;
+    private ETLMetrics metrics;
+    private boolean quiet;
+    private byte[] scratch = new byte[256];
+    private int[] fieldStart = new int[COLUMNS + 1];
+    private int[] fieldEnd = new int[COLUMNS + 1];
+    private byte[][] cachedBytes = new byte[64][];
+    private int[] cachedCodes = new int[64];
+    private int cachedCount;
+    
+    /**
+     * constructs a MappedCSVReader for the specified file path.
+     * 
+     * @param filePath the path to the CSV file
+     */
+    public MappedCSVReader(String filePath) {
+        this.filePath = filePath;
+    }
+    
+    /**
+     * selects fixed-point money mode. see {@link CSVExtractor#setFixedPoint(boolean)}.
+     * 
+     * @param fixedPoint true to parse prices as cents where possible
+     */
+    public void setFixedPoint(boolean fixedPoint) {
+        this.fixedPoint = fixedPoint;
+    }
+    
+    /**
+     * sets the metrics that count the rows read and skipped.
+     * 
+     * @param metrics the metrics to update, or null for none
+     */
+    public void setMetrics(ETLMetrics metrics) {
+        this.metrics = metrics;
+    }
+    
+    /**
+     * turns off the warnings printed for skipped rows.
+     * 
+     * @param quiet true to skip rows silently
+     */
+    void setQuiet(boolean quiet) {
+        this.quiet = quiet;
+    }
+    
+    /**
+     * reads every product in the file and passes it to the handler.
+     * 
+     * @param handler the handler receiving each parsed product
+     * @return the number of products passed to the handler
+     * @throws IOException if file cannot be read or the handler fails
+     */
+    public int read(CSVExtractor.ProductHandler handler) throws IOException {
+        return read(0, Long.MAX_VALUE, true, handler);
+    }
+    
+    /**
+     * reads the products in a byte range of the file. the range must start at
+     * the beginning of a line.
+     * 
+     * @param start the first byte of the range
+     * @param end the byte after the last byte of the range
+     * @param hasHeader whether the range starts with the header row
+     * @param handler the handler receiving each parsed product
+     * @return the number of products passed to the handler
+     * @throws IOException if file cannot be read or the handler fails
+     */
+    public int read(long start, long end, boolean hasHeader, CSVExtractor.ProductHandler handler) throws IOException {
+        File file = new File(filePath);
+        
+        if (!file.exists()) {
+            throw new IOException("Input file '" + filePath + "' not found.");
+        }
+        
+        int count = 0;
+        boolean isHeader = hasHeader;
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            long limit = Math.min(end, channel.size());
+            long position = start;
+            
+            while (position < limit) {
+                long windowSize = Math.min(MAX_WINDOW_BYTES, limit - position);
+                boolean lastWindow = position + windowSize >= limit;
+                MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, position, windowSize);
+                
+                int size = (int) windowSize;
+                int lineStart = 0;
+                int i = 0;
+                while (i < size) {
+                    byte b = buffer.get(i);
+                    if (b != '\n' && b != '\r') {
+                        i++;
+                        continue;
+                    }
+                    
+                    if (!isBlank(buffer, lineStart, i)) {
+                        if (isHeader) {
+                            isHeader = false;
+                        } else {
+                            Product product = parseLine(buffer, lineStart, i);
+                            if (product != null) {
+                                handler.handle(product);
+                                count++;
+                            }
+                        }
+                    }
+                    
+                    // treat \r\n as a single line break
+                    if (b == '\r' && i + 1 < size && buffer.get(i + 1) == '\n') {
+                        i++;
+                    }
+                    i++;
+                    lineStart = i;
+                }
+                
+                if (lastWindow) {
+                    // final line without a trailing line break
+                    if (lineStart < size && !isBlank(buffer, lineStart, size) && !isHeader) {
+                        Product product = parseLine(buffer, lineStart, size);
+                        if (product != null) {
+                            handler.handle(product);
+                            count++;
+                        }
+                    }
+                    break;
+                }
+                if (lineStart == 0) {
+                    throw new IOException("Line longer than " + MAX_WINDOW_BYTES + " bytes in '" + filePath + "'.");
+                }
+                
+                // continue from the start of the unfinished line
+                position += lineStart;
+            }
+        }
+        
+        return count;
+    }
+    
+    /**
+     * parses one line of the mapped file into a Product object.
+     * follows the same column rules as String.split(","), which drops
+     * trailing empty columns.
+     * 
+     * @param buffer the mapped bytes
+     * @param start the first byte of the line
+     * @param end the byte after the last byte of the line
+     * @return product object or null if parsing fails
+     */
+    private Product parseLine(MappedByteBuffer buffer, int start, int end) {
+        int columns = 0;
+        int lastNonEmpty = 0;
+        int fieldBegin = start;
+        for (int i = start; i <= end; i++) {
+            if (i < end && buffer.get(i) != ',') continue;
+            
+            if (columns < fieldStart.length) {
+                fieldStart[columns] = fieldBegin;
+                fieldEnd[columns] = i;
+            }
+            columns++;
+            if (i > fieldBegin) {
+                lastNonEmpty = columns;
+            }
+            fieldBegin = i + 1;
+        }
+        if (metrics != null) {
+            metrics.rowRead();
+        }
+        
+        if (lastNonEmpty != COLUMNS) {
+            if (!quiet) {
+                System.out.println("Warning: Skipping invalid row: " + decode(buffer, start, end));
+            }
+            skipped(ETLMetrics.SkipReason.WRONG_COLUMN_COUNT);
+            return null;
+        }
+        
+        try {
+            int productId = FieldParser.parseInt(buffer, fieldStart[0], fieldEnd[0], charset);
+            long cents = fixedPoint ? Cents.parse(buffer, fieldStart[2], fieldEnd[2]) : Cents.NONE;
+            double price = cents != Cents.NONE ? 0
+                : FieldParser.parseDouble(buffer, fieldStart[2], fieldEnd[2], charset);
+            String name = decodeTrimmed(buffer, fieldStart[1], fieldEnd[1]);
+            int categoryCode = categoryCode(buffer, fieldStart[3], fieldEnd[3]);
+            
+            if (cents != Cents.NONE) {
+                return Product.withCents(productId, name, cents, categoryCode);
+            }
+            return new Product(productId, name, price, categoryCode);
+            
+        } catch (NumberFormatException e) {
+            if (!quiet) {
+                System.out.println("Warning: Skipping row with invalid data: " + decode(buffer, start, end));
+            }
+            skipped(ETLMetrics.SkipReason.INVALID_NUMBER);
+            return null;
+        }
+    }
+    
+    private void skipped(ETLMetrics.SkipReason reason) {
+        if (metrics != null) {
+            metrics.rowSkipped(reason);
+        }
+    }
+    
+    /**
+     * finds the shared dictionary code for a trimmed category field, decoding
+     * the bytes only the first time a spelling is seen.
+     * 
+     * @param buffer the mapped bytes
+     * @param start the first byte of the field
+     * @param end the byte after the last byte of the field
+     * @return the category code
+     */
+    private int categoryCode(MappedByteBuffer buffer, int start, int end) {
+        while (start < end && (buffer.get(start) & 0xFF) <= ' ') start++;
+        while (end > start && (buffer.get(end - 1) & 0xFF) <= ' ') end--;
+        
+        int hash = 0;
+        for (int i = start; i < end; i++) {
+            hash = 31 * hash + buffer.get(i);
+        }
+        
+        // open addressing over a power-of-two table
+        int mask = cachedBytes.length - 1;
+        int slot = (hash ^ (hash >>> 16)) & mask;
+        while (cachedBytes[slot] != null) {
+            if (matches(cachedBytes[slot], buffer, start, end)) {
+                return cachedCodes[slot];
+            }
+            slot = (slot + 1) & mask;
+        }
+        
+        int code = CategoryDictionary.shared().intern(decode(buffer, start, end));
+        if (cachedCount < MAX_CACHED_CATEGORIES) {
+            byte[] key = new byte[end - start];
+            buffer.get(start, key);
+            cachedBytes[slot] = key;
+            cachedCodes[slot] = code;
+            cachedCount++;
+            if (cachedCount * 2 > cachedBytes.length) {
+                growCache();
+            }
+        }
+        return code;
+    }
+    
+    /**
+     * checks whether a cached key equals a range of the mapped bytes.
+     */
+    private static boolean matches(byte[] key, MappedByteBuffer buffer, int start, int end) {
+        if (key.length != end - start) return false;
+        for (int i = 0; i < key.length; i++) {
+            if (key[i] != buffer.get(start + i)) return false;
+        }
+        return true;
+    }
+    
+    /**
+     * doubles the category cache and re-inserts its entries.
+     */
+    private void growCache() {
+        byte[][] oldBytes = cachedBytes;
+        int[] oldCodes = cachedCodes;
+        cachedBytes = new byte[oldBytes.length * 2][];
+        cachedCodes = new int[oldBytes.length * 2];
+        
+        int mask = cachedBytes.length - 1;
+        for (int i = 0; i < oldBytes.length; i++) {
+            if (oldBytes[i] == null) continue;
+            
+            int hash = 0;
+            for (byte b : oldBytes[i]) {
+                hash = 31 * hash + b;
+            }
+            int slot = (hash ^ (hash >>> 16)) & mask;
+            while (cachedBytes[slot] != null) {
+                slot = (slot + 1) & mask;
+            }
+            cachedBytes[slot] = oldBytes[i];
+            cachedCodes[slot] = oldCodes[i];
+        }
+    }
+    
+    /**
+     * checks whether a range holds only whitespace, matching String.trim().
+     */
+    private static boolean isBlank(MappedByteBuffer buffer, int start, int end) {
+        for (int i = start; i < end; i++) {
+            if ((buffer.get(i) & 0xFF) > ' ') return false;
+        }
+        return true;
+    }
+    
+    /**
+     * decodes a range with leading and trailing whitespace removed.
+     */
+    private String decodeTrimmed(MappedByteBuffer buffer, int start, int end) {
+        while (start < end && (buffer.get(start) & 0xFF) <= ' ') start++;
+        while (end > start && (buffer.get(end - 1) & 0xFF) <= ' ') end--;
+        return decode(buffer, start, end);
+    }
+    
+    /**
+     * decodes a range of the mapped bytes into a string.
+     */
+    private String decode(MappedByteBuffer buffer, int start, int end) {
+        int length = end - start;
+        if (scratch.length < length) {
+            scratch = new byte[Math.max(length, scratch.length * 2)];
+        }
+        buffer.get(start, scratch, 0, length);
+        return new String(scratch, 0, length, charset);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,307 @@
+package org.howard.edu.lsp.assignment3;
+
+import java.io.*;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+/**
+ * runs extract, transform and load as three overlapping stages.
+ * each stage has its own thread, and the stages hand {@link ProductBatch}
+ * chunks to each other through bounded queues, so the reader keeps parsing
+ * while earlier rows are transformed and written. wall time approaches the
+ * slowest stage instead of the sum of all three, and the bounded queues keep
+ * at most a few batches in memory.
+ */
+public class PipelinedETL {
+    private static final int DEFAULT_BATCH_SIZE = 4096;
+    private static final int DEFAULT_QUEUE_CAPACITY = 4;
+    // marks the end of the input; never transformed or written
+    private static final ProductBatch END = new ProductBatch();
+    
+    private CSVExtractor extractor;
+    private ProductTransformer transformer;
+    private CSVLoader loader;
+    private int batchSize = DEFAULT_BATCH_SIZE;
+    private int queueCapacity = DEFAULT_QUEUE_CAPACITY;
+    private ETLMetrics metrics = new ETLMetrics();
+    
+    private StageQueue transformQueue;
+    private StageQueue loadQueue;
+    private long[] busyNanos = new long[3];
+    private volatile Throwable failure;
+    private Thread[] threads;
+    
+    /**
+     * constructs a PipelinedETL over the given components.
+     * 
+     * @param extractor the extractor reading the input
+     * @param transformer the transformer applied to each batch
+     * @param loader the loader writing the output
+     */
+    public PipelinedETL(CSVExtractor extractor, ProductTransformer transformer, CSVLoader loader) {
+        this.extractor = extractor;
+        this.transformer = transformer;
+        this.loader = loader;
+    }
+    
+    /**
+     * sets how many rows are handed between stages at a time.
+     * 
+     * @param batchSize the number of rows per batch
+     */
+    public void setBatchSize(int batchSize) {
+        this.batchSize = Math.max(1, batchSize);
+    }
+    
+    /**
+     * sets how many batches may wait between two stages.
+     * 
+     * @param queueCapacity the capacity of each queue
+     */
+    public void setQueueCapacity(int queueCapacity) {
+        this.queueCapacity = Math.max(1, queueCapacity);
+    }
+    
+    /**
+     * sets the metrics that time the stages. each transformed and each
+     * written batch is one timed call; the extract stage is recorded once
+     * with its busy time.
+     * 
+     * @param metrics the metrics to update
+     */
+    public void setMetrics(ETLMetrics metrics) {
+        this.metrics = metrics;
+    }
+    
+    /**
+     * runs the three stages and waits for all of them to finish.
+     * if any stage fails, the others are interrupted and the first error is
+     * rethrown.
+     * 
+     * @param header the CSV header
+     * @return the number of rows written
+     * @throws IOException if a stage fails or the run is interrupted
+     */
+    public int run(String header) throws IOException {
+        transformQueue = new StageQueue(queueCapacity);
+        loadQueue = new StageQueue(queueCapacity);
+        busyNanos = new long[3];
+        failure = null;
+        int[] rowsLoaded = new int[1];
+        
+        threads = new Thread[] {
+            stage("etl-extract", 0, this::extractStage),
+            stage("etl-transform", 1, this::transformStage),
+            stage("etl-load", 2, () -> rowsLoaded[0] = loadStage(header))
+        };
+        for (Thread thread : threads) {
+            thread.start();
+        }
+        
+        try {
+            for (Thread thread : threads) {
+                thread.join();
+            }
+        } catch (InterruptedException e) {
+            for (Thread thread : threads) {
+                thread.interrupt();
+            }
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Pipeline interrupted");
+        }
+        
+        Throwable error = failure;
+        if (error instanceof IOException) {
+            throw (IOException) error;
+        }
+        if (error != null) {
+            throw new IOException("Pipeline stage failed: " + error, error);
+        }
+        return rowsLoaded[0];
+    }
+    
+    /**
+     * reads the input and hands it on in batches.
+     */
+    private void extractStage() throws Exception {
+        ProductBatch[] current = { new ProductBatch() };
+        extractor.stream(product -> {
+            current[0].add(product);
+            if (current[0].size() == batchSize) {
+                try {
+                    transformQueue.put(current[0]);
+                } catch (InterruptedException e) {
+                    throw new InterruptedIOException("Pipeline interrupted");
+                }
+                current[0] = new ProductBatch();
+            }
+        });
+        if (current[0].size() > 0) {
+            transformQueue.put(current[0]);
+        }
+        transformQueue.put(END);
+    }
+    
+    /**
+     * transforms each batch and passes it to the loader.
+     */
+    private void transformStage() throws Exception {
+        ProductBatch batch;
+        while ((batch = transformQueue.take()) != END) {
+            ETLMetrics.Timer timer = metrics.time(ETLMetrics.Stage.TRANSFORM);
+            try {
+                transformer.transform(batch);
+            } finally {
+                timer.stop();
+            }
+            loadQueue.put(batch);
+        }
+        loadQueue.put(END);
+    }
+    
+    /**
+     * writes each batch to the output file.
+     */
+    private int loadStage(String header) throws Exception {
+        int rows = 0;
+        try (CSVLoader output = loader) {
+            output.open(header);
+            ProductBatch batch;
+            while ((batch = loadQueue.take()) != END) {
+                ETLMetrics.Timer timer = metrics.time(ETLMetrics.Stage.LOAD);
+                try {
+                    output.write(batch);
+                } finally {
+                    timer.stop();
+                }
+                rows += batch.size();
+            }
+        }
+        return rows;
+    }
+    
+    /**
+     * wraps a stage in a thread that records its busy time and, on failure,
+     * stops the other stages.
+     */
+    private Thread stage(String name, int index, StageBody body) {
+        return new Thread(() -> {
+            long start = System.nanoTime();
+            long startCpu = ETLMetrics.currentThreadCpuNanos();
+            try {
+                body.run();
+            } catch (Throwable e) {
+                fail(e);
+            } finally {
+                StageQueue in = index == 0 ? null : index == 1 ? transformQueue : loadQueue;
+                StageQueue out = index == 0 ? transformQueue : index == 1 ? loadQueue : null;
+                long waited = (in == null ? 0 : in.takeStallNanos) + (out == null ? 0 : out.putStallNanos);
+                busyNanos[index] = System.nanoTime() - start - waited;
+                if (index == 0) {
+                    long cpu = startCpu < 0 ? -1 : ETLMetrics.currentThreadCpuNanos() - startCpu;
+                    metrics.record(ETLMetrics.Stage.EXTRACT, busyNanos[index], cpu);
+                }
+            }
+        }, name);
+    }
+    
+    /**
+     * records the first failure and interrupts every stage still waiting.
+     */
+    private synchronized void fail(Throwable e) {
+        if (failure != null) {
+            return;
+        }
+        failure = e instanceof InterruptedException ? new InterruptedIOException("Pipeline interrupted") : e;
+        for (Thread thread : threads) {
+            thread.interrupt();
+        }
+    }
+    
+    /**
+     * formats the queue and stall counters of the last run. the stage with
+     * the most busy time, excluding time spent waiting on its queues, is the
+     * one limiting throughput.
+     * 
+     * @return a multi-line report
+     */
+    public String getStats() {
+        String[] names = { "extract", "transform", "load" };
+        int slowest = 0;
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < names.length; i++) {
+            if (busyNanos[i] > busyNanos[slowest]) {
+                slowest = i;
+            }
+            sb.append(names[i]).append(" busy: ").append(busyNanos[i] / 1_000_000).append(" ms\n");
+        }
+        sb.append("extract -> transform queue: ").append(transformQueue).append('\n');
+        sb.append("transform -> load queue: ").append(loadQueue).append('\n');
+        sb.append("Limiting stage: ").append(names[slowest]);
+        return sb.toString();
+    }
+    
+    /**
+     * the work done by one stage.
+     */
+    private interface StageBody {
+        void run() throws Exception;
+    }
+    
+    /**
+     * a bounded queue between two stages that counts how often and how long
+     * each side waited. each counter is written by only one thread, and the
+     * counters are read after the stages have been joined.
+     */
+    static class StageQueue {
+        private BlockingQueue<ProductBatch> queue;
+        private long puts;
+        private long depthTotal;
+        private int maxDepth;
+        private long putStalls;
+        private long putStallNanos;
+        private long takeStalls;
+        private long takeStallNanos;
+        
+        StageQueue(int capacity) {
+            this.queue = new ArrayBlockingQueue<>(capacity);
+        }
+        
+        /**
+         * adds a batch, waiting while the queue is full.
+         */
+        void put(ProductBatch batch) throws InterruptedException {
+            if (!queue.offer(batch)) {
+                putStalls++;
+                long start = System.nanoTime();
+                queue.put(batch);
+                putStallNanos += System.nanoTime() - start;
+            }
+            int depth = queue.size();
+            puts++;
+            depthTotal += depth;
+            maxDepth = Math.max(maxDepth, depth);
+        }
+        
+        /**
+         * removes a batch, waiting while the queue is empty.
+         */
+        ProductBatch take() throws InterruptedException {
+            ProductBatch batch = queue.poll();
+            if (batch == null) {
+                takeStalls++;
+                long start = System.nanoTime();
+                batch = queue.take();
+                takeStallNanos += System.nanoTime() - start;
+            }
+            return batch;
+        }
+        
+        @Override
+        public String toString() {
+            return String.format("avg depth %.1f, max depth %d, producer stalls %d (%d ms), consumer stalls %d (%d ms)",
+                puts == 0 ? 0.0 : (double) depthTotal / puts, maxDepth,
+                putStalls, putStallNanos / 1_000_000, takeStalls, takeStallNanos / 1_000_000);
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,71 @@
+package org.howard.edu.lsp.assignment3;
+
+/**
+ * price range buckets assigned to transformed products.
+ */
+public enum PriceRange {
+    LOW("Low"),
+    MEDIUM("Medium"),
+    HIGH("High"),
+    PREMIUM("Premium");
+    
+    private static final PriceRange[] VALUES = values();
+    
+    private final String label;
+    
+    PriceRange(String label) {
+        this.label = label;
+    }
+    
+    /**
+     * gets the label written to the PriceRange column.
+     * 
+     * @return the label
+     */
+    public String getLabel() {
+        return label;
+    }
+    
+    /**
+     * determines the price range for a price.
+     * 
+     * @param price the final product price
+     * @return the matching price range
+     */
+    public static PriceRange of(double price) {
+        if (price <= 10.00) {
+            return LOW;
+        } else if (price <= 100.00) {
+            return MEDIUM;
+        } else if (price <= 500.00) {
+            return HIGH;
+        } else {
+            return PREMIUM;
+        }
+    }
+    
+    /**
+     * returns the price range for a code from {@link #ordinal()}.
+     * 
+     * @param code the price range code
+     * @return the matching price range
+     */
+    public static PriceRange fromCode(int code) {
+        return VALUES[code];
+    }
+    
+    /**
+     * finds the price range with a label.
+     * 
+     * @param label the price range label
+     * @return the matching price range, or null if no range has the label
+     */
+    public static PriceRange fromLabel(String label) {
+        for (PriceRange range : VALUES) {
+            if (range.label.equals(label)) {
+                return range;
+            }
+        }
+        return null;
+    }
+}
\ No newline at end of file
@@ -1,17 +1,18 @@
 package org.howard.edu.lsp.assignment3;
 
-import java.math.BigDecimal;
-import java.math.RoundingMode;
-
 /**
  * represents a product with its attributes and transformation capabilities.
  * encapsulates product data and transformation logic.
  */
 public class Product {
+    private static final CategoryDictionary CATEGORIES = CategoryDictionary.shared();
+    
     private int productId;
     private String name;
     private double price;
+    private long priceCents;
     private String category;
+    private int categoryCode;
     private String priceRange;
     
     /**
@@ -21,25 +22,76 @@ public class Product {
      * @param name the product name
      * @param price the product price
      * @param category the product category
+     * @throws IllegalArgumentException if the category is null
      */
     public Product(int productId, String name, double price, String category) {
+        this(productId, name, price, CATEGORIES.intern(category));
+    }
+    
+    /**
+     * constructs a Product whose category is already a code in the shared
+     * {@link CategoryDictionary}.
+     * 
+     * @param productId the product identifier
+     * @param name the product name
+     * @param price the product price
+     * @param categoryCode the category code
+     */
+    Product(int productId, String name, double price, int categoryCode) {
         this.productId = productId;
         this.name = name;
         this.price = price;
-        this.category = category;
+        this.priceCents = Cents.NONE;
+        this.category = CATEGORIES.get(categoryCode);
+        this.categoryCode = categoryCode;
         this.priceRange = "";
     }
     
+    /**
+     * creates a Product in fixed-point money mode, where the price is kept as
+     * an exact number of cents through the discount and CSV output.
+     * 
+     * @param productId the product identifier
+     * @param name the product name
+     * @param priceCents the product price in cents, from 0 to 10^13
+     * @param categoryCode the category code in the shared dictionary
+     * @return the new product
+     */
+    static Product withCents(int productId, String name, long priceCents, int categoryCode) {
+        Product product = new Product(productId, name, Cents.toDouble(priceCents), categoryCode);
+        product.priceCents = priceCents;
+        return product;
+    }
+    
     // getters and setters
     public int getProductId() { return productId; }
     public String getName() { return name; }
     public double getPrice() { return price; }
+    long getPriceCents() { return priceCents; }
     public String getCategory() { return category; }
+    public int getCategoryCode() { return categoryCode; }
     public String getPriceRange() { return priceRange; }
     
     public void setName(String name) { this.name = name; }
-    public void setPrice(double price) { this.price = price; }
-    public void setCategory(String category) { this.category = category; }
+    public void setPrice(double price) {
+        this.price = price;
+        this.priceCents = Cents.NONE;
+    }
+    
+    /**
+     * sets the category, interning it in the shared dictionary.
+     * 
+     * @param category the new category
+     * @throws IllegalArgumentException if the category is null
+     */
+    public void setCategory(String category) {
+        this.categoryCode = CATEGORIES.intern(category);
+        this.category = CATEGORIES.get(categoryCode);
+    }
+    void setCategoryCode(int categoryCode) {
+        this.categoryCode = categoryCode;
+        this.category = CATEGORIES.get(categoryCode);
+    }
     public void setPriceRange(String priceRange) { this.priceRange = priceRange; }
     
     /**
@@ -55,35 +107,52 @@ public class Product {
      * @return true if discount was applied, false otherwise
      */
     public boolean applyElectronicsDiscount() {
-        if ("Electronics".equalsIgnoreCase(this.category)) {
-            this.price = roundPrice(this.price * 0.9);
+        if (isElectronics()) {
+            applyDiscount(10);
             return true;
         }
         return false;
     }
     
+    /**
+     * applies a percentage discount and rounds the price to cents.
+     * 
+     * @param percent the discount percentage
+     */
+    void applyDiscount(double percent) {
+        if (priceCents != Cents.NONE && percent == Math.rint(percent)) {
+            this.priceCents = Cents.discount(priceCents, (int) percent);
+            this.price = Cents.toDouble(priceCents);
+        } else {
+            this.price = roundPrice(this.price * TransformRules.discountFactor(percent));
+            this.priceCents = Cents.NONE;
+        }
+    }
+    
     /**
      * upgrades category to Premium Electronics if conditions are met.
      */
     public void upgradeToPremium() {
-        if ("Electronics".equalsIgnoreCase(this.category) && this.price > 500.00) {
-            this.category = "Premium Electronics";
+        if (isElectronics() && this.price > 500.00) {
+            this.categoryCode = CategoryDictionary.PREMIUM_ELECTRONICS;
+            this.category = CATEGORIES.get(categoryCode);
         }
     }
     
+    /**
+     * checks whether the category is Electronics, ignoring case.
+     * 
+     * @return true if the product is in the Electronics category
+     */
+    private boolean isElectronics() {
+        return CATEGORIES.foldedCode(categoryCode) == CategoryDictionary.ELECTRONICS;
+    }
+    
     /**
      * determines and sets the price range based on the current price
      */
     public void calculatePriceRange() {
-        if (this.price <= 10.00) {
-            this.priceRange = "Low";
-        } else if (this.price <= 100.00) {
-            this.priceRange = "Medium";
-        } else if (this.price <= 500.00) {
-            this.priceRange = "High";
-        } else {
-            this.priceRange = "Premium";
-        }
+        this.priceRange = PriceRange.of(this.price).getLabel();
     }
     
     /**
@@ -92,10 +161,8 @@ public class Product {
      * @param price the price to round
      * @return the rounded price
      */
-    private double roundPrice(double price) {
-        BigDecimal bd = new BigDecimal(price);
-        bd = bd.setScale(2, RoundingMode.HALF_UP);
-        return bd.doubleValue();
+    static double roundPrice(double price) {
+        return Cents.round(price);
     }
     
     /**
@@ -104,7 +171,13 @@ public class Product {
      * @return CSV string of product attributes
      */
     public String toCSV() {
-        return String.format("%d,%s,%.2f,%s,%s", 
-            productId, name, price, category, priceRange);
+        StringBuilder sb = new StringBuilder(64);
+        sb.append(productId).append(',').append(name).append(',');
+        if (priceCents != Cents.NONE) {
+            Cents.append(sb, priceCents);
+        } else {
+            CSVRowEncoder.appendPrice(sb, price);
+        }
+        return sb.append(',').append(category).append(',').append(priceRange).toString();
     }
 }
\ No newline at end of file
@@ -0,0 +1,273 @@
+package org.howard.edu.lsp.assignment3;
+
+import java.io.IOException;
+import java.util.*;
+
+/**
+ * computes summary reports over product data in one streaming pass.
+ * each row is extracted and transformed with the usual rules, folded into
+ * per-category totals, a price range histogram and a bounded top-N heap,
+ * and then dropped, so memory grows with the number of categories and N,
+ * never with the number of rows. categories are grouped by their dictionary
+ * code, so the per-row work is a few array updates.
+ */
+public class ProductAggregator {
+    /** the number of most expensive products kept by default. */
+    public static final int DEFAULT_TOP_N = 100;
+    
+    // orders products from cheapest to most expensive, with ties broken
+    // so that the lower ProductID ranks higher
+    private static final Comparator<Product> ASCENDING = Comparator
+        .comparingDouble(Product::getPrice)
+        .thenComparing(Comparator.comparingInt(Product::getProductId).reversed());
+    
+    private ProductTransformer transformer;
+    private int topN = DEFAULT_TOP_N;
+    
+    /**
+     * constructs a ProductAggregator applying the built-in transformation rules.
+     */
+    public ProductAggregator() {
+        this(new ProductTransformer());
+    }
+    
+    /**
+     * constructs a ProductAggregator applying a transformer to each row
+     * before it is aggregated.
+     * 
+     * @param transformer the transformer, or null to aggregate raw rows
+     */
+    public ProductAggregator(ProductTransformer transformer) {
+        this.transformer = transformer;
+    }
+    
+    /**
+     * sets how many of the most expensive products are kept.
+     * 
+     * @param topN the number of products, 0 for none
+     */
+    public void setTopN(int topN) {
+        this.topN = Math.max(0, topN);
+    }
+    
+    /**
+     * streams every product from the extractor and aggregates it.
+     * 
+     * @param extractor the extractor reading the input
+     * @return the aggregates
+     * @throws IOException if file cannot be read
+     */
+    public Result aggregate(CSVExtractor extractor) throws IOException {
+        Result result = new Result(topN);
+        extractor.stream(product -> {
+            if (transformer != null) {
+                transformer.transform(product);
+            }
+            result.add(product);
+        });
+        return result;
+    }
+    
+    /**
+     * aggregates products that are already in memory.
+     * 
+     * @param products the products, already transformed if needed
+     * @return the aggregates
+     */
+    public Result aggregate(Iterable<Product> products) {
+        Result result = new Result(topN);
+        for (Product product : products) {
+            result.add(product);
+        }
+        return result;
+    }
+    
+    /**
+     * the totals of one category. the sum adds each price rounded to cents,
+     * as it appears in the transformed file, so it is exact.
+     */
+    public static class CategoryStats {
+        private String category;
+        private long count;
+        private long sumCents;
+        private double min;
+        private double max;
+        
+        CategoryStats(String category, long count, long sumCents, double min, double max) {
+            this.category = category;
+            this.count = count;
+            this.sumCents = sumCents;
+            this.min = min;
+            this.max = max;
+        }
+        
+        public String getCategory() { return category; }
+        public long getCount() { return count; }
+        public long getSumCents() { return sumCents; }
+        public double getSum() { return Cents.toDouble(sumCents); }
+        public double getMin() { return min; }
+        public double getMax() { return max; }
+        public double getAverage() { return count == 0 ? 0 : sumCents / 100.0 / count; }
+    }
+    
+    /**
+     * the aggregates of one pass: per-category totals, products per price
+     * range and the most expensive products.
+     */
+    public static class Result {
+        private int topN;
+        private long rows;
+        private long[] counts = new long[16];
+        private long[] sumCents = new long[16];
+        private double[] mins = new double[16];
+        private double[] maxes = new double[16];
+        private long[] priceRanges = new long[PriceRange.values().length];
+        private PriorityQueue<Product> top;
+        
+        Result(int topN) {
+            this.topN = topN;
+            this.top = new PriorityQueue<>(Math.max(1, Math.min(topN, 1 << 16) + 1), ASCENDING);
+        }
+        
+        /**
+         * folds one product into the aggregates.
+         */
+        void add(Product product) {
+            rows++;
+            double price = product.getPrice();
+            int code = product.getCategoryCode();
+            if (code >= counts.length) {
+                grow(code);
+            }
+            
+            if (counts[code]++ == 0) {
+                mins[code] = price;
+                maxes[code] = price;
+            } else if (price < mins[code]) {
+                mins[code] = price;
+            } else if (price > maxes[code]) {
+                maxes[code] = price;
+            }
+            
+            // sum the prices as written to the output, in exact cents
+            long cents = product.getPriceCents();
+            if (cents == Cents.NONE) {
+                cents = CSVRowEncoder.printedCents(price);
+            }
+            sumCents[code] += cents;
+            
+            // count the range the rules assigned, which may use custom limits
+            PriceRange range = PriceRange.fromLabel(product.getPriceRange());
+            if (range == null) {
+                range = PriceRange.of(price);
+            }
+            priceRanges[range.ordinal()]++;
+            
+            if (topN == 0) return;
+            
+            if (top.size() < topN) {
+                top.add(product);
+            } else if (ASCENDING.compare(product, top.peek()) > 0) {
+                top.poll();
+                top.add(product);
+            }
+        }
+        
+        private void grow(int code) {
+            int size = Math.max(code + 1, counts.length * 2);
+            counts = Arrays.copyOf(counts, size);
+            sumCents = Arrays.copyOf(sumCents, size);
+            mins = Arrays.copyOf(mins, size);
+            maxes = Arrays.copyOf(maxes, size);
+        }
+        
+        /**
+         * gets the number of products aggregated.
+         * 
+         * @return the row count
+         */
+        public long getRows() {
+            return rows;
+        }
+        
+        /**
+         * gets the totals of every category seen, ordered by category name.
+         * 
+         * @return the category totals
+         */
+        public List<CategoryStats> getCategories() {
+            CategoryDictionary dictionary = CategoryDictionary.shared();
+            List<CategoryStats> categories = new ArrayList<>();
+            for (int code = 0; code < counts.length; code++) {
+                if (counts[code] > 0) {
+                    categories.add(new CategoryStats(dictionary.get(code), counts[code], sumCents[code], mins[code], maxes[code]));
+                }
+            }
+            categories.sort(Comparator.comparing(CategoryStats::getCategory));
+            return categories;
+        }
+        
+        /**
+         * gets the number of products in each price range. products are
+         * counted under the range label the transformation gave them, or
+         * under the built-in range for their price if they have none.
+         * 
+         * @return the counts, in price range order
+         */
+        public Map<PriceRange, Long> getPriceRanges() {
+            Map<PriceRange, Long> histogram = new EnumMap<>(PriceRange.class);
+            for (PriceRange range : PriceRange.values()) {
+                histogram.put(range, priceRanges[range.ordinal()]);
+            }
+            return histogram;
+        }
+        
+        /**
+         * gets the most expensive products, most expensive first. equal
+         * prices are ordered by ProductID.
+         * 
+         * @return up to N products
+         */
+        public List<Product> getTop() {
+            List<Product> products = new ArrayList<>(top);
+            products.sort(ASCENDING.reversed());
+            return products;
+        }
+        
+        /**
+         * formats the aggregates as a plain-text report.
+         * 
+         * @return a multi-line report
+         */
+        public String format() {
+            StringBuilder sb = new StringBuilder();
+            sb.append("Products: ").append(rows).append('\n');
+            
+            sb.append("\nCategory,Count,Sum,Min,Max,Average\n");
+            for (CategoryStats stats : getCategories()) {
+                sb.append(stats.category).append(',').append(stats.count).append(',');
+                Cents.append(sb, stats.sumCents);
+                sb.append(',');
+                CSVRowEncoder.appendPrice(sb, stats.min);
+                sb.append(',');
+                CSVRowEncoder.appendPrice(sb, stats.max);
+                sb.append(',');
+                CSVRowEncoder.appendPrice(sb, Cents.round(stats.getAverage()));
+                sb.append('\n');
+            }
+            
+            sb.append("\nPriceRange,Count\n");
+            for (PriceRange range : PriceRange.values()) {
+                sb.append(range.getLabel()).append(',').append(priceRanges[range.ordinal()]).append('\n');
+            }
+            
+            if (topN > 0) {
+                sb.append("\nTop ").append(topN).append(" by price\n");
+                for (Product product : getTop()) {
+                    sb.append(product.toCSV()).append('\n');
+                }
+            }
+            return sb.toString();
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,99 @@
+package org.howard.edu.lsp.assignment3;
+
+import static org.junit.Assert.*;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Test;
+
+/**
+ * tests for {@link ProductAggregator}.
+ */
+public class ProductAggregatorTest {
+    
+    private static List<Product> transformed() {
+        List<Product> products = Arrays.asList(
+            new Product(1, "Laptop", 999.99, "Electronics"),
+            new Product(2, "Mug", 8.505, "Kitchen"),
+            new Product(3, "Desk", 150.00, "Furniture"),
+            new Product(4, "Pan", 20.10, "Kitchen"),
+            new Product(5, "Chair", 150.00, "Furniture"),
+            new Product(6, "Cable", 5.00, "Electronics"));
+        new ProductTransformer().transform(products);
+        return products;
+    }
+    
+    @Test
+    public void testGroupsByTransformedCategory() {
+        ProductAggregator.Result result = new ProductAggregator().aggregate(transformed());
+        
+        assertEquals(6, result.getRows());
+        List<ProductAggregator.CategoryStats> categories = result.getCategories();
+        assertEquals(4, categories.size());
+        
+        ProductAggregator.CategoryStats kitchen = categories.get(2);
+        assertEquals("Kitchen", kitchen.getCategory());
+        assertEquals(2, kitchen.getCount());
+        // 8.505 is written as 8.51, and the sum adds the written prices
+        assertEquals(2861, kitchen.getSumCents());
+        assertEquals(8.505, kitchen.getMin(), 0.0);
+        assertEquals(20.10, kitchen.getMax(), 0.0);
+        
+        assertEquals("Premium Electronics", categories.get(3).getCategory());
+        assertEquals(89999, categories.get(3).getSumCents());
+    }
+    
+    @Test
+    public void testCountsPriceRanges() {
+        ProductAggregator.Result result = new ProductAggregator().aggregate(transformed());
+        
+        assertEquals(Long.valueOf(2), result.getPriceRanges().get(PriceRange.LOW));
+        assertEquals(Long.valueOf(1), result.getPriceRanges().get(PriceRange.MEDIUM));
+        assertEquals(Long.valueOf(2), result.getPriceRanges().get(PriceRange.HIGH));
+        assertEquals(Long.valueOf(1), result.getPriceRanges().get(PriceRange.PREMIUM));
+    }
+    
+    @Test
+    public void testCountsPriceRangesFromCustomRule() throws IOException {
+        TransformRules rules = TransformRules.parse(Arrays.asList(
+            "pricerange 25.00 Low, 250.00 Medium, 1000.00 High, * Premium"));
+        List<Product> products = Arrays.asList(
+            new Product(1, "Pan", 20.00, "Kitchen"),
+            new Product(2, "Desk", 200.00, "Furniture"),
+            new Product(3, "Sofa", 800.00, "Furniture"));
+        new ProductTransformer(rules).transform(products);
+        
+        Map<PriceRange, Long> ranges = new ProductAggregator().aggregate(products).getPriceRanges();
+        assertEquals(Long.valueOf(1), ranges.get(PriceRange.LOW));
+        assertEquals(Long.valueOf(1), ranges.get(PriceRange.MEDIUM));
+        assertEquals(Long.valueOf(1), ranges.get(PriceRange.HIGH));
+        assertEquals(Long.valueOf(0), ranges.get(PriceRange.PREMIUM));
+    }
+    
+    @Test
+    public void testCountsUnlabelledProductsByPrice() {
+        List<Product> products = Arrays.asList(
+            new Product(1, "Pan", 20.00, "Kitchen"),
+            new Product(2, "Sofa", 800.00, "Furniture"));
+        
+        Map<PriceRange, Long> ranges = new ProductAggregator(null).aggregate(products).getPriceRanges();
+        assertEquals(Long.valueOf(1), ranges.get(PriceRange.MEDIUM));
+        assertEquals(Long.valueOf(1), ranges.get(PriceRange.PREMIUM));
+    }
+    
+    @Test
+    public void testTopNKeepsMostExpensiveInOrder() {
+        ProductAggregator aggregator = new ProductAggregator();
+        aggregator.setTopN(3);
+        List<Product> top = aggregator.aggregate(transformed()).getTop();
+        
+        assertEquals(3, top.size());
+        assertEquals(1, top.get(0).getProductId());
+        // equal prices rank by ProductID
+        assertEquals(3, top.get(1).getProductId());
+        assertEquals(5, top.get(2).getProductId());
+    }
+}
\ No newline at end of file
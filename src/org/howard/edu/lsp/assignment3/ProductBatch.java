@@ -0,0 +1,161 @@
+package org.howard.edu.lsp.assignment3;
+
+import java.util.Arrays;
+
+/**
+ * stores many products column by column in primitive arrays.
+ * categories are dictionary-encoded and price ranges are stored as
+ * {@link PriceRange} codes, so a row costs a few array slots plus its name
+ * instead of a Product object with three string references.
+ */
+public class ProductBatch {
+    private static final int DEFAULT_CAPACITY = 1024;
+    
+    /** price range code for rows that have not been transformed yet. */
+    public static final byte NO_PRICE_RANGE = -1;
+    
+    private int size;
+    private int[] productIds;
+    private String[] names;
+    private double[] prices;
+    private int[] categoryCodes;
+    private byte[] priceRangeCodes;
+    private CategoryDictionary categories;
+    
+    /**
+     * constructs an empty ProductBatch using the shared category dictionary.
+     */
+    public ProductBatch() {
+        this(CategoryDictionary.shared());
+    }
+    
+    /**
+     * constructs an empty ProductBatch that encodes categories with the given
+     * dictionary, so several batches can share the same codes.
+     * 
+     * @param categories the category dictionary
+     */
+    public ProductBatch(CategoryDictionary categories) {
+        this.categories = categories;
+        this.productIds = new int[DEFAULT_CAPACITY];
+        this.names = new String[DEFAULT_CAPACITY];
+        this.prices = new double[DEFAULT_CAPACITY];
+        this.categoryCodes = new int[DEFAULT_CAPACITY];
+        this.priceRangeCodes = new byte[DEFAULT_CAPACITY];
+    }
+    
+    /**
+     * appends a row to the batch.
+     * 
+     * @param productId the product identifier
+     * @param name the product name
+     * @param price the product price
+     * @param category the product category
+     */
+    public void add(int productId, String name, double price, String category) {
+        add(productId, name, price, categories.intern(category));
+    }
+    
+    /**
+     * appends a row whose category is already a code in this batch's dictionary.
+     * 
+     * @param productId the product identifier
+     * @param name the product name
+     * @param price the product price
+     * @param categoryCode the category code
+     */
+    public void add(int productId, String name, double price, int categoryCode) {
+        if (size == productIds.length) {
+            grow();
+        }
+        productIds[size] = productId;
+        names[size] = name;
+        prices[size] = price;
+        categoryCodes[size] = categoryCode;
+        priceRangeCodes[size] = NO_PRICE_RANGE;
+        size++;
+    }
+    
+    /**
+     * appends a product to the batch, keeping its price range if it has one.
+     * 
+     * @param product the product to copy into the batch
+     */
+    public void add(Product product) {
+        if (categories == CategoryDictionary.shared()) {
+            add(product.getProductId(), product.getName(), product.getPrice(), product.getCategoryCode());
+        } else {
+            add(product.getProductId(), product.getName(), product.getPrice(), product.getCategory());
+        }
+        if (product.getPriceRange() != null) {
+            PriceRange range = PriceRange.fromLabel(product.getPriceRange());
+            if (range != null) {
+                priceRangeCodes[size - 1] = (byte) range.ordinal();
+            }
+        }
+    }
+    
+    /**
+     * removes every row while keeping the allocated arrays.
+     */
+    public void clear() {
+        Arrays.fill(names, 0, size, null);
+        size = 0;
+    }
+    
+    // column accessors
+    public int size() { return size; }
+    public CategoryDictionary getCategories() { return categories; }
+    public int[] getProductIds() { return productIds; }
+    public String[] getNames() { return names; }
+    public double[] getPrices() { return prices; }
+    public int[] getCategoryCodes() { return categoryCodes; }
+    public byte[] getPriceRangeCodes() { return priceRangeCodes; }
+    
+    /**
+     * gets the category string for a row.
+     * 
+     * @param row the row index
+     * @return the category
+     */
+    public String getCategory(int row) {
+        return categories.get(categoryCodes[row]);
+    }
+    
+    /**
+     * gets the price range label for a row.
+     * 
+     * @param row the row index
+     * @return the price range label, or an empty string before transformation
+     */
+    public String getPriceRange(int row) {
+        byte code = priceRangeCodes[row];
+        return code == NO_PRICE_RANGE ? "" : PriceRange.fromCode(code).getLabel();
+    }
+    
+    /**
+     * returns CSV representation of a row, in the same layout as
+     * {@link Product#toCSV()}.
+     * 
+     * @param row the row index
+     * @return CSV string of the row
+     */
+    public String toCSV(int row) {
+        StringBuilder sb = new StringBuilder(64);
+        sb.append(productIds[row]).append(',').append(names[row]).append(',');
+        CSVRowEncoder.appendPrice(sb, prices[row]);
+        return sb.append(',').append(getCategory(row)).append(',').append(getPriceRange(row)).toString();
+    }
+    
+    /**
+     * doubles the capacity of every column.
+     */
+    private void grow() {
+        int capacity = productIds.length * 2;
+        productIds = Arrays.copyOf(productIds, capacity);
+        names = Arrays.copyOf(names, capacity);
+        prices = Arrays.copyOf(prices, capacity);
+        categoryCodes = Arrays.copyOf(categoryCodes, capacity);
+        priceRangeCodes = Arrays.copyOf(priceRangeCodes, capacity);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,254 @@
+package org.howard.edu.lsp.assignment3;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.*;
+
+/**
+ * drops products whose ProductID has already been seen, keeping one row per
+ * ID according to a policy. the winning row keeps its own position in the
+ * input, so the output is the input with the losing duplicates removed.
+ * 
+ * FIRST_WINS needs a single pass that only remembers which IDs were seen.
+ * LAST_WINS and MAX_PRICE first scan the input to find the winning row of
+ * every ID and then read it again, emitting only the winners, so no
+ * products are held in memory between the passes; only an int index per
+ * distinct ID is. IDs are tracked in an {@link IntIntHashMap}, and IDs below
+ * the dense limit in flat arrays instead: a bitset for FIRST_WINS and an int
+ * per ID otherwise, which is smaller than the hash map when IDs are dense.
+ * duplicates are decided on the extracted rows, before any transformation.
+ */
+public class ProductDeduplicator {
+    /**
+     * which row is kept when a ProductID repeats.
+     */
+    public enum Policy {
+        /** keep the first row with the ID. */
+        FIRST_WINS,
+        /** keep the last row with the ID. */
+        LAST_WINS,
+        /** keep the row with the highest price; ties keep the first. */
+        MAX_PRICE
+    }
+    
+    private static final int EXPECTED_IDS = 1 << 12;
+    
+    private Policy policy;
+    private int denseLimit;
+    private int rows;
+    private int duplicates;
+    
+    // ID to ordinal, where the ordinal numbers distinct IDs in order of first appearance
+    private IntIntHashMap ordinals;
+    private int[] denseOrdinals;
+    private BitSet denseSeen;
+    private int distinct;
+    private int[] winnerRows;
+    private double[] winnerPrices;
+    
+    /**
+     * source of rows that can be read more than once.
+     */
+    private interface RowSource {
+        void forEach(CSVExtractor.ProductHandler handler) throws IOException;
+    }
+    
+    /**
+     * constructs a ProductDeduplicator.
+     * 
+     * @param policy which row to keep for a repeated ID
+     */
+    public ProductDeduplicator(Policy policy) {
+        this.policy = policy;
+    }
+    
+    /**
+     * tracks IDs from 0 up to a limit in flat arrays instead of the hash map.
+     * suits inputs whose IDs are mostly below the limit with few gaps.
+     * 
+     * @param denseLimit the exclusive upper bound of dense IDs, 0 for none
+     */
+    public void setDenseLimit(int denseLimit) {
+        this.denseLimit = Math.max(0, denseLimit);
+    }
+    
+    /**
+     * gets the number of rows read by the last run.
+     * 
+     * @return the row count
+     */
+    public int getRows() {
+        return rows;
+    }
+    
+    /**
+     * gets the number of rows dropped as duplicates by the last run.
+     * 
+     * @return the duplicate count
+     */
+    public int getDuplicates() {
+        return duplicates;
+    }
+    
+    /**
+     * streams the products of a file, passing only the winning row of each
+     * ProductID to the handler. policies other than FIRST_WINS read the
+     * file twice; warnings for skipped rows are printed only once.
+     * 
+     * @param extractor the extractor reading the input
+     * @param handler the handler receiving each kept product
+     * @return the number of products passed to the handler
+     * @throws IOException if file cannot be read or the handler fails
+     */
+    public int stream(CSVExtractor extractor, CSVExtractor.ProductHandler handler) throws IOException {
+        if (policy == Policy.FIRST_WINS) {
+            return run(extractor::stream, null, handler);
+        }
+        CSVExtractor second = extractor.rescan();
+        return run(extractor::stream, second::stream, handler);
+    }
+    
+    /**
+     * removes duplicates from a list of products.
+     * 
+     * @param products the products in input order
+     * @return the kept products in input order
+     */
+    public List<Product> deduplicate(List<Product> products) {
+        List<Product> kept = new ArrayList<>();
+        RowSource source = handler -> {
+            for (Product product : products) {
+                handler.handle(product);
+            }
+        };
+        try {
+            run(source, policy == Policy.FIRST_WINS ? null : source, kept::add);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e); // ArrayList.add does not throw
+        }
+        return kept;
+    }
+    
+    /**
+     * runs the first pass, and the second pass when the policy needs one.
+     */
+    private int run(RowSource first, RowSource second, CSVExtractor.ProductHandler handler) throws IOException {
+        reset();
+        int[] kept = new int[1];
+        
+        if (second == null) {
+            first.forEach(product -> {
+                rows++;
+                if (addSeen(product.getProductId())) {
+                    handler.handle(product);
+                    kept[0]++;
+                } else {
+                    duplicates++;
+                }
+            });
+            return kept[0];
+        }
+        
+        first.forEach(product -> pickWinner(product, rows++));
+        
+        int[] row = new int[1];
+        second.forEach(product -> {
+            int ordinal = ordinalOf(product.getProductId(), false);
+            if (ordinal >= 0 && winnerRows[ordinal] == row[0]) {
+                handler.handle(product);
+                kept[0]++;
+            }
+            row[0]++;
+        });
+        if (row[0] != rows) {
+            throw new IOException("Input changed between deduplication passes.");
+        }
+        return kept[0];
+    }
+    
+    /**
+     * records a row of the first pass as the winner of its ID if the policy
+     * prefers it.
+     */
+    private void pickWinner(Product product, int row) {
+        int before = distinct;
+        int ordinal = ordinalOf(product.getProductId(), true);
+        if (ordinal != before) {
+            duplicates++;
+            if (policy == Policy.MAX_PRICE && !(product.getPrice() > winnerPrices[ordinal])) return;
+        }
+        
+        winnerRows[ordinal] = row;
+        if (winnerPrices != null) {
+            winnerPrices[ordinal] = product.getPrice();
+        }
+    }
+    
+    /**
+     * marks an ID as seen.
+     * 
+     * @return true if the ID had not been seen before
+     */
+    private boolean addSeen(int id) {
+        if (id >= 0 && id < denseLimit) {
+            if (denseSeen.get(id)) return false;
+            
+            denseSeen.set(id);
+            return true;
+        }
+        if (ordinals.get(id, -1) >= 0) return false;
+        
+        ordinals.put(id, 0);
+        return true;
+    }
+    
+    /**
+     * finds the ordinal of an ID, optionally assigning the next one.
+     * 
+     * @return the ordinal, or -1 if the ID is absent and add is false
+     */
+    private int ordinalOf(int id, boolean add) {
+        int ordinal;
+        if (id >= 0 && id < denseLimit) {
+            // stored plus one, so 0 means absent
+            ordinal = id < denseOrdinals.length ? denseOrdinals[id] - 1 : -1;
+            if (ordinal < 0 && add) {
+                if (id >= denseOrdinals.length) {
+                    denseOrdinals = Arrays.copyOf(denseOrdinals,
+                        (int) Math.min(denseLimit, Math.max(id + 1L, 2L * denseOrdinals.length)));
+                }
+                ordinal = newOrdinal();
+                denseOrdinals[id] = ordinal + 1;
+            }
+            return ordinal;
+        }
+        
+        ordinal = ordinals.get(id, -1);
+        if (ordinal < 0 && add) {
+            ordinal = newOrdinal();
+            ordinals.put(id, ordinal);
+        }
+        return ordinal;
+    }
+    
+    private int newOrdinal() {
+        if (distinct == winnerRows.length) {
+            winnerRows = Arrays.copyOf(winnerRows, distinct * 2);
+            if (winnerPrices != null) {
+                winnerPrices = Arrays.copyOf(winnerPrices, distinct * 2);
+            }
+        }
+        return distinct++;
+    }
+    
+    private void reset() {
+        rows = 0;
+        duplicates = 0;
+        distinct = 0;
+        ordinals = new IntIntHashMap(EXPECTED_IDS);
+        denseOrdinals = new int[Math.min(denseLimit, EXPECTED_IDS)];
+        denseSeen = new BitSet();
+        winnerRows = new int[EXPECTED_IDS];
+        winnerPrices = policy == Policy.MAX_PRICE ? new double[EXPECTED_IDS] : null;
+    }
+}
\ No newline at end of file
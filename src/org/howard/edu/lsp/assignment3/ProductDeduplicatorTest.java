@@ -0,0 +1,92 @@
+package org.howard.edu.lsp.assignment3;
+
+import static org.junit.Assert.*;
+
+import java.util.*;
+
+import org.junit.Test;
+
+/**
+ * tests for {@link ProductDeduplicator} and {@link IntIntHashMap}.
+ */
+public class ProductDeduplicatorTest {
+    
+    private static List<Product> products() {
+        return Arrays.asList(
+            new Product(3, "first 3", 10.00, "Kitchen"),
+            new Product(0, "first 0", 5.00, "Books"),
+            new Product(3, "second 3", 30.00, "Kitchen"),
+            new Product(-7, "first -7", 1.00, "Toys"),
+            new Product(3, "third 3", 20.00, "Kitchen"),
+            new Product(0, "second 0", 5.00, "Books"));
+    }
+    
+    private static List<String> names(List<Product> products) {
+        List<String> names = new ArrayList<>();
+        for (Product product : products) {
+            names.add(product.getName());
+        }
+        return names;
+    }
+    
+    @Test
+    public void testPoliciesKeepWinnerInItsPosition() {
+        for (int denseLimit : new int[] {0, 100}) {
+            ProductDeduplicator first = new ProductDeduplicator(ProductDeduplicator.Policy.FIRST_WINS);
+            first.setDenseLimit(denseLimit);
+            assertEquals(Arrays.asList("first 3", "first 0", "first -7"), names(first.deduplicate(products())));
+            assertEquals(3, first.getDuplicates());
+            
+            ProductDeduplicator last = new ProductDeduplicator(ProductDeduplicator.Policy.LAST_WINS);
+            last.setDenseLimit(denseLimit);
+            assertEquals(Arrays.asList("first -7", "third 3", "second 0"), names(last.deduplicate(products())));
+            
+            // equal prices keep the first row
+            ProductDeduplicator max = new ProductDeduplicator(ProductDeduplicator.Policy.MAX_PRICE);
+            max.setDenseLimit(denseLimit);
+            assertEquals(Arrays.asList("first 0", "second 3", "first -7"), names(max.deduplicate(products())));
+            assertEquals(6, max.getRows());
+        }
+    }
+    
+    @Test
+    public void testManyIdsMatchHashMap() {
+        Random random = new Random(11);
+        List<Product> products = new ArrayList<>();
+        for (int i = 0; i < 50000; i++) {
+            int id = i % 3 == 0 ? random.nextInt(20000) : random.nextInt();
+            products.add(new Product(id, "p" + i, random.nextInt(1000), "Books"));
+        }
+        
+        Map<Integer, Product> expected = new LinkedHashMap<>();
+        for (Product product : products) {
+            expected.put(product.getProductId(), product);
+        }
+        Set<Product> winners = new HashSet<>(expected.values());
+        List<Product> lastWins = new ArrayList<>();
+        for (Product product : products) {
+            if (winners.contains(product)) {
+                lastWins.add(product);
+            }
+        }
+        
+        ProductDeduplicator deduplicator = new ProductDeduplicator(ProductDeduplicator.Policy.LAST_WINS);
+        deduplicator.setDenseLimit(10000);
+        assertEquals(lastWins, deduplicator.deduplicate(products));
+    }
+    
+    @Test
+    public void testIntIntHashMap() {
+        IntIntHashMap map = new IntIntHashMap(0);
+        assertEquals(-1, map.get(0, -1));
+        for (int key = -5000; key <= 5000; key++) {
+            map.put(key * 31, key);
+        }
+        map.put(0, 42);
+        assertEquals(10001, map.size());
+        assertEquals(42, map.get(0, -1));
+        assertEquals(5000, map.get(5000 * 31, -1));
+        assertEquals(-5000, map.get(-5000 * 31, -1));
+        assertEquals(-1, map.get(1, -1));
+    }
+}
\ No newline at end of file
@@ -1,12 +1,54 @@
 package org.howard.edu.lsp.assignment3;
 
-import java.util.List;
+import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
 
 /**
  * handles transformation of product data according to business rules.
  * encapsulates transformation logic in a dedicated class.
  */
 public class ProductTransformer {
+    private static final int DEFAULT_CHUNK_SIZE = 4096;
+    
+    private TransformRules rules;
+    private int chunkSize = DEFAULT_CHUNK_SIZE;
+    
+    /**
+     * constructs a ProductTransformer that applies the built-in rules.
+     */
+    public ProductTransformer() {
+        this(null);
+    }
+    
+    /**
+     * constructs a ProductTransformer that applies configured rules instead
+     * of the built-in ones.
+     * 
+     * @param rules the compiled rules, or null for the built-in rules
+     */
+    public ProductTransformer(TransformRules rules) {
+        this.rules = rules;
+    }
+    
+    /**
+     * gets the configured rules.
+     * 
+     * @return the compiled rules, or null when the built-in rules are used
+     */
+    public TransformRules getRules() {
+        return rules;
+    }
+    
+    /**
+     * sets how many rows each parallel task transforms. the default of 4096
+     * keeps a batch chunk's columns in cache while every rule runs over it.
+     * 
+     * @param chunkSize the number of rows per task
+     */
+    public void setChunkSize(int chunkSize) {
+        this.chunkSize = Math.max(1, chunkSize);
+    }
     
     /**
      * applies all required transformations to a list of products.
@@ -16,17 +58,175 @@ public class ProductTransformer {
      */
     public void transform(List<Product> products) {
         for (Product product : products) {
-            // 1. uppercase product names
-            product.uppercaseName();
-            
-            // 2. apply discount to Electronics
-            product.applyElectronicsDiscount();
-            
-            // 3. recategorize Premium Electronics
-            product.upgradeToPremium();
-            
-            // 4. calculate price range
-            product.calculatePriceRange();
+            transform(product);
+        }
+    }
+    
+    /**
+     * applies all required transformations to a single product.
+     * 
+     * @param product the product to transform
+     */
+    public void transform(Product product) {
+        if (rules != null) {
+            rules.apply(product);
+            return;
+        }
+        
+        // 1. uppercase product names
+        product.uppercaseName();
+        
+        // 2. apply discount to Electronics
+        product.applyElectronicsDiscount();
+        
+        // 3. recategorize Premium Electronics
+        product.upgradeToPremium();
+        
+        // 4. calculate price range
+        product.calculatePriceRange();
+    }
+    
+    /**
+     * applies all required transformations to a columnar batch.
+     * each step runs as its own loop over the batch columns, in the same
+     * order as the per-product transformation. the Electronics check is
+     * resolved once per dictionary entry, leaving a table lookup per row.
+     * 
+     * @param batch the batch to transform
+     */
+    public void transform(ProductBatch batch) {
+        if (rules != null) {
+            rules.apply(batch);
+            return;
+        }
+        transformRange(batch, 0, batch.size(), electronicsTable(batch));
+    }
+    
+    /**
+     * applies all required transformations to a list of products, splitting
+     * the list into chunks that are transformed concurrently on the pool.
+     * every product is transformed on its own, so the results are the same
+     * as {@link #transform(List)}.
+     * 
+     * @param products the list of products to transform
+     * @param pool the pool to run on, such as ForkJoinPool.commonPool()
+     */
+    public void transformParallel(List<Product> products, ForkJoinPool pool) {
+        List<Product> rows = products instanceof RandomAccess ? products : new ArrayList<>(products);
+        pool.invoke(new ChunkTask(0, rows.size(), (from, to) -> {
+            for (int i = from; i < to; i++) {
+                transform(rows.get(i));
+            }
+        }));
+    }
+    
+    /**
+     * applies all required transformations to a columnar batch, splitting
+     * the rows into chunks that are transformed concurrently on the pool.
+     * the results are the same as {@link #transform(ProductBatch)}.
+     * 
+     * @param batch the batch to transform
+     * @param pool the pool to run on, such as ForkJoinPool.commonPool()
+     */
+    public void transformParallel(ProductBatch batch, ForkJoinPool pool) {
+        boolean[] electronics = rules == null ? electronicsTable(batch) : null;
+        pool.invoke(new ChunkTask(0, batch.size(), (from, to) -> {
+            if (rules != null) {
+                rules.apply(batch, from, to);
+            } else {
+                transformRange(batch, from, to, electronics);
+            }
+        }));
+    }
+    
+    /**
+     * transforms one range of rows of a columnar batch with the built-in
+     * rules. each step runs as its own loop over the range, in the same order
+     * as the per-product transformation.
+     * 
+     * @param batch the batch to transform
+     * @param from the first row to transform
+     * @param to the row after the last row to transform
+     * @param electronics whether each category code is Electronics
+     */
+    private void transformRange(ProductBatch batch, int from, int to, boolean[] electronics) {
+        String[] names = batch.getNames();
+        double[] prices = batch.getPrices();
+        int[] categoryCodes = batch.getCategoryCodes();
+        byte[] priceRangeCodes = batch.getPriceRangeCodes();
+        
+        // 1. uppercase product names
+        for (int i = from; i < to; i++) {
+            names[i] = names[i].toUpperCase();
+        }
+        
+        // 2. apply discount to Electronics
+        for (int i = from; i < to; i++) {
+            if (electronics[categoryCodes[i]]) {
+                prices[i] = Product.roundPrice(prices[i] * 0.9);
+            }
+        }
+        
+        // 3. recategorize Premium Electronics
+        for (int i = from; i < to; i++) {
+            if (electronics[categoryCodes[i]] && prices[i] > 500.00) {
+                categoryCodes[i] = CategoryDictionary.PREMIUM_ELECTRONICS;
+            }
+        }
+        
+        // 4. calculate price range
+        for (int i = from; i < to; i++) {
+            priceRangeCodes[i] = (byte) PriceRange.of(prices[i]).ordinal();
+        }
+    }
+    
+    /**
+     * resolves the Electronics check once per dictionary entry.
+     * 
+     * @param batch the batch whose dictionary to read
+     * @return whether each category code is Electronics
+     */
+    private static boolean[] electronicsTable(ProductBatch batch) {
+        CategoryDictionary categories = batch.getCategories();
+        boolean[] electronics = new boolean[categories.size()];
+        for (int code = 0; code < electronics.length; code++) {
+            electronics[code] = categories.foldedCode(code) == CategoryDictionary.ELECTRONICS;
+        }
+        return electronics;
+    }
+    
+    /**
+     * transforms one range of rows.
+     */
+    private interface RangeAction {
+        void run(int from, int to);
+    }
+    
+    /**
+     * splits a row range in half until it is no larger than the chunk size,
+     * then runs the action on it.
+     */
+    private class ChunkTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+        
+        private final int from;
+        private final int to;
+        private final RangeAction action;
+        
+        ChunkTask(int from, int to, RangeAction action) {
+            this.from = from;
+            this.to = to;
+            this.action = action;
+        }
+        
+        @Override
+        protected void compute() {
+            if (to - from <= chunkSize) {
+                action.run(from, to);
+                return;
+            }
+            int middle = (from + to) >>> 1;
+            invokeAll(new ChunkTask(from, middle, action), new ChunkTask(middle, to, action));
         }
     }
     
@@ -0,0 +1,447 @@
+package org.howard.edu.lsp.assignment3;
+
+import java.io.*;
+import java.util.*;
+
+/**
+ * a compiled chain of product transformation rules loaded from a config file.
+ * 
+ * each non-blank line that does not start with # declares one rule, applied
+ * in file order:
+ * <pre>
+ * uppercase name
+ * discount 10 when category = Electronics
+ * recategorize Premium Electronics when category = Electronics and price &gt; 500.00
+ * pricerange 10.00 Low, 100.00 Medium, 500.00 High, * Premium
+ * </pre>
+ * discount and recategorize rules take an optional "when" clause of
+ * conditions joined by "and": category = NAME (ignoring case),
+ * price &gt;, &gt;=, &lt; or &lt;= VALUE, and id between LOW HIGH, where
+ * LOW and HIGH are whole numbers with LOW &lt;= HIGH. numbers must be
+ * finite. a clause names at most one category; use one rule per category
+ * instead.
+ * pricerange thresholds are inclusive upper bounds in increasing order,
+ * the last bucket uses * in place of a threshold, and labels must be Low,
+ * Medium, High or Premium.
+ * 
+ * category conditions are resolved when the rules are compiled: for every
+ * category a skip table lists which rules can apply, so each product runs
+ * in a single pass that never visits rules for other categories.
+ */
+public class TransformRules {
+    private static final String[] DEFAULT_RULES = {
+        "uppercase name",
+        "discount 10 when category = Electronics",
+        "recategorize Premium Electronics when category = Electronics and price > 500.00",
+        "pricerange 10.00 Low, 100.00 Medium, 500.00 High, * Premium"
+    };
+    
+    private static final int UPPERCASE = 0;
+    private static final int DISCOUNT = 1;
+    private static final int RECATEGORIZE = 2;
+    private static final int PRICE_RANGE = 3;
+    
+    /**
+     * a single compiled rule.
+     */
+    private static class Step {
+        int kind;
+        int category = -1;
+        double minPrice = Double.NEGATIVE_INFINITY;
+        boolean minInclusive = true;
+        double maxPrice = Double.POSITIVE_INFINITY;
+        boolean maxInclusive = true;
+        int minId = Integer.MIN_VALUE;
+        int maxId = Integer.MAX_VALUE;
+        double percent;
+        int target;
+        double[] limits;
+        PriceRange[] ranges;
+        boolean limited;
+        
+        boolean matches(int productId, double price) {
+            return !limited || productId >= minId && productId <= maxId
+                && (minInclusive ? price >= minPrice : price > minPrice)
+                && (maxInclusive ? price <= maxPrice : price < maxPrice);
+        }
+    }
+    
+    private CategoryDictionary categories;
+    private Step[] steps;
+    private String source;
+    private volatile int[][] skipTables = new int[0][];
+    
+    /**
+     * constructs compiled rules over the shared category dictionary.
+     * 
+     * @param steps the parsed rules in order
+     * @param source the rule lines the steps were parsed from
+     */
+    private TransformRules(Step[] steps, String source) {
+        this.categories = CategoryDictionary.shared();
+        this.steps = steps;
+        this.source = source;
+    }
+    
+    /**
+     * gets the built-in rules: uppercase, Electronics discount, premium
+     * upgrade and price range, matching {@link ProductTransformer}.
+     * 
+     * @return the default rules
+     */
+    public static TransformRules defaults() {
+        try {
+            return parse(Arrays.asList(DEFAULT_RULES));
+        } catch (IOException e) {
+            throw new IllegalStateException("Invalid default rules", e);
+        }
+    }
+    
+    /**
+     * loads and compiles rules from a config file.
+     * 
+     * @param path the path to the rules file
+     * @return the compiled rules
+     * @throws IOException if the file cannot be read or holds an invalid rule
+     */
+    public static TransformRules load(String path) throws IOException {
+        File file = new File(path);
+        if (!file.exists()) {
+            throw new IOException("Rules file '" + path + "' not found.");
+        }
+        
+        List<String> lines = new ArrayList<>();
+        try (BufferedReader reader = new BufferedReader(new FileReader(file))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                lines.add(line);
+            }
+        }
+        return parse(lines);
+    }
+    
+    /**
+     * compiles rules from config lines.
+     * 
+     * @param lines the rule lines
+     * @return the compiled rules
+     * @throws IOException if a line holds an invalid rule
+     */
+    public static TransformRules parse(List<String> lines) throws IOException {
+        List<Step> steps = new ArrayList<>();
+        StringJoiner source = new StringJoiner("\n");
+        for (int i = 0; i < lines.size(); i++) {
+            String line = lines.get(i).trim();
+            if (line.isEmpty() || line.startsWith("#")) continue;
+            
+            try {
+                steps.add(parseRule(line));
+                source.add(line);
+            } catch (IllegalArgumentException e) {
+                throw new IOException("Invalid rule on line " + (i + 1) + ": " + e.getMessage());
+            }
+        }
+        return new TransformRules(steps.toArray(new Step[0]), source.toString());
+    }
+    
+    /**
+     * applies every rule to a product in one pass.
+     * 
+     * @param product the product to transform
+     */
+    public void apply(Product product) {
+        int code = product.getCategoryCode();
+        int[] skip = skipTable(code);
+        for (int i = skip[0]; i < steps.length; i = skip[i + 1]) {
+            Step step = steps[i];
+            if (!step.matches(product.getProductId(), product.getPrice())) continue;
+            
+            switch (step.kind) {
+                case UPPERCASE:
+                    product.uppercaseName();
+                    break;
+                case DISCOUNT:
+                    product.applyDiscount(step.percent);
+                    break;
+                case RECATEGORIZE:
+                    product.setCategoryCode(step.target);
+                    skip = skipTable(step.target);
+                    break;
+                default:
+                    product.setPriceRange(priceRange(step, product.getPrice()).getLabel());
+                    break;
+            }
+        }
+    }
+    
+    /**
+     * applies every rule to each row of a batch, one row at a time.
+     * 
+     * @param batch the batch to transform; it must use the shared dictionary
+     */
+    public void apply(ProductBatch batch) {
+        apply(batch, 0, batch.size());
+    }
+    
+    /**
+     * applies every rule to a range of rows of a batch, one row at a time.
+     * 
+     * @param batch the batch to transform; it must use the shared dictionary
+     * @param from the first row to transform
+     * @param to the row after the last row to transform
+     */
+    public void apply(ProductBatch batch, int from, int to) {
+        if (batch.getCategories() != categories) {
+            throw new IllegalArgumentException("Batch must use the shared category dictionary");
+        }
+        
+        int[] productIds = batch.getProductIds();
+        String[] names = batch.getNames();
+        double[] prices = batch.getPrices();
+        int[] categoryCodes = batch.getCategoryCodes();
+        byte[] priceRangeCodes = batch.getPriceRangeCodes();
+        
+        for (int row = from; row < to; row++) {
+            int[] skip = skipTable(categoryCodes[row]);
+            for (int i = skip[0]; i < steps.length; i = skip[i + 1]) {
+                Step step = steps[i];
+                if (!step.matches(productIds[row], prices[row])) continue;
+                
+                switch (step.kind) {
+                    case UPPERCASE:
+                        names[row] = names[row].toUpperCase();
+                        break;
+                    case DISCOUNT:
+                        prices[row] = Product.roundPrice(prices[row] * discountFactor(step.percent));
+                        break;
+                    case RECATEGORIZE:
+                        categoryCodes[row] = step.target;
+                        skip = skipTable(step.target);
+                        break;
+                    default:
+                        priceRangeCodes[row] = (byte) priceRange(step, prices[row]).ordinal();
+                        break;
+                }
+            }
+        }
+    }
+    
+    /**
+     * returns the active rule lines, one per line, without blank lines or
+     * comments. two rule sets with the same text transform products the same way.
+     * 
+     * @return the rule text
+     */
+    @Override
+    public String toString() {
+        return source;
+    }
+    
+    /**
+     * gets the multiplier for a percentage discount. a 10% discount gives
+     * 0.9, the same factor the hard-coded Electronics discount used.
+     * 
+     * @param percent the discount percentage
+     * @return the price multiplier
+     */
+    static double discountFactor(double percent) {
+        return (100 - percent) / 100;
+    }
+    
+    /**
+     * finds the price range bucket of a pricerange rule for a price.
+     */
+    private static PriceRange priceRange(Step step, double price) {
+        for (int i = 0; i < step.limits.length; i++) {
+            if (price <= step.limits[i]) {
+                return step.ranges[i];
+            }
+        }
+        return step.ranges[step.ranges.length - 1];
+    }
+    
+    /**
+     * gets the skip table for a category code. entry i is the first rule at
+     * or after rule i that can apply to the category, with steps.length
+     * meaning none. tables are built on first use
+     * and published by replacing the whole array, so concurrent callers at
+     * worst build the same table twice.
+     * 
+     * @param code the category code
+     * @return the skip table
+     */
+    private int[] skipTable(int code) {
+        int[][] tables = skipTables;
+        if (code < tables.length && tables[code] != null) {
+            return tables[code];
+        }
+        
+        int folded = categories.foldedCode(code);
+        int[] skip = new int[steps.length + 1];
+        skip[steps.length] = steps.length;
+        for (int i = steps.length - 1; i >= 0; i--) {
+            int category = steps[i].category;
+            skip[i] = (category == -1 || category == folded) ? i : skip[i + 1];
+        }
+        
+        // concurrent callers may drop each other's entries; they are rebuilt on demand
+        int[][] updated = Arrays.copyOf(tables, Math.max(tables.length, code + 1));
+        updated[code] = skip;
+        skipTables = updated;
+        return skip;
+    }
+    
+    /**
+     * parses one rule line.
+     */
+    private static Step parseRule(String line) {
+        String lower = line.toLowerCase(Locale.ROOT);
+        int when = lower.indexOf(" when ");
+        String action = when < 0 ? line : line.substring(0, when).trim();
+        String[] words = action.split("\\s+", 2);
+        
+        Step step = new Step();
+        switch (words[0].toLowerCase(Locale.ROOT)) {
+            case "uppercase":
+                if (words.length < 2 || !"name".equalsIgnoreCase(words[1])) {
+                    throw new IllegalArgumentException("expected 'uppercase name'");
+                }
+                step.kind = UPPERCASE;
+                break;
+            case "discount":
+                step.kind = DISCOUNT;
+                step.percent = parseNumber(words.length < 2 ? "" : words[1]);
+                if (step.percent < 0 || step.percent > 100) {
+                    throw new IllegalArgumentException("discount must be between 0 and 100");
+                }
+                break;
+            case "recategorize":
+                if (words.length < 2) {
+                    throw new IllegalArgumentException("missing target category");
+                }
+                step.kind = RECATEGORIZE;
+                step.target = CategoryDictionary.shared().intern(words[1].trim());
+                break;
+            case "pricerange":
+                step.kind = PRICE_RANGE;
+                parsePriceRanges(step, words.length < 2 ? "" : words[1]);
+                break;
+            default:
+                throw new IllegalArgumentException("unknown rule '" + words[0] + "'");
+        }
+        
+        if (when >= 0) {
+            if (step.kind == UPPERCASE || step.kind == PRICE_RANGE) {
+                throw new IllegalArgumentException(words[0] + " rules do not take conditions");
+            }
+            for (String condition : line.substring(when + 6).split("(?i)\\s+and\\s+")) {
+                parseCondition(step, condition.trim());
+            }
+        }
+        return step;
+    }
+    
+    /**
+     * parses one condition of a when clause into the step.
+     */
+    private static void parseCondition(Step step, String condition) {
+        String[] words = condition.split("\\s+");
+        String field = words[0].toLowerCase(Locale.ROOT);
+        
+        if (field.equals("category") && words.length >= 3 && words[1].equals("=")) {
+            if (step.category != -1) {
+                throw new IllegalArgumentException("only one category condition is allowed per rule");
+            }
+            String name = condition.substring(condition.indexOf('=') + 1).trim();
+            CategoryDictionary categories = CategoryDictionary.shared();
+            step.category = categories.foldedCode(categories.intern(name));
+        } else if (field.equals("price") && words.length == 3) {
+            step.limited = true;
+            double value = parseNumber(words[2]);
+            switch (words[1]) {
+                case ">":
+                    step.minPrice = value;
+                    step.minInclusive = false;
+                    break;
+                case ">=":
+                    step.minPrice = value;
+                    break;
+                case "<":
+                    step.maxPrice = value;
+                    step.maxInclusive = false;
+                    break;
+                case "<=":
+                    step.maxPrice = value;
+                    break;
+                default:
+                    throw new IllegalArgumentException("unknown operator '" + words[1] + "'");
+            }
+        } else if (field.equals("id") && words.length == 4 && words[1].equalsIgnoreCase("between")) {
+            step.limited = true;
+            step.minId = parseId(words[2]);
+            step.maxId = parseId(words[3]);
+            if (step.minId > step.maxId) {
+                throw new IllegalArgumentException("id range must not be empty");
+            }
+        } else {
+            throw new IllegalArgumentException("unknown condition '" + condition + "'");
+        }
+    }
+    
+    /**
+     * parses the bucket list of a pricerange rule into the step.
+     */
+    private static void parsePriceRanges(Step step, String text) {
+        String[] buckets = text.split(",");
+        step.limits = new double[buckets.length - 1];
+        step.ranges = new PriceRange[buckets.length];
+        
+        for (int i = 0; i < buckets.length; i++) {
+            String[] parts = buckets[i].trim().split("\\s+");
+            if (parts.length != 2) {
+                throw new IllegalArgumentException("expected 'LIMIT LABEL' in '" + buckets[i].trim() + "'");
+            }
+            boolean last = i == buckets.length - 1;
+            if (last != parts[0].equals("*")) {
+                throw new IllegalArgumentException("only the last price range uses '*'");
+            }
+            if (!last) {
+                step.limits[i] = parseNumber(parts[0]);
+                if (i > 0 && !(step.limits[i] > step.limits[i - 1])) {
+                    throw new IllegalArgumentException("price range limits must increase");
+                }
+            }
+            step.ranges[i] = parseLabel(parts[1]);
+        }
+    }
+    
+    private static PriceRange parseLabel(String label) {
+        for (PriceRange range : PriceRange.values()) {
+            if (range.getLabel().equalsIgnoreCase(label)) {
+                return range;
+            }
+        }
+        throw new IllegalArgumentException("unknown price range '" + label + "'");
+    }
+    
+    private static double parseNumber(String text) {
+        double value;
+        try {
+            value = Double.parseDouble(text);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("invalid number '" + text + "'");
+        }
+        if (!Double.isFinite(value)) {
+            throw new IllegalArgumentException("invalid number '" + text + "'");
+        }
+        return value;
+    }
+    
+    private static int parseId(String text) {
+        double value = parseNumber(text);
+        if (value != Math.rint(value) || value < Integer.MIN_VALUE || value > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("id must be a whole number in the int range, not '" + text + "'");
+        }
+        return (int) value;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,221 @@
+package org.howard.edu.lsp.assignment3;
+
+import static org.junit.Assert.*;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Test;
+
+/**
+ * tests for {@link TransformRules}.
+ */
+public class TransformRulesTest {
+    
+    private static TransformRules rules(String... lines) throws IOException {
+        return TransformRules.parse(Arrays.asList(lines));
+    }
+    
+    private static Product transform(TransformRules rules, int id, String name, double price, String category) {
+        Product product = new Product(id, name, price, category);
+        rules.apply(product);
+        return product;
+    }
+    
+    /**
+     * checks that a rule line is rejected and that the error names its line.
+     */
+    private static void assertRejected(String line, String reason) {
+        try {
+            rules("# comment", line);
+            fail("expected '" + line + "' to be rejected");
+        } catch (IOException e) {
+            assertTrue(e.getMessage(), e.getMessage().startsWith("Invalid rule on line 2: "));
+            assertTrue(e.getMessage(), e.getMessage().contains(reason));
+        }
+    }
+    
+    @Test
+    public void testUppercase() throws IOException {
+        TransformRules rules = rules("uppercase name");
+        Product product = transform(rules, 1, "Mug", 8.00, "Kitchen");
+        assertEquals("MUG", product.getName());
+        assertEquals(8.00, product.getPrice(), 0.0);
+        assertEquals("Kitchen", product.getCategory());
+    }
+    
+    @Test
+    public void testDiscountOnlyAppliesToItsCategory() throws IOException {
+        TransformRules rules = rules("discount 25 when category = electronics");
+        assertEquals(75.00, transform(rules, 1, "Cable", 100.00, "Electronics").getPrice(), 0.0);
+        assertEquals(75.00, transform(rules, 2, "Radio", 100.00, "ELECTRONICS").getPrice(), 0.0);
+        assertEquals(100.00, transform(rules, 3, "Desk", 100.00, "Furniture").getPrice(), 0.0);
+        
+        TransformRules everything = rules("discount 10");
+        assertEquals(90.00, transform(everything, 4, "Desk", 100.00, "Furniture").getPrice(), 0.0);
+    }
+    
+    @Test
+    public void testRecategorizeFeedsLaterRules() throws IOException {
+        TransformRules rules = rules(
+            "recategorize Gadgets when category = Electronics and price > 500.00",
+            "discount 50 when category = Gadgets",
+            "discount 10 when category = Electronics");
+        
+        Product laptop = transform(rules, 1, "Laptop", 1000.00, "Electronics");
+        assertEquals("Gadgets", laptop.getCategory());
+        assertEquals(500.00, laptop.getPrice(), 0.0);
+        
+        // exactly 500 is not above the limit, so only the Electronics discount applies
+        Product tablet = transform(rules, 2, "Tablet", 500.00, "Electronics");
+        assertEquals("Electronics", tablet.getCategory());
+        assertEquals(450.00, tablet.getPrice(), 0.0);
+    }
+    
+    @Test
+    public void testPriceAndIdConditions() throws IOException {
+        TransformRules rules = rules("discount 10 when price >= 10 and price < 20 and id between 100 200");
+        assertEquals(9.00, transform(rules, 100, "A", 10.00, "Toys").getPrice(), 0.0);
+        assertEquals(17.99, transform(rules, 150, "B", 19.99, "Toys").getPrice(), 0.0);
+        assertEquals(17.99, transform(rules, 200, "C", 19.99, "Toys").getPrice(), 0.0);
+        assertEquals(20.00, transform(rules, 150, "D", 20.00, "Toys").getPrice(), 0.0);
+        assertEquals(9.99, transform(rules, 150, "E", 9.99, "Toys").getPrice(), 0.0);
+        assertEquals(15.00, transform(rules, 99, "F", 15.00, "Toys").getPrice(), 0.0);
+        assertEquals(15.00, transform(rules, 201, "G", 15.00, "Toys").getPrice(), 0.0);
+        
+        TransformRules bounds = rules("discount 50 when price > 10 and price <= 20");
+        assertEquals(10.00, transform(bounds, 1, "H", 10.00, "Toys").getPrice(), 0.0);
+        assertEquals(10.00, transform(bounds, 2, "I", 20.00, "Toys").getPrice(), 0.0);
+        assertEquals(20.01, transform(bounds, 3, "J", 20.01, "Toys").getPrice(), 0.0);
+    }
+    
+    @Test
+    public void testPriceRangeLimitsAreInclusive() throws IOException {
+        TransformRules rules = rules("pricerange 25.00 Low, 250.00 medium, 1000.00 HIGH, * Premium");
+        assertEquals("Low", transform(rules, 1, "A", 25.00, "Toys").getPriceRange());
+        assertEquals("Medium", transform(rules, 2, "B", 25.01, "Toys").getPriceRange());
+        assertEquals("Medium", transform(rules, 3, "C", 250.00, "Toys").getPriceRange());
+        assertEquals("High", transform(rules, 4, "D", 1000.00, "Toys").getPriceRange());
+        assertEquals("Premium", transform(rules, 5, "E", 1000.01, "Toys").getPriceRange());
+        
+        TransformRules single = rules("pricerange * High");
+        assertEquals("High", transform(single, 6, "F", 0.01, "Toys").getPriceRange());
+    }
+    
+    @Test
+    public void testDefaultsMatchProductTransformer() {
+        TransformRules rules = TransformRules.defaults();
+        List<Product> expected = new ArrayList<>();
+        List<Product> actual = new ArrayList<>();
+        Object[][] rows = {
+            {1, "Laptop", 999.99, "Electronics"}, {2, "Cable", 5.00, "electronics"},
+            {3, "Phone", 556.00, "Electronics"}, {4, "Desk", 150.00, "Furniture"},
+            {5, "Mug", 10.00, "Kitchen"}, {6, "Pen", 100.00, "Office"}
+        };
+        for (Object[] row : rows) {
+            expected.add(new Product((Integer) row[0], (String) row[1], (Double) row[2], (String) row[3]));
+            actual.add(new Product((Integer) row[0], (String) row[1], (Double) row[2], (String) row[3]));
+        }
+        new ProductTransformer().transform(expected);
+        for (int i = 0; i < rows.length; i++) {
+            rules.apply(actual.get(i));
+            assertEquals(expected.get(i).toCSV(), actual.get(i).toCSV());
+        }
+    }
+    
+    @Test
+    public void testBatchMatchesProducts() throws IOException {
+        TransformRules rules = rules(
+            "uppercase name",
+            "discount 10 when category = Electronics",
+            "recategorize Premium Electronics when category = Electronics and price > 500.00",
+            "pricerange 10.00 Low, 100.00 Medium, 500.00 High, * Premium");
+        ProductBatch batch = new ProductBatch();
+        List<Product> products = new ArrayList<>();
+        double[] prices = {5.00, 10.00, 99.99, 600.00, 2000.00};
+        for (int i = 0; i < prices.length; i++) {
+            String category = i % 2 == 0 ? "Electronics" : "Kitchen";
+            batch.add(i, "item" + i, prices[i], category);
+            products.add(transform(rules, i, "item" + i, prices[i], category));
+        }
+        rules.apply(batch);
+        for (int i = 0; i < prices.length; i++) {
+            assertEquals(products.get(i).toCSV(), batch.toCSV(i));
+        }
+    }
+    
+    @Test
+    public void testCommentsAndBlankLinesAreSkipped() throws IOException {
+        TransformRules rules = rules("# header", "", "  uppercase name  ", "   ", "# discount 10");
+        assertEquals("uppercase name", rules.toString());
+        assertEquals(20.00, transform(rules, 1, "Mug", 20.00, "Kitchen").getPrice(), 0.0);
+    }
+    
+    @Test
+    public void testMalformedRulesAreRejected() {
+        assertRejected("shout name", "unknown rule 'shout'");
+        assertRejected("uppercase title", "expected 'uppercase name'");
+        assertRejected("discount", "invalid number ''");
+        assertRejected("discount ten", "invalid number 'ten'");
+        assertRejected("discount 150", "discount must be between 0 and 100");
+        assertRejected("discount -5", "discount must be between 0 and 100");
+        assertRejected("recategorize", "missing target category");
+        assertRejected("uppercase name when category = Toys", "uppercase rules do not take conditions");
+        assertRejected("pricerange * Low when price > 5", "pricerange rules do not take conditions");
+        assertRejected("discount 10 when colour = red", "unknown condition 'colour = red'");
+        assertRejected("discount 10 when price == 5", "unknown operator '=='");
+        assertRejected("discount 10 when price > cheap", "invalid number 'cheap'");
+        assertRejected("discount 10 when id between 1", "unknown condition 'id between 1'");
+    }
+    
+    @Test
+    public void testSecondCategoryConditionIsRejected() {
+        assertRejected("discount 10 when category = Toys and category = Games",
+            "only one category condition is allowed per rule");
+        assertRejected("recategorize Fun when price > 5 and category = toys and category = TOYS",
+            "only one category condition is allowed per rule");
+    }
+    
+    @Test
+    public void testPriceRangeValidation() {
+        assertRejected("pricerange", "expected 'LIMIT LABEL' in ''");
+        assertRejected("pricerange 10.00 Low, 100.00 Medium", "only the last price range uses '*'");
+        assertRejected("pricerange * Low, 100.00 Medium", "only the last price range uses '*'");
+        assertRejected("pricerange 10.00 Low, * Medium, * High", "only the last price range uses '*'");
+        assertRejected("pricerange 10.00 Low, * Cheap", "unknown price range 'Cheap'");
+        assertRejected("pricerange 10.00, * High", "expected 'LIMIT LABEL' in '10.00'");
+        assertRejected("pricerange 100.00 Low, 10.00 Medium, * High", "price range limits must increase");
+        assertRejected("pricerange 10.00 Low, 10.00 Medium, * High", "price range limits must increase");
+        assertRejected("pricerange abc Low, * High", "invalid number 'abc'");
+        assertRejected("pricerange NaN Low, * High", "invalid number 'NaN'");
+        assertRejected("pricerange 10.00 Low, Infinity Medium, * High", "invalid number 'Infinity'");
+    }
+    
+    @Test
+    public void testNonFiniteNumbersAreRejected() {
+        assertRejected("discount NaN", "invalid number 'NaN'");
+        assertRejected("discount Infinity", "invalid number 'Infinity'");
+        assertRejected("discount 10 when price > NaN", "invalid number 'NaN'");
+        assertRejected("discount 10 when price <= -Infinity", "invalid number '-Infinity'");
+        assertRejected("discount 10 when id between NaN 5", "invalid number 'NaN'");
+    }
+    
+    @Test
+    public void testIdRangeValidation() throws IOException {
+        assertRejected("discount 10 when id between 1e12 5", "id must be a whole number in the int range, not '1e12'");
+        assertRejected("discount 10 when id between 1 2147483648", "not '2147483648'");
+        assertRejected("discount 10 when id between -2147483649 0", "not '-2147483649'");
+        assertRejected("discount 10 when id between 1.5 5", "not '1.5'");
+        assertRejected("discount 10 when id between 10 5", "id range must not be empty");
+        
+        TransformRules rules = rules("discount 50 when id between -2147483648 2147483647");
+        assertEquals(5.00, transform(rules, Integer.MIN_VALUE, "A", 10.00, "Toys").getPrice(), 0.0);
+        assertEquals(5.00, transform(rules, Integer.MAX_VALUE, "B", 10.00, "Toys").getPrice(), 0.0);
+        
+        TransformRules single = rules("discount 50 when id between 7 7.0");
+        assertEquals(5.00, transform(single, 7, "C", 10.00, "Toys").getPrice(), 0.0);
+        assertEquals(10.00, transform(single, 8, "D", 10.00, "Toys").getPrice(), 0.0);
+    }
+}
\ No newline at end of file
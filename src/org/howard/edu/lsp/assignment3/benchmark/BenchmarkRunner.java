@@ -0,0 +1,42 @@
+package org.howard.edu.lsp.assignment3.benchmark;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * runs {@link StageBenchmarks} once for 1-row inputs and once for 1M-row
+ * inputs, so fixed per-run costs and per-row throughput are reported in
+ * separate tables. the GC profiler adds the allocation rate (gc.alloc.rate)
+ * and bytes allocated per operation (gc.alloc.rate.norm) to each result.
+ * results are also written to benchmark-1.json and benchmark-1000000.json.
+ * 
+ * needs JMH (jmh-core and jmh-generator-annprocess) on the class path; pass
+ * benchmark names as arguments to run only those, for example "transform load".
+ */
+public class BenchmarkRunner {
+    
+    public static void main(String[] args) throws RunnerException {
+        for (String rows : new String[] {"1", "1000000"}) {
+            System.out.println("\n=== " + rows + "-row inputs ===");
+            
+            OptionsBuilder builder = new OptionsBuilder();
+            if (args.length == 0) {
+                builder.include(StageBenchmarks.class.getName() + ".*");
+            }
+            for (String name : args) {
+                builder.include(StageBenchmarks.class.getName() + "." + name + "$");
+            }
+            Options options = builder
+                .param("rows", rows)
+                .addProfiler(GCProfiler.class)
+                .result("benchmark-" + rows + ".json")
+                .resultFormat(ResultFormatType.JSON)
+                .build();
+            new Runner(options).run();
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,159 @@
+package org.howard.edu.lsp.assignment3.benchmark;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+import java.util.Random;
+
+/**
+ * generates synthetic product CSV files for the benchmarks.
+ * categories are drawn from a Zipf distribution, so a skew of 0 spreads rows
+ * evenly over every category and larger values concentrate them in the first
+ * few, with "Electronics" always the most common. prices span every price
+ * range, and a fraction of rows can be made invalid to exercise the warning path.
+ */
+public class ProductDataGenerator {
+    private static final String[] CATEGORIES = {
+        "Electronics", "Kitchen", "Furniture", "Clothing", "Books", "Toys", "Garden",
+        "Sports", "Beauty", "Automotive", "Office", "Grocery", "Music", "Health", "Pets", "Tools"
+    };
+    private static final String[] NAMES = {
+        "Laptop", "Blender", "Desk", "Jacket", "Novel", "Puzzle", "Hose", "Racket",
+        "Lotion", "Wiper", "Stapler", "Coffee", "Guitar", "Vitamin", "Leash", "Drill"
+    };
+    
+    private int rows;
+    private double skew;
+    private double invalidFraction;
+    private long seed = 42;
+    
+    /**
+     * constructs a generator.
+     * 
+     * @param rows the number of product rows to write
+     * @param skew the Zipf exponent of the category distribution; 0 is uniform
+     */
+    public ProductDataGenerator(int rows, double skew) {
+        this.rows = rows;
+        this.skew = skew;
+    }
+    
+    /**
+     * sets the fraction of rows written with a missing column or a bad number.
+     * 
+     * @param invalidFraction a fraction from 0 to 1
+     */
+    public void setInvalidFraction(double invalidFraction) {
+        this.invalidFraction = invalidFraction;
+    }
+    
+    /**
+     * sets the random seed, so the same settings always give the same file.
+     * 
+     * @param seed the seed
+     */
+    public void setSeed(long seed) {
+        this.seed = seed;
+    }
+    
+    /**
+     * writes the header and rows to a file.
+     * 
+     * @param file the file to create
+     * @throws IOException if the file cannot be written
+     */
+    public void write(File file) throws IOException {
+        if (file.getParentFile() != null) {
+            file.getParentFile().mkdirs();
+        }
+        
+        double[] cumulative = categoryWeights();
+        Random random = new Random(seed);
+        try (Writer out = new BufferedWriter(new OutputStreamWriter(
+                new FileOutputStream(file), StandardCharsets.UTF_8), 1 << 16)) {
+            out.write("ProductID,Name,Price,Category\n");
+            StringBuilder line = new StringBuilder(64);
+            for (int id = 1; id <= rows; id++) {
+                line.setLength(0);
+                int category = pick(cumulative, random.nextDouble());
+                double price = randomPrice(random);
+                line.append(id).append(',')
+                    .append(NAMES[random.nextInt(NAMES.length)]).append(' ').append(id % 1000).append(',')
+                    .append(String.format(Locale.ROOT, "%.2f", price)).append(',')
+                    .append(CATEGORIES[category]);
+                
+                if (random.nextDouble() < invalidFraction) {
+                    corrupt(line, random);
+                }
+                out.append(line).append('\n');
+            }
+        }
+    }
+    
+    /**
+     * builds the cumulative Zipf weights of the categories.
+     */
+    private double[] categoryWeights() {
+        double[] cumulative = new double[CATEGORIES.length];
+        double total = 0;
+        for (int i = 0; i < cumulative.length; i++) {
+            total += 1.0 / Math.pow(i + 1, skew);
+            cumulative[i] = total;
+        }
+        for (int i = 0; i < cumulative.length; i++) {
+            cumulative[i] /= total;
+        }
+        return cumulative;
+    }
+    
+    private static int pick(double[] cumulative, double value) {
+        for (int i = 0; i < cumulative.length - 1; i++) {
+            if (value < cumulative[i]) return i;
+        }
+        return cumulative.length - 1;
+    }
+    
+    /**
+     * draws a price on a log scale from 1.00 to 2000.00, covering every range.
+     */
+    private static double randomPrice(Random random) {
+        return Math.exp(random.nextDouble() * Math.log(2000.0));
+    }
+    
+    /**
+     * turns a row into one the extractor skips: either the category column
+     * is dropped or the ProductID is not a number.
+     */
+    private static void corrupt(StringBuilder line, Random random) {
+        if (random.nextBoolean()) {
+            line.setLength(line.lastIndexOf(","));
+        } else {
+            line.insert(0, "id");
+        }
+    }
+    
+    /**
+     * writes a file from the command line.
+     * 
+     * @param args the output path, the row count, and optionally the skew
+     *             and the invalid fraction
+     */
+    public static void main(String[] args) {
+        if (args.length < 2) {
+            System.err.println("Usage: ProductDataGenerator <output> <rows> [skew] [invalidFraction]");
+            return;
+        }
+        ProductDataGenerator generator = new ProductDataGenerator(
+            Integer.parseInt(args[1]), args.length > 2 ? Double.parseDouble(args[2]) : 0.0);
+        if (args.length > 3) {
+            generator.setInvalidFraction(Double.parseDouble(args[3]));
+        }
+        
+        try {
+            generator.write(new File(args[0]));
+            System.out.println("Wrote " + args[1] + " products to " + args[0]);
+        } catch (IOException e) {
+            System.err.println("Error: " + e.getMessage());
+        }
+    }
+}
\ No newline at end of file
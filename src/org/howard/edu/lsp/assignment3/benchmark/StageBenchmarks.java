@@ -0,0 +1,155 @@
+package org.howard.edu.lsp.assignment3.benchmark;
+
+import java.io.*;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.howard.edu.lsp.assignment2.ETLPipeline;
+import org.howard.edu.lsp.assignment3.*;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * JMH benchmarks for each ETL stage and for the whole pipeline.
+ * every trial generates its own input file with {@link ProductDataGenerator}
+ * in a temporary directory, so results do not depend on data/products.csv.
+ * the rows parameter separates the 1-row case, which measures fixed per-run
+ * costs, from the 1M-row case, which measures per-row throughput.
+ * 
+ * the transform benchmark has to start from untransformed products on every
+ * call, so it rebuilds them from the extracted fields; copyProducts measures
+ * that rebuild alone so it can be subtracted.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+public class StageBenchmarks {
+    
+    /**
+     * the generated input and the intermediate results of each stage.
+     */
+    @State(Scope.Benchmark)
+    public static class Data {
+        @Param({"1", "1000000"})
+        public int rows;
+        
+        @Param({"0.0", "1.2"})
+        public double skew;
+        
+        File dir;
+        String inputPath;
+        String outputPath;
+        int[] ids;
+        String[] names;
+        double[] prices;
+        String[] categories;
+        List<Product> transformed;
+        private PrintStream stdout;
+        
+        @Setup(Level.Trial)
+        public void setUp() throws IOException {
+            // keep the per-run messages and summaries out of the results
+            stdout = System.out;
+            System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+            
+            dir = Files.createTempDirectory("etl-bench").toFile();
+            inputPath = new File(dir, "products.csv").getPath();
+            outputPath = new File(dir, "transformed_products.csv").getPath();
+            new ProductDataGenerator(rows, skew).write(new File(inputPath));
+            
+            List<Product> products = new CSVExtractor(inputPath).extract();
+            ids = new int[products.size()];
+            names = new String[products.size()];
+            prices = new double[products.size()];
+            categories = new String[products.size()];
+            for (int i = 0; i < products.size(); i++) {
+                Product product = products.get(i);
+                ids[i] = product.getProductId();
+                names[i] = product.getName();
+                prices[i] = product.getPrice();
+                categories[i] = product.getCategory();
+            }
+            
+            transformed = copy();
+            new ProductTransformer().transform(transformed);
+        }
+        
+        /**
+         * builds fresh untransformed products from the extracted fields.
+         */
+        List<Product> copy() {
+            List<Product> products = new ArrayList<>(ids.length);
+            for (int i = 0; i < ids.length; i++) {
+                products.add(new Product(ids[i], names[i], prices[i], categories[i]));
+            }
+            return products;
+        }
+        
+        @TearDown(Level.Trial)
+        public void tearDown() {
+            System.setOut(stdout);
+            for (File file : dir.listFiles()) {
+                file.delete();
+            }
+            dir.delete();
+        }
+    }
+    
+    @Benchmark
+    public List<Product> extract(Data data) throws IOException {
+        return new CSVExtractor(data.inputPath).extract();
+    }
+    
+    @Benchmark
+    public ProductBatch extractBatch(Data data) throws IOException {
+        return new CSVExtractor(data.inputPath).extractBatch();
+    }
+    
+    @Benchmark
+    public List<Product> copyProducts(Data data) {
+        return data.copy();
+    }
+    
+    @Benchmark
+    public List<Product> transform(Data data) {
+        List<Product> products = data.copy();
+        new ProductTransformer().transform(products);
+        return products;
+    }
+    
+    @Benchmark
+    public void toCSV(Data data, Blackhole blackhole) {
+        for (Product product : data.transformed) {
+            blackhole.consume(product.toCSV());
+        }
+    }
+    
+    @Benchmark
+    public void load(Data data) throws IOException {
+        new CSVLoader(data.outputPath).load(data.transformed, new ProductTransformer().getHeader());
+    }
+    
+    @Benchmark
+    public void pipeline(Data data) {
+        new ETLOrchestrator(data.inputPath, data.outputPath).execute();
+    }
+    
+    @Benchmark
+    public void streamingPipeline(Data data) {
+        new ETLOrchestrator(data.inputPath, data.outputPath).executeStreaming();
+    }
+    
+    @Benchmark
+    public void columnarPipeline(Data data) {
+        new ETLOrchestrator(data.inputPath, data.outputPath).executeColumnar();
+    }
+    
+    @Benchmark
+    public void legacyPipeline(Data data) {
+        new ETLPipeline().run(data.inputPath, data.outputPath);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,404 @@
+package org.howard.edu.lsp.assignment6;
+
+import java.util.concurrent.locks.StampedLock;
+
+/**
+ * A thread-safe set of integers with the same operations as IntegerSet.
+ * Values are spread over independent stripes by hash, each a primitive
+ * hash set guarded by its own StampedLock, so writes to different stripes
+ * never contend. Membership tests first read their stripe optimistically
+ * without taking any lock and only fall back to a read lock if a write
+ * to that stripe overlapped, so read-mostly workloads scale with the
+ * number of cores.
+ * 
+ * The set operations are atomic: they lock every stripe, always in the
+ * same order, and other threads see the set either wholly before or wholly
+ * after them. When the argument is another ConcurrentIntegerSet, it is
+ * first copied with {@link #snapshot()}, so two sets can be combined with
+ * each other from different threads without deadlock. length, isEmpty,
+ * largest, smallest, equals and toString also see a consistent state.
+ */
+public class ConcurrentIntegerSet {
+    private Stripe[] stripes;
+    private int shift;
+
+    /**
+     * One stripe of the set: the values whose hash selects it, and the lock
+     * guarding them. The store is volatile so that optimistic readers see a
+     * fully built store when a bulk operation replaces it.
+     */
+    private static class Stripe {
+        final StampedLock lock = new StampedLock();
+        volatile IntStore store = new IntHashStore();
+    }
+
+    /**
+     * An update applied to every stripe while all of them are write-locked.
+     */
+    private interface StripeUpdate {
+        void apply(Stripe stripe, int index);
+    }
+
+    /**
+     * Constructs an empty set with four stripes per available processor.
+     */
+    public ConcurrentIntegerSet() {
+        this(4 * Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Constructs an empty set with at least the given number of stripes,
+     * rounded up to a power of two and capped at 65536.
+     * 
+     * @param stripeCount the minimum number of stripes
+     */
+    public ConcurrentIntegerSet(int stripeCount) {
+        int count = 1;
+        while (count < stripeCount && count < 1 << 16) {
+            count <<= 1;
+        }
+        stripes = new Stripe[count];
+        for (int i = 0; i < count; i++) {
+            stripes[i] = new Stripe();
+        }
+        // a shift of 32 would leave the hash unchanged, so stripeIndex handles one stripe separately
+        shift = 32 - Integer.numberOfTrailingZeros(count);
+    }
+
+    private int stripeIndex(int value) {
+        return stripes.length == 1 ? 0 : (value * 0x9E3779B9) >>> shift;
+    }
+
+    /**
+     * Clears the set.
+     */
+    public void clear() {
+        updateAll((stripe, index) -> stripe.store.clear());
+    }
+
+    /**
+     * Returns the number of elements in the set.
+     * 
+     * @return the number of elements in the set
+     */
+    public int length() {
+        long[] stamps = readLockAll();
+        try {
+            int length = 0;
+            for (Stripe stripe : stripes) {
+                length += stripe.store.size();
+            }
+            return length;
+        } finally {
+            unlockReadAll(stamps);
+        }
+    }
+
+    /**
+     * Returns true if the set contains the value, otherwise false.
+     * Reads the value's stripe without locking unless a write overlaps.
+     * 
+     * @param value the value to check for membership
+     * @return true if the set contains the value, false otherwise
+     */
+    public boolean contains(int value) {
+        Stripe stripe = stripes[stripeIndex(value)];
+        long stamp = stripe.lock.tryOptimisticRead();
+        IntStore store = stripe.store;
+        if (stamp != 0 && store instanceof IntHashStore) {
+            int found = ((IntHashStore) store).containsOptimistic(value, stripe.lock, stamp);
+            if (found != IntHashStore.RETRY) return found == IntHashStore.PRESENT;
+        }
+        
+        // a write overlapped the lookup; read again under the lock
+        stamp = stripe.lock.readLock();
+        try {
+            return stripe.store.contains(value);
+        } finally {
+            stripe.lock.unlockRead(stamp);
+        }
+    }
+
+    /**
+     * Returns the largest item in the set.
+     * 
+     * @return the largest item in the set
+     * @throws IllegalStateException if the set is empty
+     */
+    public int largest() {
+        long[] stamps = readLockAll();
+        try {
+            long max = Long.MIN_VALUE;
+            for (Stripe stripe : stripes) {
+                if (stripe.store.size() > 0) {
+                    max = Math.max(max, stripe.store.max());
+                }
+            }
+            if (max == Long.MIN_VALUE) {
+                throw new IllegalStateException("Set is empty");
+            }
+            return (int) max;
+        } finally {
+            unlockReadAll(stamps);
+        }
+    }
+
+    /**
+     * Returns the smallest item in the set.
+     * 
+     * @return the smallest item in the set
+     * @throws IllegalStateException if the set is empty
+     */
+    public int smallest() {
+        long[] stamps = readLockAll();
+        try {
+            long min = Long.MAX_VALUE;
+            for (Stripe stripe : stripes) {
+                if (stripe.store.size() > 0) {
+                    min = Math.min(min, stripe.store.min());
+                }
+            }
+            if (min == Long.MAX_VALUE) {
+                throw new IllegalStateException("Set is empty");
+            }
+            return (int) min;
+        } finally {
+            unlockReadAll(stamps);
+        }
+    }
+
+    /**
+     * Adds an item to the set or does nothing if already present.
+     * 
+     * @param item the item to add to the set
+     * @return true if the item was not already present
+     */
+    public boolean add(int item) {
+        Stripe stripe = stripes[stripeIndex(item)];
+        long stamp = stripe.lock.writeLock();
+        try {
+            return stripe.store.add(item);
+        } finally {
+            stripe.lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Removes an item from the set or does nothing if not there.
+     * 
+     * @param item the item to remove from the set
+     * @return true if the item was present
+     */
+    public boolean remove(int item) {
+        Stripe stripe = stripes[stripeIndex(item)];
+        long stamp = stripe.lock.writeLock();
+        try {
+            return stripe.store.remove(item);
+        } finally {
+            stripe.lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Atomically adds every element of other. The caller must not modify
+     * other during the call.
+     * 
+     * @param other the IntegerSet to union with
+     */
+    public void union(IntegerSet other) {
+        IntStore[] parts = partition(other);
+        updateAll((stripe, index) -> stripe.store = stripe.store.union(parts[index]));
+    }
+
+    /**
+     * Atomically adds every element of a snapshot of other.
+     * 
+     * @param other the set to union with
+     */
+    public void union(ConcurrentIntegerSet other) {
+        if (other != this) {
+            union(other.snapshot());
+        }
+    }
+
+    /**
+     * Atomically keeps only the elements also in other. The caller must
+     * not modify other during the call.
+     * 
+     * @param other the IntegerSet to intersect with
+     */
+    public void intersect(IntegerSet other) {
+        IntStore[] parts = partition(other);
+        updateAll((stripe, index) -> stripe.store = stripe.store.intersect(parts[index]));
+    }
+
+    /**
+     * Atomically keeps only the elements also in a snapshot of other.
+     * 
+     * @param other the set to intersect with
+     */
+    public void intersect(ConcurrentIntegerSet other) {
+        if (other != this) {
+            intersect(other.snapshot());
+        }
+    }
+
+    /**
+     * Atomically removes every element of other (this \ other). The caller
+     * must not modify other during the call.
+     * 
+     * @param other the IntegerSet to subtract
+     */
+    public void diff(IntegerSet other) {
+        IntStore[] parts = partition(other);
+        updateAll((stripe, index) -> stripe.store = stripe.store.diff(parts[index]));
+    }
+
+    /**
+     * Atomically removes every element of a snapshot of other.
+     * 
+     * @param other the set to subtract
+     */
+    public void diff(ConcurrentIntegerSet other) {
+        if (other == this) {
+            clear();
+        } else {
+            diff(other.snapshot());
+        }
+    }
+
+    /**
+     * Atomically makes this set (other \ this). The caller must not modify
+     * other during the call.
+     * 
+     * @param other the IntegerSet to use for complement
+     */
+    public void complement(IntegerSet other) {
+        IntStore[] parts = partition(other);
+        updateAll((stripe, index) -> stripe.store = stripe.store.complement(parts[index]));
+    }
+
+    /**
+     * Atomically makes this set (snapshot of other \ this).
+     * 
+     * @param other the set to use for complement
+     */
+    public void complement(ConcurrentIntegerSet other) {
+        if (other == this) {
+            clear();
+        } else {
+            complement(other.snapshot());
+        }
+    }
+
+    /**
+     * Returns true if the set is empty, false otherwise.
+     * 
+     * @return true if the set is empty, false otherwise
+     */
+    public boolean isEmpty() {
+        return length() == 0;
+    }
+
+    /**
+     * Returns a copy of the set as it was at one instant, taken with every
+     * stripe read-locked. The copy is an ordinary IntegerSet that the
+     * caller can query or combine without further locking.
+     * 
+     * @return the copy
+     */
+    public IntegerSet snapshot() {
+        IntegerSet copy = new IntegerSet();
+        long[] stamps = readLockAll();
+        try {
+            for (Stripe stripe : stripes) {
+                stripe.store.forEach(copy::add);
+            }
+        } finally {
+            unlockReadAll(stamps);
+        }
+        return copy;
+    }
+
+    /**
+     * Returns true if the other object is a ConcurrentIntegerSet with the
+     * same elements, comparing snapshots of both.
+     * 
+     * @param o the object to compare with
+     * @return true if the sets are equal, false otherwise
+     */
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        
+        return snapshot().equals(((ConcurrentIntegerSet) o).snapshot());
+    }
+
+    /**
+     * Returns the hash code of a snapshot of the set.
+     * 
+     * @return the hash code
+     */
+    @Override
+    public int hashCode() {
+        return snapshot().hashCode();
+    }
+
+    /**
+     * Returns a String representation of a snapshot of the set with the
+     * elements in ascending order.
+     * 
+     * @return string representation of the set in format [1, 2, 3]
+     */
+    @Override
+    public String toString() {
+        return snapshot().toString();
+    }
+
+    /**
+     * Splits the elements of a set by stripe, before any lock is taken.
+     */
+    private IntStore[] partition(IntegerSet other) {
+        IntStore[] parts = new IntStore[stripes.length];
+        for (int i = 0; i < parts.length; i++) {
+            parts[i] = new IntHashStore();
+        }
+        other.store().forEach(value -> parts[stripeIndex(value)].add(value));
+        return parts;
+    }
+
+    /**
+     * Applies an update to every stripe while holding all the write locks,
+     * taken in stripe order so that concurrent bulk operations cannot deadlock.
+     */
+    private void updateAll(StripeUpdate update) {
+        long[] stamps = new long[stripes.length];
+        for (int i = 0; i < stripes.length; i++) {
+            stamps[i] = stripes[i].lock.writeLock();
+        }
+        try {
+            for (int i = 0; i < stripes.length; i++) {
+                update.apply(stripes[i], i);
+            }
+        } finally {
+            for (int i = 0; i < stripes.length; i++) {
+                stripes[i].lock.unlockWrite(stamps[i]);
+            }
+        }
+    }
+
+    private long[] readLockAll() {
+        long[] stamps = new long[stripes.length];
+        for (int i = 0; i < stripes.length; i++) {
+            stamps[i] = stripes[i].lock.readLock();
+        }
+        return stamps;
+    }
+
+    private void unlockReadAll(long[] stamps) {
+        for (int i = 0; i < stripes.length; i++) {
+            stripes[i].lock.unlockRead(stamps[i]);
+        }
+    }
+}
\ No newline at end of file
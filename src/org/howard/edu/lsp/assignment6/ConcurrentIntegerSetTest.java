@@ -0,0 +1,232 @@
+package org.howard.edu.lsp.assignment6;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * JUnit test class for ConcurrentIntegerSet.
+ * Checks that it behaves like IntegerSet and stays consistent under concurrent use.
+ */
+public class ConcurrentIntegerSetTest {
+    private ExecutorService executor;
+
+    @Before
+    public void setUp() {
+        executor = Executors.newFixedThreadPool(8);
+    }
+
+    @After
+    public void tearDown() throws InterruptedException {
+        executor.shutdownNow();
+        executor.awaitTermination(10, TimeUnit.SECONDS);
+    }
+
+    private static IntegerSet setOf(int... values) {
+        IntegerSet set = new IntegerSet();
+        for (int value : values) {
+            set.add(value);
+        }
+        return set;
+    }
+
+    @Test
+    public void testBehavesLikeIntegerSet() {
+        ConcurrentIntegerSet set = new ConcurrentIntegerSet(4);
+        assertTrue(set.isEmpty());
+        assertTrue(set.add(1));
+        assertTrue(set.add(2));
+        assertTrue(set.add(3));
+        assertFalse(set.add(2));
+        assertEquals(3, set.length());
+        assertEquals(1, set.smallest());
+        assertEquals(3, set.largest());
+        assertEquals("[1, 2, 3]", set.toString());
+        
+        set.union(setOf(2, 3, 4));
+        assertEquals("[1, 2, 3, 4]", set.toString());
+        set.intersect(setOf(2, 3, 9));
+        assertEquals("[2, 3]", set.toString());
+        set.diff(setOf(3));
+        assertEquals("[2]", set.toString());
+        set.complement(setOf(2, 5, 6));
+        assertEquals("[5, 6]", set.toString());
+        
+        ConcurrentIntegerSet other = new ConcurrentIntegerSet();
+        other.add(6);
+        other.add(7);
+        set.union(other);
+        assertEquals(setOf(5, 6, 7), set.snapshot());
+        set.diff(set);
+        assertTrue(set.isEmpty());
+        
+        other.add(5);
+        ConcurrentIntegerSet same = new ConcurrentIntegerSet(1);
+        same.union(setOf(5, 6, 7));
+        assertEquals(other, same);
+        assertEquals(other.hashCode(), same.hashCode());
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testLargestEmptySet() {
+        new ConcurrentIntegerSet().largest();
+    }
+
+    @Test
+    public void testConcurrentAddsAndRemoves() throws Exception {
+        ConcurrentIntegerSet set = new ConcurrentIntegerSet();
+        List<Future<?>> futures = new ArrayList<>();
+        for (int thread = 0; thread < 8; thread++) {
+            int offset = thread * 100000;
+            futures.add(executor.submit(() -> {
+                for (int value = offset; value < offset + 100000; value++) {
+                    set.add(value);
+                }
+                // remove the odd values again
+                for (int value = offset + 1; value < offset + 100000; value += 2) {
+                    set.remove(value);
+                }
+            }));
+        }
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        
+        assertEquals(400000, set.length());
+        assertEquals(0, set.smallest());
+        assertEquals(799998, set.largest());
+        for (int value = 0; value < 800000; value++) {
+            assertEquals(value % 2 == 0, set.contains(value));
+        }
+    }
+
+    @Test
+    public void testReadersNeverMissStableValues() throws Exception {
+        ConcurrentIntegerSet set = new ConcurrentIntegerSet(2);
+        for (int value = 0; value < 1000; value++) {
+            set.add(value * 2);
+        }
+        
+        // writers churn odd values, growing and shrinking the tables under the readers
+        AtomicBoolean stop = new AtomicBoolean();
+        List<Future<?>> writers = new ArrayList<>();
+        for (int thread = 0; thread < 2; thread++) {
+            writers.add(executor.submit(() -> {
+                while (!stop.get()) {
+                    for (int value = 1; value < 200000; value += 2) {
+                        set.add(value);
+                    }
+                    for (int value = 1; value < 200000; value += 2) {
+                        set.remove(value);
+                    }
+                }
+            }));
+        }
+        
+        List<Future<Boolean>> readers = new ArrayList<>();
+        for (int thread = 0; thread < 4; thread++) {
+            readers.add(executor.submit(() -> {
+                for (int round = 0; round < 200; round++) {
+                    for (int value = 0; value < 1000; value++) {
+                        if (!set.contains(value * 2)) return false;
+                    }
+                }
+                return true;
+            }));
+        }
+        for (Future<Boolean> reader : readers) {
+            assertTrue(reader.get());
+        }
+        stop.set(true);
+        for (Future<?> writer : writers) {
+            writer.get();
+        }
+    }
+
+    @Test
+    public void testReadersDuringClearAndIntersect() throws Exception {
+        ConcurrentIntegerSet set = new ConcurrentIntegerSet(2);
+        IntegerSet many = new IntegerSet();
+        for (int value = 1; value <= 50000; value++) {
+            many.add(value);
+        }
+        IntegerSet few = setOf(7, 70, 700, 7000);
+        
+        // the tables grow, shrink back in place on clear and are replaced by intersect
+        AtomicBoolean stop = new AtomicBoolean();
+        Future<?> writer = executor.submit(() -> {
+            while (!stop.get()) {
+                set.union(many);
+                set.intersect(few);
+                set.union(many);
+                set.clear();
+            }
+        });
+        
+        // every lookup returns, and values never added are never reported
+        List<Future<Boolean>> readers = new ArrayList<>();
+        for (int thread = 0; thread < 4; thread++) {
+            readers.add(executor.submit(() -> {
+                for (int round = 0; round < 100; round++) {
+                    for (int value = 1; value <= 5000; value++) {
+                        set.contains(value * 10);
+                        if (set.contains(-value)) return false;
+                    }
+                }
+                return true;
+            }));
+        }
+        for (Future<Boolean> reader : readers) {
+            assertTrue(reader.get(60, TimeUnit.SECONDS));
+        }
+        stop.set(true);
+        writer.get();
+    }
+
+    @Test
+    public void testBulkOperationsAreAtomic() throws Exception {
+        ConcurrentIntegerSet set = new ConcurrentIntegerSet();
+        IntegerSet batch = new IntegerSet();
+        for (int value = 0; value < 5000; value++) {
+            batch.add(value * 7);
+        }
+        
+        AtomicBoolean stop = new AtomicBoolean();
+        Future<?> writer = executor.submit(() -> {
+            while (!stop.get()) {
+                set.union(batch);
+                set.diff(batch);
+            }
+        });
+        
+        // every snapshot holds either all of the batch or none of it
+        List<Future<Boolean>> readers = new ArrayList<>();
+        for (int thread = 0; thread < 4; thread++) {
+            readers.add(executor.submit(() -> {
+                for (int round = 0; round < 200; round++) {
+                    int seen = set.snapshot().intersectionSize(batch);
+                    if (seen != 0 && seen != batch.length()) return false;
+                    
+                    int length = set.length();
+                    if (length != 0 && length != batch.length()) return false;
+                }
+                return true;
+            }));
+        }
+        for (Future<Boolean> reader : readers) {
+            assertTrue(reader.get());
+        }
+        stop.set(true);
+        writer.get();
+    }
+}
\ No newline at end of file
@@ -0,0 +1,334 @@
+package org.howard.edu.lsp.assignment6;
+
+import java.util.Arrays;
+import java.util.function.IntConsumer;
+import java.util.function.IntPredicate;
+
+/**
+ * A bitset of ints covering the range between the smallest and largest
+ * value ever added. Membership is a single bit test, and memory is one bit
+ * per value of the range, so it is much smaller than a hash table when the
+ * values are packed into a compact range and much larger when they are spread out.
+ * The words array may start below zero; word i holds the values from
+ * (firstWord + i) * 64 to (firstWord + i) * 64 + 63.
+ * Set operations between two bitmap stores combine the overlapping words
+ * with {@link WordOps}, 64 values per word and several words per
+ * instruction once the JIT vectorizes the loops.
+ */
+class IntBitmapStore extends IntStore {
+    private static final int MIN_WORD = Integer.MIN_VALUE >> 6;
+    private static final int MAX_WORD = Integer.MAX_VALUE >> 6;
+
+    private long[] words = new long[0];
+    private int firstWord;
+    private int size;
+
+    @Override
+    int size() {
+        return size;
+    }
+
+    @Override
+    boolean contains(int value) {
+        int index = (value >> 6) - firstWord;
+        return index >= 0 && index < words.length && (words[index] & (1L << value)) != 0;
+    }
+
+    @Override
+    boolean add(int value) {
+        int index = cover(value >> 6);
+        long bit = 1L << value;
+        if ((words[index] & bit) != 0) return false;
+        
+        words[index] |= bit;
+        size++;
+        return true;
+    }
+
+    @Override
+    boolean remove(int value) {
+        if (!contains(value)) return false;
+        
+        words[(value >> 6) - firstWord] &= ~(1L << value);
+        size--;
+        return true;
+    }
+
+    @Override
+    void clear() {
+        words = new long[0];
+        firstWord = 0;
+        size = 0;
+    }
+
+    @Override
+    int min() {
+        int i = 0;
+        while (words[i] == 0) {
+            i++;
+        }
+        return ((firstWord + i) << 6) + Long.numberOfTrailingZeros(words[i]);
+    }
+
+    @Override
+    int max() {
+        int i = words.length - 1;
+        while (words[i] == 0) {
+            i--;
+        }
+        return ((firstWord + i) << 6) + 63 - Long.numberOfLeadingZeros(words[i]);
+    }
+
+    /**
+     * Visits the elements in ascending order.
+     */
+    @Override
+    boolean allMatch(IntPredicate predicate) {
+        for (int i = 0; i < words.length; i++) {
+            int base = (firstWord + i) << 6;
+            for (long word = words[i]; word != 0; word &= word - 1) {
+                if (!predicate.test(base + Long.numberOfTrailingZeros(word))) return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Returns the elements in ascending order.
+     */
+    @Override
+    int[] toArray() {
+        int[] values = new int[size];
+        int count = 0;
+        for (int i = 0; i < words.length; i++) {
+            int base = (firstWord + i) << 6;
+            for (long word = words[i]; word != 0; word &= word - 1) {
+                values[count++] = base + Long.numberOfTrailingZeros(word);
+            }
+        }
+        return values;
+    }
+
+    @Override
+    long sizeInBytes() {
+        return 24 + 8L * words.length;
+    }
+
+    /**
+     * Drops the empty words at either end of the range.
+     */
+    @Override
+    void trimToSize() {
+        if (size == 0) {
+            clear();
+            return;
+        }
+        int from = (min() >> 6) - firstWord;
+        int to = (max() >> 6) - firstWord + 1;
+        words = Arrays.copyOfRange(words, from, to);
+        firstWord += from;
+    }
+
+    @Override
+    IntStore emptyCopy() {
+        return new IntBitmapStore();
+    }
+
+    @Override
+    IntStore union(IntStore other) {
+        if (!(other instanceof IntBitmapStore)) return super.union(other);
+        
+        IntBitmapStore that = (IntBitmapStore) other;
+        if (that.size == 0) return this;
+        
+        int from = that.firstWord + that.skipLow();
+        int to = that.firstWord + that.words.length - that.skipHigh();
+        cover(from);
+        cover(to - 1);
+        WordOps.or(words, from - firstWord, that.words, from - that.firstWord, to - from);
+        size = WordOps.cardinality(words, 0, words.length);
+        return this;
+    }
+
+    @Override
+    IntStore intersect(IntStore other) {
+        if (!(other instanceof IntBitmapStore)) return super.intersect(other);
+        
+        IntBitmapStore that = (IntBitmapStore) other;
+        int from = Math.max(firstWord, that.firstWord);
+        int to = Math.min(firstWord + words.length, that.firstWord + that.words.length);
+        if (from >= to) {
+            clear();
+            return this;
+        }
+        
+        words = Arrays.copyOfRange(words, from - firstWord, to - firstWord);
+        firstWord = from;
+        WordOps.and(words, 0, that.words, from - that.firstWord, to - from);
+        size = WordOps.cardinality(words, 0, words.length);
+        return this;
+    }
+
+    @Override
+    IntStore diff(IntStore other) {
+        if (!(other instanceof IntBitmapStore)) return super.diff(other);
+        
+        IntBitmapStore that = (IntBitmapStore) other;
+        int from = Math.max(firstWord, that.firstWord);
+        int to = Math.min(firstWord + words.length, that.firstWord + that.words.length);
+        if (from < to) {
+            WordOps.andNot(words, from - firstWord, that.words, from - that.firstWord, to - from);
+            size = WordOps.cardinality(words, 0, words.length);
+        }
+        return this;
+    }
+
+    @Override
+    IntStore complement(IntStore other) {
+        if (!(other instanceof IntBitmapStore)) return super.complement(other);
+        
+        IntBitmapStore that = (IntBitmapStore) other;
+        IntBitmapStore result = new IntBitmapStore();
+        result.words = that.words.clone();
+        result.firstWord = that.firstWord;
+        result.size = that.size;
+        return result.diff(this);
+    }
+
+    @Override
+    int intersectionSize(IntStore other) {
+        if (!(other instanceof IntBitmapStore)) return super.intersectionSize(other);
+        
+        IntBitmapStore that = (IntBitmapStore) other;
+        int from = Math.max(firstWord, that.firstWord);
+        int to = Math.min(firstWord + words.length, that.firstWord + that.words.length);
+        if (from >= to) return 0;
+        
+        return WordOps.andCardinality(words, from - firstWord, that.words, from - that.firstWord, to - from);
+    }
+
+    @Override
+    int rangeCount(int lo, int hi) {
+        long base = (long) firstWord << 6;
+        long from = Math.max(lo, base);
+        long to = Math.min(hi, base + 64L * words.length - 1);
+        if (from > to) return 0;
+        
+        return WordOps.rangeCardinality(words, from - base, to - base);
+    }
+
+    @Override
+    long ceiling(int value) {
+        if (size == 0) return NONE;
+        
+        int index = (value >> 6) - firstWord;
+        if (index >= words.length) return NONE;
+        
+        long word;
+        if (index < 0) {
+            index = 0;
+            word = words[0];
+        } else {
+            word = words[index] & (-1L << value);
+        }
+        while (word == 0) {
+            if (++index == words.length) return NONE;
+            word = words[index];
+        }
+        return ((firstWord + index) << 6) + Long.numberOfTrailingZeros(word);
+    }
+
+    @Override
+    long floor(int value) {
+        if (size == 0) return NONE;
+        
+        int index = (value >> 6) - firstWord;
+        if (index < 0) return NONE;
+        
+        long word;
+        if (index >= words.length) {
+            index = words.length - 1;
+            word = words[index];
+        } else {
+            word = words[index] & (-1L >>> (63 - (value & 63)));
+        }
+        while (word == 0) {
+            if (--index < 0) return NONE;
+            word = words[index];
+        }
+        return ((firstWord + index) << 6) + 63 - Long.numberOfLeadingZeros(word);
+    }
+
+    /**
+     * Walks only the words overlapping the range.
+     */
+    @Override
+    void forEachInRange(int lo, int hi, IntConsumer action) {
+        int from = Math.max((lo >> 6) - firstWord, 0);
+        int to = Math.min((hi >> 6) - firstWord, words.length - 1);
+        for (int i = from; i <= to; i++) {
+            int base = (firstWord + i) << 6;
+            for (long word = words[i]; word != 0; word &= word - 1) {
+                int value = base + Long.numberOfTrailingZeros(word);
+                if (value >= lo && value <= hi) {
+                    action.accept(value);
+                }
+            }
+        }
+    }
+
+    /**
+     * Counts the empty words at the start of the array.
+     */
+    private int skipLow() {
+        int i = 0;
+        while (i < words.length && words[i] == 0) {
+            i++;
+        }
+        return i;
+    }
+
+    /**
+     * Counts the empty words at the end of the array.
+     */
+    private int skipHigh() {
+        int i = 0;
+        while (i < words.length && words[words.length - 1 - i] == 0) {
+            i++;
+        }
+        return i;
+    }
+
+    /**
+     * Grows the words array to cover a word, at least doubling it so that a
+     * run of ascending or descending adds copies the array only a few times.
+     * 
+     * @return the index of the word in the array
+     */
+    private int cover(int word) {
+        if (words.length == 0) {
+            words = new long[1];
+            firstWord = word;
+            return 0;
+        }
+        
+        int lastWord = firstWord + words.length - 1;
+        if (word >= firstWord && word <= lastWord) {
+            return word - firstWord;
+        }
+        
+        int newFirst = firstWord;
+        int newLast = lastWord;
+        if (word < firstWord) {
+            newFirst = Math.max(MIN_WORD, Math.min(word, firstWord - words.length));
+        } else {
+            newLast = Math.min(MAX_WORD, Math.max(word, lastWord + words.length));
+        }
+        long[] grown = new long[newLast - newFirst + 1];
+        System.arraycopy(words, 0, grown, firstWord - newFirst, words.length);
+        words = grown;
+        firstWord = newFirst;
+        return word - firstWord;
+    }
+
+}
\ No newline at end of file
@@ -0,0 +1,247 @@
+package org.howard.edu.lsp.assignment6;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.locks.StampedLock;
+import java.util.function.IntPredicate;
+
+/**
+ * An open-addressing hash set of primitive ints.
+ * Values live in a single int array with linear probing, and removal shifts
+ * the rest of the probe cluster back instead of leaving tombstones, so
+ * lookups stay constant time however many removals there have been.
+ * Zero marks an empty slot and is tracked by a separate flag.
+ * Every table hashes with its own random seed: copying one table into
+ * another in slot order would otherwise fill the new table in hash order
+ * and pile the keys into one long probe cluster.
+ */
+class IntHashStore extends IntStore {
+    /** Returned by containsOptimistic when the value is present. */
+    static final int PRESENT = 1;
+    /** Returned by containsOptimistic when the value is absent. */
+    static final int ABSENT = 0;
+    /** Returned by containsOptimistic when a write overlapped the lookup. */
+    static final int RETRY = -1;
+
+    private static final float LOAD_FACTOR = 0.75f;
+    private static final int MIN_CAPACITY = 16;
+
+    private int[] keys;
+    private int mask;
+    private int shift;
+    private int size;
+    private int threshold;
+    private boolean hasZero;
+    private int seed = ThreadLocalRandom.current().nextInt();
+
+    /**
+     * Constructs an empty IntHashStore.
+     */
+    IntHashStore() {
+        allocate(MIN_CAPACITY);
+    }
+
+    @Override
+    int size() {
+        return size;
+    }
+
+    @Override
+    boolean contains(int value) {
+        if (value == 0) {
+            return hasZero;
+        }
+        for (int slot = slot(value); ; slot = (slot + 1) & mask) {
+            int key = keys[slot];
+            if (key == value) return true;
+            if (key == 0) return false;
+        }
+    }
+
+    /**
+     * Looks up a value without holding the lock that guards this store, for
+     * readers holding an optimistic stamp. A concurrent write may leave the
+     * fields inconsistent, so the table array is read once and the slot is
+     * derived from its own length, the probe stops after one pass over the
+     * array, and the stamp is checked while probing and before answering.
+     * 
+     * @param value the value to look up
+     * @param lock the lock guarding this store
+     * @param stamp the optimistic read stamp
+     * @return PRESENT or ABSENT if the stamp was still valid, otherwise RETRY
+     */
+    int containsOptimistic(int value, StampedLock lock, long stamp) {
+        boolean found;
+        if (value == 0) {
+            found = hasZero;
+        } else {
+            int[] table = keys;
+            int tableMask = table.length - 1;
+            int tableShift = Integer.numberOfLeadingZeros(tableMask);
+            int slot = (((value * 0x9E3779B9) ^ seed) * 0x85EBCA6B) >>> tableShift;
+            found = false;
+            for (int step = 0; ; step++) {
+                int key = table[slot & tableMask];
+                if (key == value) {
+                    found = true;
+                    break;
+                }
+                if (key == 0) break;
+                if (step == tableMask || !lock.validate(stamp)) return RETRY;
+                slot++;
+            }
+        }
+        return lock.validate(stamp) ? (found ? PRESENT : ABSENT) : RETRY;
+    }
+
+    @Override
+    boolean add(int value) {
+        if (value == 0) {
+            if (hasZero) return false;
+            
+            hasZero = true;
+            size++;
+            return true;
+        }
+        
+        int slot = slot(value);
+        while (keys[slot] != 0) {
+            if (keys[slot] == value) return false;
+            slot = (slot + 1) & mask;
+        }
+        keys[slot] = value;
+        if (++size > threshold) {
+            rehash(keys.length * 2);
+        }
+        return true;
+    }
+
+    @Override
+    boolean remove(int value) {
+        if (value == 0) {
+            if (!hasZero) return false;
+            
+            hasZero = false;
+            size--;
+            return true;
+        }
+        
+        int gap = slot(value);
+        while (keys[gap] != value) {
+            if (keys[gap] == 0) return false;
+            gap = (gap + 1) & mask;
+        }
+        
+        // move each later key of the cluster into the gap unless that would put it before its home slot
+        for (int next = (gap + 1) & mask; keys[next] != 0; next = (next + 1) & mask) {
+            int home = slot(keys[next]);
+            if (((next - home) & mask) >= ((next - gap) & mask)) {
+                keys[gap] = keys[next];
+                gap = next;
+            }
+        }
+        keys[gap] = 0;
+        size--;
+        return true;
+    }
+
+    @Override
+    void clear() {
+        allocate(MIN_CAPACITY);
+        size = 0;
+        hasZero = false;
+    }
+
+    @Override
+    int min() {
+        int min = Integer.MAX_VALUE;
+        if (hasZero) {
+            min = 0;
+        }
+        for (int key : keys) {
+            if (key != 0 && key < min) {
+                min = key;
+            }
+        }
+        return min;
+    }
+
+    @Override
+    int max() {
+        int max = Integer.MIN_VALUE;
+        if (hasZero) {
+            max = 0;
+        }
+        for (int key : keys) {
+            if (key != 0 && key > max) {
+                max = key;
+            }
+        }
+        return max;
+    }
+
+    @Override
+    boolean allMatch(IntPredicate predicate) {
+        if (hasZero && !predicate.test(0)) return false;
+        
+        for (int key : keys) {
+            if (key != 0 && !predicate.test(key)) return false;
+        }
+        return true;
+    }
+
+    @Override
+    long sizeInBytes() {
+        return 32 + 4L * keys.length;
+    }
+
+    /**
+     * Shrinks the table to the smallest capacity that holds the elements.
+     */
+    @Override
+    void trimToSize() {
+        int capacity = MIN_CAPACITY;
+        while ((int) (capacity * LOAD_FACTOR) < size) {
+            capacity *= 2;
+        }
+        if (capacity < keys.length) {
+            rehash(capacity);
+        }
+    }
+
+    @Override
+    IntStore emptyCopy() {
+        return new IntHashStore();
+    }
+
+    /**
+     * Spreads the value bits with Fibonacci hashing, mixes in the seed with
+     * a second multiply and keeps the top bits.
+     */
+    private int slot(int value) {
+        return (((value * 0x9E3779B9) ^ seed) * 0x85EBCA6B) >>> shift;
+    }
+
+    private void allocate(int capacity) {
+        keys = new int[capacity];
+        mask = capacity - 1;
+        shift = Integer.numberOfLeadingZeros(mask);
+        threshold = (int) (capacity * LOAD_FACTOR);
+    }
+
+    /**
+     * Moves every key into a table of the given capacity.
+     */
+    private void rehash(int capacity) {
+        int[] oldKeys = keys;
+        allocate(capacity);
+        for (int key : oldKeys) {
+            if (key == 0) continue;
+            
+            int slot = slot(key);
+            while (keys[slot] != 0) {
+                slot = (slot + 1) & mask;
+            }
+            keys[slot] = key;
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,348 @@
+package org.howard.edu.lsp.assignment6;
+
+import java.util.Arrays;
+import java.util.function.IntConsumer;
+import java.util.function.IntPredicate;
+
+/**
+ * A compressed bitmap of ints in the style of Roaring bitmaps.
+ * Values are split into chunks by their high 16 bits, and each chunk that
+ * holds any values keeps their low 16 bits in a {@link RoaringContainer}:
+ * a sorted array, a bitmap or a list of runs, whichever is cheapest.
+ * Chunk keys are kept sorted so that the set operations between two
+ * roaring stores walk both key lists together and combine only the
+ * matching containers, skipping chunks that only one side has.
+ * Keys are the high bits with the sign bit flipped, so that key order is
+ * signed value order.
+ */
+class IntRoaringStore extends IntStore {
+    private char[] keys = new char[4];
+    private RoaringContainer[] containers = new RoaringContainer[4];
+    private int count;
+    private int size;
+
+    /**
+     * Constructs an empty IntRoaringStore.
+     */
+    IntRoaringStore() {
+    }
+
+    private IntRoaringStore(int capacity) {
+        keys = new char[Math.max(4, capacity)];
+        containers = new RoaringContainer[Math.max(4, capacity)];
+    }
+
+    private static int key(int value) {
+        return (value ^ Integer.MIN_VALUE) >>> 16;
+    }
+
+    private static int base(int key) {
+        return (key << 16) ^ Integer.MIN_VALUE;
+    }
+
+    private int indexOf(int key) {
+        return Arrays.binarySearch(keys, 0, count, (char) key);
+    }
+
+    @Override
+    int size() {
+        return size;
+    }
+
+    @Override
+    boolean contains(int value) {
+        int index = indexOf(key(value));
+        return index >= 0 && containers[index].contains(value & 0xFFFF);
+    }
+
+    @Override
+    boolean add(int value) {
+        int key = key(value);
+        int index = indexOf(key);
+        if (index < 0) {
+            index = -index - 1;
+            insert(index, key, new RoaringContainer.ArrayContainer());
+        }
+        
+        RoaringContainer container = containers[index];
+        int before = container.cardinality();
+        containers[index] = container.add(value & 0xFFFF);
+        if (containers[index].cardinality() == before) return false;
+        
+        size++;
+        return true;
+    }
+
+    @Override
+    boolean remove(int value) {
+        int index = indexOf(key(value));
+        if (index < 0) return false;
+        
+        RoaringContainer container = containers[index];
+        int before = container.cardinality();
+        container = container.remove(value & 0xFFFF);
+        if (container.cardinality() == before) return false;
+        
+        size--;
+        if (container.cardinality() == 0) {
+            delete(index);
+        } else {
+            containers[index] = container;
+        }
+        return true;
+    }
+
+    @Override
+    void clear() {
+        keys = new char[4];
+        containers = new RoaringContainer[4];
+        count = 0;
+        size = 0;
+    }
+
+    @Override
+    int min() {
+        return base(keys[0]) | containers[0].first();
+    }
+
+    @Override
+    int max() {
+        return base(keys[count - 1]) | containers[count - 1].last();
+    }
+
+    /**
+     * Visits the elements in ascending order.
+     */
+    @Override
+    boolean allMatch(IntPredicate predicate) {
+        for (int i = 0; i < count; i++) {
+            if (!containers[i].allMatch(base(keys[i]), predicate)) return false;
+        }
+        return true;
+    }
+
+    @Override
+    IntStore emptyCopy() {
+        return new IntRoaringStore();
+    }
+
+    @Override
+    void trimToSize() {
+        for (int i = 0; i < count; i++) {
+            containers[i] = containers[i].optimize();
+        }
+        keys = Arrays.copyOf(keys, Math.max(4, count));
+        containers = Arrays.copyOf(containers, Math.max(4, count));
+    }
+
+    @Override
+    long sizeInBytes() {
+        long bytes = 32 + 2L * keys.length + 8L * containers.length;
+        for (int i = 0; i < count; i++) {
+            bytes += containers[i].sizeInBytes();
+        }
+        return bytes;
+    }
+
+    @Override
+    IntStore union(IntStore other) {
+        if (!(other instanceof IntRoaringStore)) return super.union(other);
+        
+        IntRoaringStore that = (IntRoaringStore) other;
+        IntRoaringStore result = new IntRoaringStore(count + that.count);
+        int i = 0;
+        int j = 0;
+        while (i < count || j < that.count) {
+            int a = i < count ? keys[i] : Integer.MAX_VALUE;
+            int b = j < that.count ? that.keys[j] : Integer.MAX_VALUE;
+            if (a < b) {
+                result.append(a, containers[i++]);
+            } else if (b < a) {
+                result.append(b, that.containers[j++].copy());
+            } else {
+                result.append(a, containers[i++].or(that.containers[j++]));
+            }
+        }
+        return result;
+    }
+
+    @Override
+    IntStore intersect(IntStore other) {
+        if (!(other instanceof IntRoaringStore)) return super.intersect(other);
+        
+        IntRoaringStore that = (IntRoaringStore) other;
+        IntRoaringStore result = new IntRoaringStore(Math.min(count, that.count));
+        int i = 0;
+        int j = 0;
+        while (i < count && j < that.count) {
+            if (keys[i] < that.keys[j]) {
+                i++;
+            } else if (keys[i] > that.keys[j]) {
+                j++;
+            } else {
+                result.append(keys[i], containers[i++].and(that.containers[j++]));
+            }
+        }
+        return result;
+    }
+
+    @Override
+    IntStore diff(IntStore other) {
+        if (!(other instanceof IntRoaringStore)) return super.diff(other);
+        
+        IntRoaringStore that = (IntRoaringStore) other;
+        IntRoaringStore result = new IntRoaringStore(count);
+        int j = 0;
+        for (int i = 0; i < count; i++) {
+            while (j < that.count && that.keys[j] < keys[i]) {
+                j++;
+            }
+            if (j < that.count && that.keys[j] == keys[i]) {
+                result.append(keys[i], containers[i].andNot(that.containers[j]));
+            } else {
+                result.append(keys[i], containers[i]);
+            }
+        }
+        return result;
+    }
+
+    @Override
+    IntStore complement(IntStore other) {
+        if (!(other instanceof IntRoaringStore)) return super.complement(other);
+        
+        IntRoaringStore that = (IntRoaringStore) other;
+        IntRoaringStore result = new IntRoaringStore(that.count);
+        int i = 0;
+        for (int j = 0; j < that.count; j++) {
+            while (i < count && keys[i] < that.keys[j]) {
+                i++;
+            }
+            if (i < count && keys[i] == that.keys[j]) {
+                result.append(that.keys[j], that.containers[j].andNot(containers[i]));
+            } else {
+                result.append(that.keys[j], that.containers[j].copy());
+            }
+        }
+        return result;
+    }
+
+    @Override
+    int intersectionSize(IntStore other) {
+        if (!(other instanceof IntRoaringStore)) return super.intersectionSize(other);
+        
+        IntRoaringStore that = (IntRoaringStore) other;
+        int size = 0;
+        int i = 0;
+        int j = 0;
+        while (i < count && j < that.count) {
+            if (keys[i] < that.keys[j]) {
+                i++;
+            } else if (keys[i] > that.keys[j]) {
+                j++;
+            } else {
+                size += containers[i++].andCardinality(that.containers[j++]);
+            }
+        }
+        return size;
+    }
+
+    /**
+     * Counts whole chunks inside the range by their cardinality and only
+     * searches the containers at either end.
+     */
+    @Override
+    int rangeCount(int lo, int hi) {
+        int loKey = key(lo);
+        int hiKey = key(hi);
+        int total = 0;
+        for (int i = lowerIndex(loKey); i < count && keys[i] <= hiKey; i++) {
+            int from = keys[i] == loKey ? lo & 0xFFFF : 0;
+            int to = keys[i] == hiKey ? hi & 0xFFFF : 0xFFFF;
+            total += from == 0 && to == 0xFFFF
+                ? containers[i].cardinality()
+                : containers[i].rangeCardinality(from, to);
+        }
+        return total;
+    }
+
+    @Override
+    long ceiling(int value) {
+        int index = indexOf(key(value));
+        if (index >= 0) {
+            int low = containers[index].ceiling(value & 0xFFFF);
+            if (low >= 0) return base(keys[index]) | low;
+            
+            index++;
+        } else {
+            index = -index - 1;
+        }
+        return index < count ? base(keys[index]) | containers[index].first() : NONE;
+    }
+
+    @Override
+    long floor(int value) {
+        int index = indexOf(key(value));
+        if (index >= 0) {
+            int low = containers[index].floor(value & 0xFFFF);
+            if (low >= 0) return base(keys[index]) | low;
+            
+            index--;
+        } else {
+            index = -index - 2;
+        }
+        return index >= 0 ? base(keys[index]) | containers[index].last() : NONE;
+    }
+
+    @Override
+    void forEachInRange(int lo, int hi, IntConsumer action) {
+        int hiKey = key(hi);
+        for (int i = lowerIndex(key(lo)); i < count && keys[i] <= hiKey; i++) {
+            containers[i].allMatch(base(keys[i]), value -> {
+                if (value > hi) return false;
+                
+                if (value >= lo) {
+                    action.accept(value);
+                }
+                return true;
+            });
+        }
+    }
+
+    /**
+     * Returns the index of the first chunk whose key is at or above a key.
+     */
+    private int lowerIndex(int key) {
+        int index = indexOf(key);
+        return index >= 0 ? index : -index - 1;
+    }
+
+    /**
+     * Adds a container after every existing one, dropping it if empty.
+     * Used by the set operations, which produce keys in ascending order.
+     */
+    private void append(int key, RoaringContainer container) {
+        if (container.cardinality() == 0) return;
+        
+        insert(count, key, container);
+        size += container.cardinality();
+    }
+
+    private void insert(int index, int key, RoaringContainer container) {
+        if (count == keys.length) {
+            keys = Arrays.copyOf(keys, count * 2);
+            containers = Arrays.copyOf(containers, count * 2);
+        }
+        System.arraycopy(keys, index, keys, index + 1, count - index);
+        System.arraycopy(containers, index, containers, index + 1, count - index);
+        keys[index] = (char) key;
+        containers[index] = container;
+        count++;
+    }
+
+    private void delete(int index) {
+        System.arraycopy(keys, index + 1, keys, index, count - index - 1);
+        System.arraycopy(containers, index + 1, containers, index, count - index - 1);
+        count--;
+        containers[count] = null;
+    }
+}
\ No newline at end of file
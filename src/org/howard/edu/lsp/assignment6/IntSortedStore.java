@@ -0,0 +1,386 @@
+package org.howard.edu.lsp.assignment6;
+
+import java.util.Arrays;
+import java.util.function.IntConsumer;
+import java.util.function.IntPredicate;
+
+/**
+ * A sorted array of primitive ints.
+ * The smallest and largest elements are the ends of the array, membership
+ * and the range queries are binary searches, and the set operations are
+ * merges of two sorted arrays. When one side is much smaller than the
+ * other, the merges gallop: each element of the smaller array is located
+ * in the larger one by an exponential then a binary search starting from
+ * the previous position, and the stretches in between are copied in bulk,
+ * so a small set costs O(m log(n / m)) against a large one instead of O(n).
+ * Adding or removing a single element shifts the tail of the array, so
+ * this representation suits sets built in bulk and then mostly queried.
+ */
+class IntSortedStore extends IntStore {
+    private static final int GALLOP_RATIO = 16;
+
+    private int[] values = new int[8];
+    private int size;
+
+    @Override
+    int size() {
+        return size;
+    }
+
+    @Override
+    boolean contains(int value) {
+        return Arrays.binarySearch(values, 0, size, value) >= 0;
+    }
+
+    @Override
+    boolean add(int value) {
+        int index = Arrays.binarySearch(values, 0, size, value);
+        if (index >= 0) return false;
+        
+        index = -index - 1;
+        if (size == values.length) {
+            values = Arrays.copyOf(values, Math.max(8, size * 2));
+        }
+        System.arraycopy(values, index, values, index + 1, size - index);
+        values[index] = value;
+        size++;
+        return true;
+    }
+
+    @Override
+    boolean remove(int value) {
+        int index = Arrays.binarySearch(values, 0, size, value);
+        if (index < 0) return false;
+        
+        System.arraycopy(values, index + 1, values, index, size - index - 1);
+        size--;
+        return true;
+    }
+
+    @Override
+    void clear() {
+        values = new int[8];
+        size = 0;
+    }
+
+    @Override
+    int min() {
+        return values[0];
+    }
+
+    @Override
+    int max() {
+        return values[size - 1];
+    }
+
+    /**
+     * Visits the elements in ascending order.
+     */
+    @Override
+    boolean allMatch(IntPredicate predicate) {
+        for (int i = 0; i < size; i++) {
+            if (!predicate.test(values[i])) return false;
+        }
+        return true;
+    }
+
+    /**
+     * Returns the elements in ascending order.
+     */
+    @Override
+    int[] toArray() {
+        return Arrays.copyOf(values, size);
+    }
+
+    @Override
+    IntStore emptyCopy() {
+        return new IntSortedStore();
+    }
+
+    @Override
+    long sizeInBytes() {
+        return 24 + 4L * values.length;
+    }
+
+    @Override
+    void trimToSize() {
+        values = Arrays.copyOf(values, size);
+    }
+
+    /**
+     * Merges with the other store's elements, whatever its representation.
+     */
+    @Override
+    IntStore union(IntStore other) {
+        int[] b = sortedValues(other);
+        int[] result = new int[size + other.size()];
+        size = union(values, size, b, other.size(), result);
+        values = result;
+        return this;
+    }
+
+    @Override
+    IntStore intersect(IntStore other) {
+        int[] b = sortedValues(other);
+        int[] result = new int[Math.min(size, other.size())];
+        size = intersect(values, size, b, other.size(), result);
+        values = result;
+        return this;
+    }
+
+    @Override
+    IntStore diff(IntStore other) {
+        int[] b = sortedValues(other);
+        int[] result = new int[size];
+        size = diff(values, size, b, other.size(), result);
+        values = result;
+        return this;
+    }
+
+    @Override
+    IntStore complement(IntStore other) {
+        int[] b = sortedValues(other);
+        int[] result = new int[other.size()];
+        size = diff(b, other.size(), values, size, result);
+        values = result;
+        return this;
+    }
+
+    @Override
+    int intersectionSize(IntStore other) {
+        if (!(other instanceof IntSortedStore)) return super.intersectionSize(other);
+        
+        IntSortedStore that = (IntSortedStore) other;
+        return intersect(values, size, that.values, that.size, null);
+    }
+
+    @Override
+    int rangeCount(int lo, int hi) {
+        return upperBound(hi) - lowerBound(lo);
+    }
+
+    @Override
+    long ceiling(int value) {
+        int index = lowerBound(value);
+        return index < size ? values[index] : NONE;
+    }
+
+    @Override
+    long floor(int value) {
+        int index = upperBound(value) - 1;
+        return index >= 0 ? values[index] : NONE;
+    }
+
+    @Override
+    void forEachInRange(int lo, int hi, IntConsumer action) {
+        for (int i = lowerBound(lo), end = upperBound(hi); i < end; i++) {
+            action.accept(values[i]);
+        }
+    }
+
+    /**
+     * Returns the index of the first element at or above a value.
+     */
+    private int lowerBound(int value) {
+        int index = Arrays.binarySearch(values, 0, size, value);
+        return index >= 0 ? index : -index - 1;
+    }
+
+    /**
+     * Returns the index of the first element above a value.
+     */
+    private int upperBound(int value) {
+        int index = Arrays.binarySearch(values, 0, size, value);
+        return index >= 0 ? index + 1 : -index - 1;
+    }
+
+    /**
+     * Returns the elements of a store as a sorted array, without copying
+     * those of another sorted store.
+     * 
+     * @return the elements in ascending order; only the first size() are valid
+     */
+    private static int[] sortedValues(IntStore store) {
+        if (store instanceof IntSortedStore) {
+            return ((IntSortedStore) store).values;
+        }
+        int[] values = store.toArray();
+        Arrays.sort(values);
+        return values;
+    }
+
+    /**
+     * Finds the first index from a position whose element is at or above a
+     * key, probing 1, 2, 4 and so on elements ahead before a binary search,
+     * so the cost grows with the log of the distance moved.
+     * 
+     * @return the index, or to if every element is below the key
+     */
+    static int gallop(int[] a, int from, int to, int key) {
+        if (from >= to || a[from] >= key) return from;
+        
+        // a[lo] stays below the key
+        int lo = from;
+        int step = 1;
+        int hi = from + 1;
+        while (hi < to && a[hi] < key) {
+            lo = hi;
+            step <<= 1;
+            hi = to - lo > step ? lo + step : to;
+        }
+        
+        lo++;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (a[mid] < key) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return lo;
+    }
+
+    /**
+     * Writes the union of a[0..na) and b[0..nb) to out.
+     * 
+     * @return the number of elements written
+     */
+    static int union(int[] a, int na, int[] b, int nb, int[] out) {
+        if (na < nb) {
+            int[] t = a;
+            a = b;
+            b = t;
+            int n = na;
+            na = nb;
+            nb = n;
+        }
+        
+        int count = 0;
+        int i = 0;
+        int j = 0;
+        if ((long) nb * GALLOP_RATIO < na) {
+            // copy the stretches of a between the elements of b
+            for (; j < nb; j++) {
+                int next = gallop(a, i, na, b[j]);
+                System.arraycopy(a, i, out, count, next - i);
+                count += next - i;
+                out[count++] = b[j];
+                i = next < na && a[next] == b[j] ? next + 1 : next;
+            }
+        } else {
+            while (i < na && j < nb) {
+                int x = a[i];
+                int y = b[j];
+                if (x <= y) {
+                    i++;
+                }
+                if (y <= x) {
+                    j++;
+                }
+                out[count++] = x <= y ? x : y;
+            }
+            System.arraycopy(b, j, out, count, nb - j);
+            count += nb - j;
+        }
+        System.arraycopy(a, i, out, count, na - i);
+        return count + na - i;
+    }
+
+    /**
+     * Writes the intersection of a[0..na) and b[0..nb) to out, or only
+     * counts it when out is null.
+     * 
+     * @return the number of elements in the intersection
+     */
+    static int intersect(int[] a, int na, int[] b, int nb, int[] out) {
+        if (na > nb) {
+            int[] t = a;
+            a = b;
+            b = t;
+            int n = na;
+            na = nb;
+            nb = n;
+        }
+        
+        int count = 0;
+        int i = 0;
+        int j = 0;
+        if ((long) na * GALLOP_RATIO < nb) {
+            for (; i < na; i++) {
+                j = gallop(b, j, nb, a[i]);
+                if (j == nb) break;
+                
+                if (b[j] == a[i]) {
+                    if (out != null) {
+                        out[count] = a[i];
+                    }
+                    count++;
+                }
+            }
+            return count;
+        }
+        
+        while (i < na && j < nb) {
+            int x = a[i];
+            int y = b[j];
+            if (x < y) {
+                i++;
+            } else if (y < x) {
+                j++;
+            } else {
+                if (out != null) {
+                    out[count] = x;
+                }
+                count++;
+                i++;
+                j++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Writes the elements of a[0..na) that are not in b[0..nb) to out.
+     * 
+     * @return the number of elements written
+     */
+    static int diff(int[] a, int na, int[] b, int nb, int[] out) {
+        int count = 0;
+        int i = 0;
+        int j = 0;
+        if ((long) nb * GALLOP_RATIO < na) {
+            // copy the stretches of a between the elements of b
+            for (; j < nb; j++) {
+                int next = gallop(a, i, na, b[j]);
+                System.arraycopy(a, i, out, count, next - i);
+                count += next - i;
+                i = next < na && a[next] == b[j] ? next + 1 : next;
+            }
+        } else if ((long) na * GALLOP_RATIO < nb) {
+            for (; i < na; i++) {
+                j = gallop(b, j, nb, a[i]);
+                if (j == nb || b[j] != a[i]) {
+                    out[count++] = a[i];
+                }
+            }
+            return count;
+        } else {
+            while (i < na && j < nb) {
+                int x = a[i];
+                int y = b[j];
+                if (x < y) {
+                    out[count++] = x;
+                    i++;
+                } else {
+                    if (x == y) {
+                        i++;
+                    }
+                    j++;
+                }
+            }
+        }
+        System.arraycopy(a, i, out, count, na - i);
+        return count + na - i;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,276 @@
+package org.howard.edu.lsp.assignment6;
+
+import java.util.Arrays;
+import java.util.function.IntConsumer;
+import java.util.function.IntPredicate;
+
+/**
+ * Storage behind an IntegerSet. Implementations hold primitive ints, so no
+ * element is boxed. The bulk operations may update this store in place or
+ * build a new one, so callers must keep the store they return.
+ * The generic versions here work with any pair of stores through
+ * contains and iteration; implementations override them when both stores
+ * share a layout that allows something faster.
+ */
+abstract class IntStore {
+    /** Returned by ceiling and floor when there is no such element. */
+    static final long NONE = Long.MIN_VALUE;
+
+    /**
+     * Returns the number of elements.
+     * 
+     * @return the number of elements
+     */
+    abstract int size();
+
+    /**
+     * Returns true if the value is present.
+     * 
+     * @param value the value to look up
+     * @return true if the value is present
+     */
+    abstract boolean contains(int value);
+
+    /**
+     * Adds a value.
+     * 
+     * @param value the value to add
+     * @return true if the value was not present before
+     */
+    abstract boolean add(int value);
+
+    /**
+     * Removes a value.
+     * 
+     * @param value the value to remove
+     * @return true if the value was present
+     */
+    abstract boolean remove(int value);
+
+    /**
+     * Removes every element.
+     */
+    abstract void clear();
+
+    /**
+     * Returns the smallest element. The store must not be empty.
+     * 
+     * @return the smallest element
+     */
+    abstract int min();
+
+    /**
+     * Returns the largest element. The store must not be empty.
+     * 
+     * @return the largest element
+     */
+    abstract int max();
+
+    /**
+     * Passes elements to a predicate until it returns false.
+     * The order is up to the implementation.
+     * 
+     * @param predicate the predicate receiving each element
+     * @return true if every element was visited
+     */
+    abstract boolean allMatch(IntPredicate predicate);
+
+    /**
+     * Returns a new empty store of the same kind.
+     * 
+     * @return the empty store
+     */
+    abstract IntStore emptyCopy();
+
+    /**
+     * Returns the approximate heap size of the store in bytes.
+     * 
+     * @return the size
+     */
+    abstract long sizeInBytes();
+
+    /**
+     * Releases spare capacity and picks the most compact layout for the
+     * current elements. Does nothing unless an implementation overrides it.
+     */
+    void trimToSize() {
+    }
+
+    /**
+     * Passes every element to an action.
+     * 
+     * @param action the action receiving each element
+     */
+    void forEach(IntConsumer action) {
+        allMatch(value -> {
+            action.accept(value);
+            return true;
+        });
+    }
+
+    /**
+     * Returns the elements in no particular order.
+     * 
+     * @return a new array of the elements
+     */
+    int[] toArray() {
+        int[] values = new int[size()];
+        int[] count = new int[1];
+        forEach(value -> values[count[0]++] = value);
+        return values;
+    }
+
+    /**
+     * Adds every element of another store.
+     * 
+     * @param other the store to add, which must not be this store
+     * @return the store holding the union
+     */
+    IntStore union(IntStore other) {
+        other.forEach(this::add);
+        return this;
+    }
+
+    /**
+     * Keeps only the elements also in another store.
+     * 
+     * @param other the store to intersect with, which must not be this store
+     * @return the store holding the intersection
+     */
+    IntStore intersect(IntStore other) {
+        IntStore result = emptyCopy();
+        forEach(value -> {
+            if (other.contains(value)) {
+                result.add(value);
+            }
+        });
+        return result;
+    }
+
+    /**
+     * Removes every element of another store.
+     * 
+     * @param other the store to subtract, which must not be this store
+     * @return the store holding the difference
+     */
+    IntStore diff(IntStore other) {
+        if (other.size() <= size()) {
+            other.forEach(this::remove);
+            return this;
+        }
+        
+        IntStore result = emptyCopy();
+        forEach(value -> {
+            if (!other.contains(value)) {
+                result.add(value);
+            }
+        });
+        return result;
+    }
+
+    /**
+     * Counts the elements also in another store without building the
+     * intersection, by looking up each element of the smaller store in the larger.
+     * 
+     * @param other the store to intersect with
+     * @return the size of the intersection
+     */
+    int intersectionSize(IntStore other) {
+        IntStore smaller = size() <= other.size() ? this : other;
+        IntStore larger = smaller == this ? other : this;
+        int[] count = new int[1];
+        smaller.forEach(value -> {
+            if (larger.contains(value)) {
+                count[0]++;
+            }
+        });
+        return count[0];
+    }
+
+    /**
+     * Counts the elements from lo to hi inclusive.
+     * 
+     * @param lo the smallest value counted
+     * @param hi the largest value counted, not below lo
+     * @return the number of elements in the range
+     */
+    int rangeCount(int lo, int hi) {
+        int[] count = new int[1];
+        forEach(value -> {
+            if (value >= lo && value <= hi) {
+                count[0]++;
+            }
+        });
+        return count[0];
+    }
+
+    /**
+     * Finds the smallest element at or above a value.
+     * 
+     * @param value the value to search from
+     * @return the element, or {@link #NONE}
+     */
+    long ceiling(int value) {
+        long[] best = {NONE};
+        forEach(element -> {
+            if (element >= value && (best[0] == NONE || element < best[0])) {
+                best[0] = element;
+            }
+        });
+        return best[0];
+    }
+
+    /**
+     * Finds the largest element at or below a value.
+     * 
+     * @param value the value to search from
+     * @return the element, or {@link #NONE}
+     */
+    long floor(int value) {
+        long[] best = {NONE};
+        forEach(element -> {
+            if (element <= value && element > best[0]) {
+                best[0] = element;
+            }
+        });
+        return best[0];
+    }
+
+    /**
+     * Passes the elements from lo to hi inclusive to an action in ascending order.
+     * This version collects and sorts them first.
+     * 
+     * @param lo the smallest value visited
+     * @param hi the largest value visited, not below lo
+     * @param action the action receiving each element
+     */
+    void forEachInRange(int lo, int hi, IntConsumer action) {
+        int[] values = new int[rangeCount(lo, hi)];
+        int[] count = new int[1];
+        forEach(value -> {
+            if (value >= lo && value <= hi) {
+                values[count[0]++] = value;
+            }
+        });
+        Arrays.sort(values);
+        for (int value : values) {
+            action.accept(value);
+        }
+    }
+
+    /**
+     * Replaces the elements with those of another store that are not in this one.
+     * 
+     * @param other the store to take elements from, which must not be this store
+     * @return the store holding other minus this
+     */
+    IntStore complement(IntStore other) {
+        IntStore result = emptyCopy();
+        other.forEach(value -> {
+            if (!contains(value)) {
+                result.add(value);
+            }
+        });
+        return result;
+    }
+}
\ No newline at end of file
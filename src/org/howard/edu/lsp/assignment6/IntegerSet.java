@@ -1,14 +1,86 @@
 package org.howard.edu.lsp.assignment6;
 
-import java.util.ArrayList;
-import java.util.List;
+import java.util.Arrays;
+import java.util.function.IntConsumer;
 
 /**
  * Represents a mathematical set of integers with standard set operations.
- * This class uses an ArrayList to store elements and ensures no duplicates.
+ * Elements are stored as primitive ints in one of several representations
+ * chosen when the set is constructed. The default hash table makes
+ * membership tests, adds and removes constant time, and the set operations
+ * are linear in the set sizes.
  */
 public class IntegerSet {
-    private List<Integer> set = new ArrayList<Integer>();
+    /**
+     * The ways an IntegerSet can store its elements.
+     */
+    public enum Representation {
+        /** An open-addressing hash table; suits values spread over any range. */
+        HASH,
+        /** A bitset spanning the smallest to the largest value; suits values packed into a compact range. */
+        BITMAP,
+        /**
+         * A compressed bitmap split into 65536-value chunks, each held as an
+         * array, a bitmap or runs; suits clustered values with dense blocks and long runs.
+         */
+        ROARING,
+        /**
+         * A sorted int array with binary-search lookups and merge-based set
+         * operations; suits sets built in bulk and then queried, especially by range.
+         */
+        SORTED
+    }
+
+    private Representation representation;
+    private IntStore set;
+
+    /**
+     * Constructs an empty set backed by a hash table.
+     */
+    public IntegerSet() {
+        this(Representation.HASH);
+    }
+
+    /**
+     * Constructs an empty set with the given representation.
+     * 
+     * @param representation how the elements are stored
+     */
+    public IntegerSet(Representation representation) {
+        this.representation = representation;
+        this.set = newStore(representation);
+    }
+
+    private static IntStore newStore(Representation representation) {
+        switch (representation) {
+            case BITMAP:
+                return new IntBitmapStore();
+            case ROARING:
+                return new IntRoaringStore();
+            case SORTED:
+                return new IntSortedStore();
+            default:
+                return new IntHashStore();
+        }
+    }
+
+    /**
+     * Returns the storage of this set, for ConcurrentIntegerSet.
+     * 
+     * @return the store
+     */
+    IntStore store() {
+        return set;
+    }
+
+    /**
+     * Returns how the elements of this set are stored.
+     * 
+     * @return the representation
+     */
+    public Representation getRepresentation() {
+        return representation;
+    }
 
     /**
      * Clears the internal representation of the set.
@@ -47,12 +119,20 @@ public class IntegerSet {
         }
         
         // Check if all elements in this set are contained in the other set
-        for (Integer element : set) {
-            if (!otherSet.contains(element)) {
-                return false;
-            }
-        }
-        return true;
+        return set.allMatch(otherSet::contains);
+    }
+
+    /**
+     * Returns a hash code consistent with equals: the sum of the elements,
+     * which does not depend on their order or on the representation.
+     * 
+     * @return the hash code
+     */
+    @Override
+    public int hashCode() {
+        int[] sum = new int[1];
+        set.forEach(element -> sum[0] += element);
+        return sum[0];
     }
 
     /**
@@ -75,14 +155,7 @@ public class IntegerSet {
         if (isEmpty()) {
             throw new IllegalStateException("Set is empty");
         }
-        
-        int max = set.get(0);
-        for (int i = 1; i < set.size(); i++) {
-            if (set.get(i) > max) {
-                max = set.get(i);
-            }
-        }
-        return max;
+        return set.max();
     }
 
     /**
@@ -95,14 +168,60 @@ public class IntegerSet {
         if (isEmpty()) {
             throw new IllegalStateException("Set is empty");
         }
-        
-        int min = set.get(0);
-        for (int i = 1; i < set.size(); i++) {
-            if (set.get(i) < min) {
-                min = set.get(i);
-            }
+        return set.min();
+    }
+
+    /**
+     * Returns the number of elements from lo to hi inclusive.
+     * SORTED sets answer with two binary searches, and BITMAP and ROARING
+     * sets count bits without visiting the elements one by one.
+     * 
+     * @param lo the smallest value counted
+     * @param hi the largest value counted
+     * @return the number of elements in the range, 0 if lo is above hi
+     */
+    public int rangeCount(int lo, int hi) {
+        if (lo > hi) {
+            return 0;
+        }
+        return set.rangeCount(lo, hi);
+    }
+
+    /**
+     * Returns the smallest element greater than or equal to the value,
+     * like NavigableSet.ceiling.
+     * 
+     * @param value the value to search from
+     * @return the element, or null if there is none
+     */
+    public Integer ceiling(int value) {
+        long element = set.ceiling(value);
+        return element == IntStore.NONE ? null : (int) element;
+    }
+
+    /**
+     * Returns the largest element less than or equal to the value,
+     * like NavigableSet.floor.
+     * 
+     * @param value the value to search from
+     * @return the element, or null if there is none
+     */
+    public Integer floor(int value) {
+        long element = set.floor(value);
+        return element == IntStore.NONE ? null : (int) element;
+    }
+
+    /**
+     * Passes each element from lo to hi inclusive to the action in ascending order.
+     * 
+     * @param lo the smallest value visited
+     * @param hi the largest value visited
+     * @param action the action receiving each element
+     */
+    public void forEachInRange(int lo, int hi, IntConsumer action) {
+        if (lo <= hi) {
+            set.forEachInRange(lo, hi, action);
         }
-        return min;
     }
 
     /**
@@ -111,9 +230,7 @@ public class IntegerSet {
      * @param item the item to add to the set
      */
     public void add(int item) {
-        if (!set.contains(item)) {
-            set.add(item);
-        }
+        set.add(item);
     }
 
     /**
@@ -122,8 +239,7 @@ public class IntegerSet {
      * @param item the item to remove from the set
      */
     public void remove(int item) {
-        // Using Integer.valueOf to avoid removing by index
-        set.remove(Integer.valueOf(item));
+        set.remove(item);
     }
 
     /**
@@ -132,11 +248,8 @@ public class IntegerSet {
      * @param other the other IntegerSet to union with
      */
     public void union(IntegerSet other) {
-        for (int i = 0; i < other.length(); i++) {
-            int element = other.set.get(i);
-            if (!this.contains(element)) {
-                this.add(element);
-            }
+        if (other != this) {
+            set = set.union(other.set);
         }
     }
 
@@ -146,13 +259,24 @@ public class IntegerSet {
      * @param other the other IntegerSet to intersect with
      */
     public void intersect(IntegerSet other) {
-        List<Integer> intersection = new ArrayList<>();
-        for (Integer element : set) {
-            if (other.contains(element)) {
-                intersection.add(element);
-            }
+        if (other != this) {
+            set = set.intersect(other.set);
+        }
+    }
+
+    /**
+     * Returns the number of elements in both this set and other, without
+     * building the intersection or modifying either set. Between two
+     * BITMAP or two ROARING sets this counts bits word by word.
+     * 
+     * @param other the other IntegerSet to intersect with
+     * @return the size of the intersection
+     */
+    public int intersectionSize(IntegerSet other) {
+        if (other == this) {
+            return length();
         }
-        set = intersection;
+        return set.intersectionSize(other.set);
     }
 
     /**
@@ -161,9 +285,10 @@ public class IntegerSet {
      * @param other the other IntegerSet to subtract
      */
     public void diff(IntegerSet other) {
-        for (int i = 0; i < other.length(); i++) {
-            int element = other.set.get(i);
-            this.remove(element);
+        if (other == this) {
+            clear();
+        } else {
+            set = set.diff(other.set);
         }
     }
 
@@ -173,14 +298,30 @@ public class IntegerSet {
      * @param other the other IntegerSet to use for complement
      */
     public void complement(IntegerSet other) {
-        List<Integer> complement = new ArrayList<>();
-        for (int i = 0; i < other.length(); i++) {
-            int element = other.set.get(i);
-            if (!this.contains(element)) {
-                complement.add(element);
-            }
+        if (other == this) {
+            clear();
+        } else {
+            set = set.complement(other.set);
         }
-        set = complement;
+    }
+
+    /**
+     * Shrinks the storage of the set to fit its current elements, like
+     * ArrayList.trimToSize. A ROARING set also converts each chunk to its
+     * cheapest container, which turns stretches of consecutive values added
+     * one at a time into runs.
+     */
+    public void trimToSize() {
+        set.trimToSize();
+    }
+
+    /**
+     * Returns the approximate heap size of the set's storage in bytes.
+     * 
+     * @return the size in bytes
+     */
+    long sizeInBytes() {
+        return set.sizeInBytes();
     }
 
     /**
@@ -189,17 +330,20 @@ public class IntegerSet {
      * @return true if the set is empty, false otherwise
      */
     public boolean isEmpty() {
-        return set.isEmpty();
+        return set.size() == 0;
     }
 
     /**
-     * Returns a String representation of the set.
+     * Returns a String representation of the set with the elements in
+     * ascending order, whatever the representation.
      * Overrides Object.toString().
      * 
      * @return string representation of the set in format [1, 2, 3]
      */
     @Override
     public String toString() {
-        return set.toString();
+        int[] elements = set.toArray();
+        Arrays.sort(elements);
+        return Arrays.toString(elements);
     }
 }
\ No newline at end of file
@@ -1,6 +1,12 @@
 package org.howard.edu.lsp.assignment6;
 
 import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.TreeSet;
+
 import org.junit.Before;
 import org.junit.Test;
 
@@ -233,4 +239,377 @@ public class IntegerSetTest {
         testSet.add(2);
         assertEquals(2, testSet.length());
     }
+
+    @Test
+    public void testToStringIsSorted() {
+        IntegerSet testSet = new IntegerSet();
+        testSet.add(42);
+        testSet.add(-7);
+        testSet.add(0);
+        testSet.add(3);
+        assertEquals("[-7, 0, 3, 42]", testSet.toString());
+    }
+
+    @Test
+    public void testEqualsAcrossRepresentations() {
+        IntegerSet bitmap = new IntegerSet(IntegerSet.Representation.BITMAP);
+        bitmap.add(3);
+        bitmap.add(2);
+        bitmap.add(1);
+        assertEquals(IntegerSet.Representation.BITMAP, bitmap.getRepresentation());
+        assertTrue(set1.equals(bitmap));
+        assertTrue(bitmap.equals(set1));
+        assertEquals(set1.hashCode(), bitmap.hashCode());
+        assertEquals("[1, 2, 3]", bitmap.toString());
+    }
+
+    @Test
+    public void testOperationsWithItself() {
+        set1.union(set1);
+        set1.intersect(set1);
+        assertEquals(3, set1.length());
+        
+        set1.diff(set1);
+        assertTrue(set1.isEmpty());
+        
+        set2.complement(set2);
+        assertTrue(set2.isEmpty());
+    }
+
+    @Test
+    public void testRepresentationsMatchTreeSet() {
+        Random random = new Random(21);
+        for (IntegerSet.Representation representation : IntegerSet.Representation.values()) {
+            IntegerSet testSet = new IntegerSet(representation);
+            TreeSet<Integer> expected = new TreeSet<>();
+            
+            // a narrow range makes adds and removes collide often
+            for (int i = 0; i < 20000; i++) {
+                int value = random.nextInt(2000) - 1000;
+                if (random.nextInt(3) == 0) {
+                    testSet.remove(value);
+                    expected.remove(value);
+                } else {
+                    testSet.add(value);
+                    expected.add(value);
+                }
+                assertEquals(expected.contains(value), testSet.contains(value));
+            }
+            assertEquals(expected.size(), testSet.length());
+            assertEquals(expected.toString(), testSet.toString());
+            assertEquals((int) expected.first(), testSet.smallest());
+            assertEquals((int) expected.last(), testSet.largest());
+            
+            for (IntegerSet.Representation otherRepresentation : IntegerSet.Representation.values()) {
+                IntegerSet other = new IntegerSet(otherRepresentation);
+                TreeSet<Integer> otherExpected = new TreeSet<>();
+                for (int i = 0; i < 1500; i++) {
+                    int value = random.nextInt(3000) - 1500;
+                    other.add(value);
+                    otherExpected.add(value);
+                }
+                
+                IntegerSet result = new IntegerSet(representation);
+                result.union(testSet);
+                result.intersect(other);
+                TreeSet<Integer> intersection = new TreeSet<>(expected);
+                intersection.retainAll(otherExpected);
+                assertEquals(intersection.toString(), result.toString());
+                
+                result.union(other);
+                assertEquals(otherExpected.toString(), result.toString());
+                
+                result.diff(testSet);
+                TreeSet<Integer> difference = new TreeSet<>(otherExpected);
+                difference.removeAll(expected);
+                assertEquals(difference.toString(), result.toString());
+                
+                result.complement(other);
+                assertEquals(intersection.toString(), result.toString());
+            }
+        }
+    }
+
+    @Test(timeout = 10000)
+    public void testCopyingLargeHashSetStaysFast() {
+        // copying in slot order must not pile the keys into one probe cluster
+        IntegerSet source = new IntegerSet();
+        for (int i = 0; i < 1000000; i++) {
+            source.add(i * 7);
+        }
+        IntegerSet copy = new IntegerSet();
+        copy.union(source);
+        copy.intersect(source);
+        assertEquals(source, copy);
+    }
+
+    /**
+     * Fills a set with clustered values: long runs, a dense block and scattered values.
+     */
+    private static IntegerSet clustered(IntegerSet.Representation representation, int seed) {
+        Random random = new Random(seed);
+        IntegerSet clustered = new IntegerSet(representation);
+        for (int run = 0; run < 20; run++) {
+            int start = random.nextInt(1 << 22) - (1 << 21);
+            int length = random.nextInt(200000);
+            for (int value = start; value < start + length; value++) {
+                clustered.add(value);
+            }
+        }
+        for (int i = 0; i < 30000; i++) {
+            clustered.add((1 << 23) + random.nextInt(50000));
+        }
+        for (int i = 0; i < 3000; i++) {
+            clustered.add(random.nextInt());
+        }
+        return clustered;
+    }
+
+    @Test
+    public void testRoaringMatchesHashOnClusteredData() {
+        IntegerSet roaring = clustered(IntegerSet.Representation.ROARING, 1);
+        IntegerSet hash = clustered(IntegerSet.Representation.HASH, 1);
+        assertEquals(hash, roaring);
+        assertEquals(hash.toString(), roaring.toString());
+        assertEquals(hash.smallest(), roaring.smallest());
+        assertEquals(hash.largest(), roaring.largest());
+        
+        // runs take a few bytes per run instead of a hash slot per value
+        roaring.trimToSize();
+        hash.trimToSize();
+        assertEquals(hash, roaring);
+        assertTrue(roaring.sizeInBytes() * 20 < hash.sizeInBytes());
+        
+        IntegerSet roaringOther = clustered(IntegerSet.Representation.ROARING, 2);
+        IntegerSet hashOther = clustered(IntegerSet.Representation.HASH, 2);
+        IntegerSet roaringResult = new IntegerSet(IntegerSet.Representation.ROARING);
+        IntegerSet hashResult = new IntegerSet();
+        
+        roaringResult.union(roaring);
+        hashResult.union(hash);
+        roaringResult.intersect(roaringOther);
+        hashResult.intersect(hashOther);
+        assertEquals(hashResult, roaringResult);
+        
+        roaringResult.union(roaringOther);
+        hashResult.union(hashOther);
+        assertEquals(hashOther, roaringResult);
+        
+        roaringResult.diff(roaring);
+        hashResult.diff(hash);
+        assertEquals(hashResult, roaringResult);
+        
+        roaringResult.complement(roaringOther);
+        hashResult.complement(hashOther);
+        assertEquals(hashResult, roaringResult);
+        assertEquals(hashResult.length(), roaringResult.length());
+    }
+
+    @Test
+    public void testRoaringContainersConvert() {
+        IntegerSet roaring = new IntegerSet(IntegerSet.Representation.ROARING);
+        TreeSet<Integer> expected = new TreeSet<>();
+        for (int value = 0; value < 60000; value++) {
+            if (value % 1000 < 900) {
+                roaring.add(value);
+                expected.add(value);
+            }
+        }
+        roaring.trimToSize();
+        
+        // punch holes into the runs until the chunk falls back to an array
+        Random random = new Random(5);
+        for (int i = 0; i < 200000; i++) {
+            int value = random.nextInt(65536);
+            if (random.nextInt(4) == 0) {
+                roaring.add(value);
+                expected.add(value);
+            } else {
+                roaring.remove(value);
+                expected.remove(value);
+            }
+            if (i % 20000 == 0) {
+                roaring.trimToSize();
+            }
+        }
+        assertEquals(expected.size(), roaring.length());
+        assertEquals(expected.toString(), roaring.toString());
+        assertEquals((int) expected.first(), roaring.smallest());
+        assertEquals((int) expected.last(), roaring.largest());
+    }
+
+    @Test
+    public void testIntersectionSizeMatchesIntersect() {
+        Random random = new Random(23);
+        IntegerSet.Representation[] representations = IntegerSet.Representation.values();
+        for (IntegerSet.Representation first : representations) {
+            for (IntegerSet.Representation second : representations) {
+                IntegerSet a = new IntegerSet(first);
+                IntegerSet b = new IntegerSet(second);
+                for (IntegerSet set : new IntegerSet[] {a, b}) {
+                    for (int run = 0; run < 10; run++) {
+                        int start = random.nextInt(400000) - 200000;
+                        for (int value = start; value < start + random.nextInt(20000); value++) {
+                            set.add(value);
+                        }
+                    }
+                    for (int i = 0; i < 5000; i++) {
+                        set.add(random.nextInt(400000) - 200000);
+                    }
+                    set.trimToSize();
+                }
+                
+                IntegerSet intersection = new IntegerSet(first);
+                intersection.union(a);
+                intersection.intersect(b);
+                assertEquals(intersection.length(), a.intersectionSize(b));
+                assertEquals(intersection.length(), b.intersectionSize(a));
+                assertEquals(a.length(), a.intersectionSize(a));
+            }
+        }
+    }
+
+    @Test
+    public void testBitmapOperationsOnDisjointRanges() {
+        IntegerSet low = new IntegerSet(IntegerSet.Representation.BITMAP);
+        IntegerSet high = new IntegerSet(IntegerSet.Representation.BITMAP);
+        for (int value = -500; value < -100; value++) {
+            low.add(value);
+        }
+        for (int value = 10000; value < 10300; value++) {
+            high.add(value);
+        }
+        assertEquals(0, low.intersectionSize(high));
+        
+        IntegerSet both = new IntegerSet(IntegerSet.Representation.BITMAP);
+        both.union(high);
+        both.union(low);
+        assertEquals(700, both.length());
+        assertEquals(-500, both.smallest());
+        assertEquals(10299, both.largest());
+        
+        both.diff(low);
+        assertEquals(high, both);
+        
+        both.complement(low);
+        assertEquals(low, both);
+        
+        both.intersect(high);
+        assertTrue(both.isEmpty());
+        both.add(7);
+        assertEquals("[7]", both.toString());
+    }
+
+    @Test
+    public void testRangeQueriesMatchTreeSet() {
+        Random random = new Random(24);
+        for (IntegerSet.Representation representation : IntegerSet.Representation.values()) {
+            IntegerSet testSet = new IntegerSet(representation);
+            TreeSet<Integer> expected = new TreeSet<>();
+            for (int run = 0; run < 30; run++) {
+                int start = random.nextInt(300000) - 150000;
+                int length = random.nextInt(3000);
+                int step = 1 + random.nextInt(3);
+                for (int value = start; value < start + length; value += step) {
+                    testSet.add(value);
+                    expected.add(value);
+                }
+            }
+            testSet.trimToSize();
+            
+            for (int query = 0; query < 2000; query++) {
+                int lo = random.nextInt(320000) - 160000;
+                int hi = lo + random.nextInt(query % 2 == 0 ? 100 : 100000);
+                assertEquals(expected.subSet(lo, true, hi, true).size(), testSet.rangeCount(lo, hi));
+                assertEquals(expected.ceiling(lo), testSet.ceiling(lo));
+                assertEquals(expected.floor(lo), testSet.floor(lo));
+                
+                if (query % 100 == 0) {
+                    List<Integer> visited = new ArrayList<>();
+                    testSet.forEachInRange(lo, hi, visited::add);
+                    assertEquals(new ArrayList<>(expected.subSet(lo, true, hi, true)), visited);
+                }
+            }
+            assertEquals(0, testSet.rangeCount(10, 9));
+            assertEquals(testSet.length(), testSet.rangeCount(Integer.MIN_VALUE, Integer.MAX_VALUE));
+            assertNull(testSet.ceiling(expected.last() + 1));
+            assertNull(testSet.floor(expected.first() - 1));
+        }
+    }
+
+    @Test
+    public void testRangeQueriesAtIntegerLimits() {
+        for (IntegerSet.Representation representation : IntegerSet.Representation.values()) {
+            if (representation == IntegerSet.Representation.BITMAP) continue; // would span the whole int range
+            
+            IntegerSet testSet = new IntegerSet(representation);
+            testSet.add(Integer.MIN_VALUE);
+            testSet.add(-1);
+            testSet.add(0);
+            testSet.add(Integer.MAX_VALUE);
+            assertEquals(Integer.MIN_VALUE, testSet.smallest());
+            assertEquals(Integer.MAX_VALUE, testSet.largest());
+            assertEquals(4, testSet.rangeCount(Integer.MIN_VALUE, Integer.MAX_VALUE));
+            assertEquals(2, testSet.rangeCount(-1, 0));
+            assertEquals(Integer.valueOf(Integer.MAX_VALUE), testSet.ceiling(1));
+            assertEquals(Integer.valueOf(Integer.MIN_VALUE), testSet.floor(-2));
+            assertEquals("[-2147483648, -1, 0, 2147483647]", testSet.toString());
+        }
+    }
+
+    @Test
+    public void testSortedMergesGallopOnUnevenSizes() {
+        Random random = new Random(25);
+        IntegerSet large = new IntegerSet(IntegerSet.Representation.SORTED);
+        TreeSet<Integer> largeExpected = new TreeSet<>();
+        for (int i = 0; i < 100000; i++) {
+            int value = random.nextInt(1000000);
+            large.add(value);
+            largeExpected.add(value);
+        }
+        IntegerSet small = new IntegerSet(IntegerSet.Representation.SORTED);
+        TreeSet<Integer> smallExpected = new TreeSet<>();
+        for (Integer value : largeExpected) {
+            if (random.nextInt(5000) == 0) {
+                small.add(value);
+                smallExpected.add(value);
+            }
+        }
+        for (int i = 0; i < 20; i++) {
+            int value = random.nextInt(1000000);
+            small.add(value);
+            smallExpected.add(value);
+        }
+        
+        TreeSet<Integer> intersection = new TreeSet<>(smallExpected);
+        intersection.retainAll(largeExpected);
+        assertEquals(intersection.size(), small.intersectionSize(large));
+        assertEquals(intersection.size(), large.intersectionSize(small));
+        
+        IntegerSet result = new IntegerSet(IntegerSet.Representation.SORTED);
+        result.union(large);
+        result.intersect(small);
+        assertEquals(intersection.toString(), result.toString());
+        
+        result.union(large);
+        result.union(small);
+        TreeSet<Integer> union = new TreeSet<>(largeExpected);
+        union.addAll(smallExpected);
+        assertEquals(union.toString(), result.toString());
+        
+        result.diff(small);
+        TreeSet<Integer> difference = new TreeSet<>(union);
+        difference.removeAll(smallExpected);
+        assertEquals(difference.toString(), result.toString());
+        
+        IntegerSet smallCopy = new IntegerSet(IntegerSet.Representation.SORTED);
+        smallCopy.union(small);
+        smallCopy.diff(large);
+        TreeSet<Integer> smallDifference = new TreeSet<>(smallExpected);
+        smallDifference.removeAll(largeExpected);
+        assertEquals(smallDifference.toString(), smallCopy.toString());
+        
+        smallCopy.complement(large);
+        assertEquals(largeExpected.toString(), smallCopy.toString());
+    }
 }
\ No newline at end of file
@@ -0,0 +1,812 @@
+package org.howard.edu.lsp.assignment6;
+
+import java.util.Arrays;
+import java.util.function.IntPredicate;
+
+/**
+ * The values of one 65536-wide chunk of an {@link IntRoaringStore}, held as
+ * their low 16 bits. A chunk is stored as a sorted array of values, a
+ * bitmap or a list of runs, whichever suits its contents: arrays for up to
+ * 4096 scattered values, bitmaps for denser chunks, and runs for long
+ * stretches of consecutive values.
+ * Adds and removes may return a different kind of container, and the set
+ * operations always return a new one, so callers must keep the returned container.
+ */
+abstract class RoaringContainer {
+    /** The largest cardinality kept in an array container; beyond it a bitmap is smaller. */
+    static final int MAX_ARRAY = 4096;
+    /** The number of 64-bit words in a bitmap container. */
+    static final int WORDS = 1024;
+
+    /**
+     * Returns the number of values.
+     * 
+     * @return the cardinality
+     */
+    abstract int cardinality();
+
+    /**
+     * Returns true if the low bits of a value are present.
+     * 
+     * @param low the low 16 bits, from 0 to 65535
+     * @return true if present
+     */
+    abstract boolean contains(int low);
+
+    /**
+     * Adds a value.
+     * 
+     * @param low the low 16 bits, from 0 to 65535
+     * @return the container holding the result
+     */
+    abstract RoaringContainer add(int low);
+
+    /**
+     * Removes a value.
+     * 
+     * @param low the low 16 bits, from 0 to 65535
+     * @return the container holding the result
+     */
+    abstract RoaringContainer remove(int low);
+
+    /**
+     * Returns the smallest low value. The container must not be empty.
+     * 
+     * @return the smallest value
+     */
+    abstract int first();
+
+    /**
+     * Returns the largest low value. The container must not be empty.
+     * 
+     * @return the largest value
+     */
+    abstract int last();
+
+    /**
+     * Passes each value in ascending order, combined with the chunk's high
+     * bits, to a predicate until it returns false.
+     * 
+     * @param base the high bits of the chunk with the low 16 bits zero
+     * @param predicate the predicate receiving each value
+     * @return true if every value was visited
+     */
+    abstract boolean allMatch(int base, IntPredicate predicate);
+
+    /**
+     * Returns the values as a new bitmap of {@link #WORDS} words.
+     * 
+     * @return the bitmap
+     */
+    abstract long[] toWords();
+
+    /**
+     * Counts the values from lo to hi inclusive.
+     * 
+     * @param lo the smallest low value counted
+     * @param hi the largest low value counted
+     * @return the count
+     */
+    abstract int rangeCardinality(int lo, int hi);
+
+    /**
+     * Finds the smallest value at or above a low value.
+     * 
+     * @param low the low value to search from
+     * @return the value, or -1 if there is none
+     */
+    abstract int ceiling(int low);
+
+    /**
+     * Finds the largest value at or below a low value.
+     * 
+     * @param low the low value to search from
+     * @return the value, or -1 if there is none
+     */
+    abstract int floor(int low);
+
+    /**
+     * Returns the values as a bitmap of {@link #WORDS} words that the caller
+     * must not modify. Bitmap containers return their own words.
+     * 
+     * @return the bitmap
+     */
+    long[] words() {
+        return toWords();
+    }
+
+    /**
+     * Returns the approximate heap size of the container in bytes.
+     * 
+     * @return the size
+     */
+    abstract int sizeInBytes();
+
+    /**
+     * Returns an independent copy.
+     * 
+     * @return the copy
+     */
+    abstract RoaringContainer copy();
+
+    /**
+     * Returns the values present in both containers.
+     * 
+     * @param other the container to intersect with
+     * @return a new container
+     */
+    RoaringContainer and(RoaringContainer other) {
+        if (this instanceof ArrayContainer) {
+            return ((ArrayContainer) this).filter(other, true);
+        }
+        if (other instanceof ArrayContainer) {
+            return ((ArrayContainer) other).filter(this, true);
+        }
+        
+        long[] words = toWords();
+        WordOps.and(words, 0, other.words(), 0, WORDS);
+        return fromWords(words);
+    }
+
+    /**
+     * Returns the values present in either container.
+     * 
+     * @param other the container to unite with
+     * @return a new container
+     */
+    RoaringContainer or(RoaringContainer other) {
+        if (this instanceof ArrayContainer && other instanceof ArrayContainer
+                && cardinality() + other.cardinality() <= MAX_ARRAY) {
+            return ((ArrayContainer) this).merge((ArrayContainer) other);
+        }
+        
+        long[] words = toWords();
+        WordOps.or(words, 0, other.words(), 0, WORDS);
+        return fromWords(words);
+    }
+
+    /**
+     * Returns the values of this container that are not in the other.
+     * 
+     * @param other the container to subtract
+     * @return a new container
+     */
+    RoaringContainer andNot(RoaringContainer other) {
+        if (this instanceof ArrayContainer) {
+            return ((ArrayContainer) this).filter(other, false);
+        }
+        
+        long[] words = toWords();
+        WordOps.andNot(words, 0, other.words(), 0, WORDS);
+        return fromWords(words);
+    }
+
+    /**
+     * Counts the values present in both containers without building the
+     * intersection. Array and run containers override this; the version
+     * here handles two bitmaps with a word-wise popcount.
+     * 
+     * @param other the container to intersect with
+     * @return the size of the intersection
+     */
+    int andCardinality(RoaringContainer other) {
+        if (!(other instanceof BitmapContainer)) {
+            return other.andCardinality(this);
+        }
+        return WordOps.andCardinality(words(), 0, other.words(), 0, WORDS);
+    }
+
+    /**
+     * Returns the same values in whichever kind of container is smallest.
+     * 
+     * @return the cheapest container
+     */
+    RoaringContainer optimize() {
+        return fromWords(toWords());
+    }
+
+    /**
+     * Builds the smallest container holding the bits of a bitmap.
+     * 
+     * @param words a bitmap of {@link #WORDS} words, which may be kept
+     * @return the container
+     */
+    static RoaringContainer fromWords(long[] words) {
+        int cardinality = 0;
+        int runs = 0;
+        long previousTop = 0;
+        for (long word : words) {
+            cardinality += Long.bitCount(word);
+            // a run starts at each set bit whose lower neighbour is clear
+            runs += Long.bitCount(word & ~((word << 1) | previousTop));
+            previousTop = word >>> 63;
+        }
+        
+        int runBytes = 4 * runs;
+        if (runBytes < 2 * cardinality && runBytes < 8 * WORDS) {
+            return RunContainer.fromWords(words, runs, cardinality);
+        }
+        if (cardinality <= MAX_ARRAY) {
+            return ArrayContainer.fromWords(words, cardinality);
+        }
+        return new BitmapContainer(words, cardinality);
+    }
+
+    /**
+     * Up to {@link #MAX_ARRAY} values in a sorted char array.
+     */
+    static class ArrayContainer extends RoaringContainer {
+        private char[] values;
+        private int cardinality;
+        
+        ArrayContainer() {
+            values = new char[4];
+        }
+        
+        private ArrayContainer(char[] values, int cardinality) {
+            this.values = values;
+            this.cardinality = cardinality;
+        }
+        
+        static ArrayContainer fromWords(long[] words, int cardinality) {
+            char[] values = new char[cardinality];
+            int count = 0;
+            for (int i = 0; i < WORDS; i++) {
+                for (long word = words[i]; word != 0; word &= word - 1) {
+                    values[count++] = (char) ((i << 6) + Long.numberOfTrailingZeros(word));
+                }
+            }
+            return new ArrayContainer(values, cardinality);
+        }
+        
+        @Override
+        int cardinality() {
+            return cardinality;
+        }
+        
+        @Override
+        boolean contains(int low) {
+            return Arrays.binarySearch(values, 0, cardinality, (char) low) >= 0;
+        }
+        
+        @Override
+        RoaringContainer add(int low) {
+            int index = Arrays.binarySearch(values, 0, cardinality, (char) low);
+            if (index >= 0) return this;
+            
+            if (cardinality == MAX_ARRAY) {
+                return new BitmapContainer(toWords(), cardinality).add(low);
+            }
+            index = -index - 1;
+            if (cardinality == values.length) {
+                values = Arrays.copyOf(values, Math.min(MAX_ARRAY, Math.max(4, cardinality * 2)));
+            }
+            System.arraycopy(values, index, values, index + 1, cardinality - index);
+            values[index] = (char) low;
+            cardinality++;
+            return this;
+        }
+        
+        @Override
+        RoaringContainer remove(int low) {
+            int index = Arrays.binarySearch(values, 0, cardinality, (char) low);
+            if (index >= 0) {
+                System.arraycopy(values, index + 1, values, index, cardinality - index - 1);
+                cardinality--;
+            }
+            return this;
+        }
+        
+        @Override
+        int first() {
+            return values[0];
+        }
+        
+        @Override
+        int last() {
+            return values[cardinality - 1];
+        }
+        
+        @Override
+        boolean allMatch(int base, IntPredicate predicate) {
+            for (int i = 0; i < cardinality; i++) {
+                if (!predicate.test(base | values[i])) return false;
+            }
+            return true;
+        }
+        
+        @Override
+        long[] toWords() {
+            long[] words = new long[WORDS];
+            for (int i = 0; i < cardinality; i++) {
+                words[values[i] >>> 6] |= 1L << values[i];
+            }
+            return words;
+        }
+        
+        @Override
+        int sizeInBytes() {
+            return 16 + 2 * values.length;
+        }
+        
+        @Override
+        RoaringContainer copy() {
+            return new ArrayContainer(Arrays.copyOf(values, cardinality), cardinality);
+        }
+        
+        @Override
+        int rangeCardinality(int lo, int hi) {
+            return upperBound(hi) - lowerBound(lo);
+        }
+        
+        @Override
+        int ceiling(int low) {
+            int index = lowerBound(low);
+            return index < cardinality ? values[index] : -1;
+        }
+        
+        @Override
+        int floor(int low) {
+            int index = upperBound(low) - 1;
+            return index >= 0 ? values[index] : -1;
+        }
+        
+        private int lowerBound(int low) {
+            int index = Arrays.binarySearch(values, 0, cardinality, (char) low);
+            return index >= 0 ? index : -index - 1;
+        }
+        
+        private int upperBound(int low) {
+            int index = Arrays.binarySearch(values, 0, cardinality, (char) low);
+            return index >= 0 ? index + 1 : -index - 1;
+        }
+        
+        @Override
+        int andCardinality(RoaringContainer other) {
+            int count = 0;
+            if (other instanceof ArrayContainer) {
+                ArrayContainer that = (ArrayContainer) other;
+                int i = 0;
+                int j = 0;
+                while (i < cardinality && j < that.cardinality) {
+                    char a = values[i];
+                    char b = that.values[j];
+                    if (a <= b) {
+                        i++;
+                    }
+                    if (b <= a) {
+                        j++;
+                    }
+                    if (a == b) {
+                        count++;
+                    }
+                }
+                return count;
+            }
+            
+            for (int i = 0; i < cardinality; i++) {
+                if (other.contains(values[i])) {
+                    count++;
+                }
+            }
+            return count;
+        }
+        
+        /**
+         * Keeps the values that are, or are not, in another container.
+         */
+        ArrayContainer filter(RoaringContainer other, boolean present) {
+            char[] kept = new char[cardinality];
+            int count = 0;
+            for (int i = 0; i < cardinality; i++) {
+                if (other.contains(values[i]) == present) {
+                    kept[count++] = values[i];
+                }
+            }
+            return new ArrayContainer(kept, count);
+        }
+        
+        /**
+         * Merges two sorted arrays whose union fits in an array container.
+         */
+        ArrayContainer merge(ArrayContainer other) {
+            char[] merged = new char[cardinality + other.cardinality];
+            int i = 0;
+            int j = 0;
+            int count = 0;
+            while (i < cardinality && j < other.cardinality) {
+                char a = values[i];
+                char b = other.values[j];
+                if (a <= b) {
+                    i++;
+                }
+                if (b <= a) {
+                    j++;
+                }
+                merged[count++] = a <= b ? a : b;
+            }
+            while (i < cardinality) {
+                merged[count++] = values[i++];
+            }
+            while (j < other.cardinality) {
+                merged[count++] = other.values[j++];
+            }
+            return new ArrayContainer(merged, count);
+        }
+    }
+
+    /**
+     * One bit per value of the chunk, for more than {@link #MAX_ARRAY} values.
+     */
+    static class BitmapContainer extends RoaringContainer {
+        private long[] words;
+        private int cardinality;
+        
+        BitmapContainer(long[] words, int cardinality) {
+            this.words = words;
+            this.cardinality = cardinality;
+        }
+        
+        @Override
+        int cardinality() {
+            return cardinality;
+        }
+        
+        @Override
+        boolean contains(int low) {
+            return (words[low >>> 6] & (1L << low)) != 0;
+        }
+        
+        @Override
+        RoaringContainer add(int low) {
+            long bit = 1L << low;
+            if ((words[low >>> 6] & bit) != 0) return this;
+            
+            words[low >>> 6] |= bit;
+            if (++cardinality == 64 * WORDS) {
+                // a full chunk is a single run
+                return RunContainer.fromWords(words, 1, cardinality);
+            }
+            return this;
+        }
+        
+        @Override
+        RoaringContainer remove(int low) {
+            long bit = 1L << low;
+            if ((words[low >>> 6] & bit) == 0) return this;
+            
+            words[low >>> 6] &= ~bit;
+            if (--cardinality <= MAX_ARRAY) {
+                return ArrayContainer.fromWords(words, cardinality);
+            }
+            return this;
+        }
+        
+        @Override
+        int first() {
+            int i = 0;
+            while (words[i] == 0) {
+                i++;
+            }
+            return (i << 6) + Long.numberOfTrailingZeros(words[i]);
+        }
+        
+        @Override
+        int last() {
+            int i = WORDS - 1;
+            while (words[i] == 0) {
+                i--;
+            }
+            return (i << 6) + 63 - Long.numberOfLeadingZeros(words[i]);
+        }
+        
+        @Override
+        boolean allMatch(int base, IntPredicate predicate) {
+            for (int i = 0; i < WORDS; i++) {
+                for (long word = words[i]; word != 0; word &= word - 1) {
+                    if (!predicate.test(base | ((i << 6) + Long.numberOfTrailingZeros(word)))) return false;
+                }
+            }
+            return true;
+        }
+        
+        @Override
+        long[] toWords() {
+            return words.clone();
+        }
+        
+        @Override
+        long[] words() {
+            return words;
+        }
+        
+        @Override
+        int rangeCardinality(int lo, int hi) {
+            return WordOps.rangeCardinality(words, lo, hi);
+        }
+        
+        @Override
+        int ceiling(int low) {
+            int index = low >>> 6;
+            long word = words[index] & (-1L << low);
+            while (word == 0) {
+                if (++index == WORDS) return -1;
+                word = words[index];
+            }
+            return (index << 6) + Long.numberOfTrailingZeros(word);
+        }
+        
+        @Override
+        int floor(int low) {
+            int index = low >>> 6;
+            long word = words[index] & (-1L >>> (63 - (low & 63)));
+            while (word == 0) {
+                if (--index < 0) return -1;
+                word = words[index];
+            }
+            return (index << 6) + 63 - Long.numberOfLeadingZeros(word);
+        }
+        
+        @Override
+        int sizeInBytes() {
+            return 32 + 8 * WORDS;
+        }
+        
+        @Override
+        RoaringContainer copy() {
+            return new BitmapContainer(words.clone(), cardinality);
+        }
+    }
+
+    /**
+     * Runs of consecutive values, each stored as its start and its length
+     * minus one in adjacent chars. Runs are sorted and never touch, so two
+     * runs are always separated by at least one missing value.
+     */
+    static class RunContainer extends RoaringContainer {
+        private char[] runs;
+        private int runCount;
+        private int cardinality;
+        
+        private RunContainer(char[] runs, int runCount, int cardinality) {
+            this.runs = runs;
+            this.runCount = runCount;
+            this.cardinality = cardinality;
+        }
+        
+        static RunContainer fromWords(long[] words, int runCount, int cardinality) {
+            char[] runs = new char[2 * runCount];
+            int count = 0;
+            int i = 0;
+            long word = words[0];
+            while (true) {
+                while (word == 0 && i < WORDS - 1) {
+                    word = words[++i];
+                }
+                if (word == 0) break;
+                
+                int start = (i << 6) + Long.numberOfTrailingZeros(word);
+                // set the bits below the run so the run is the word's trailing ones
+                word |= word - 1;
+                while (word == -1L && i < WORDS - 1) {
+                    word = words[++i];
+                }
+                int end = word == -1L ? 65535 : (i << 6) + Long.numberOfTrailingZeros(~word) - 1;
+                runs[2 * count] = (char) start;
+                runs[2 * count + 1] = (char) (end - start);
+                count++;
+                if (word == -1L) break;
+                
+                // clear the trailing ones
+                word &= word + 1;
+            }
+            return new RunContainer(runs, runCount, cardinality);
+        }
+        
+        private int start(int run) {
+            return runs[2 * run];
+        }
+        
+        private int end(int run) {
+            return runs[2 * run] + runs[2 * run + 1];
+        }
+        
+        /**
+         * Finds the last run starting at or before a value.
+         * 
+         * @return the run index, or -1 if every run starts after the value
+         */
+        private int runBefore(int low) {
+            int lo = 0;
+            int hi = runCount - 1;
+            while (lo <= hi) {
+                int mid = (lo + hi) >>> 1;
+                if (start(mid) <= low) {
+                    lo = mid + 1;
+                } else {
+                    hi = mid - 1;
+                }
+            }
+            return hi;
+        }
+        
+        @Override
+        int cardinality() {
+            return cardinality;
+        }
+        
+        @Override
+        boolean contains(int low) {
+            int run = runBefore(low);
+            return run >= 0 && low <= end(run);
+        }
+        
+        @Override
+        RoaringContainer add(int low) {
+            int run = runBefore(low);
+            if (run >= 0 && low <= end(run)) return this;
+            
+            boolean extendsPrevious = run >= 0 && end(run) + 1 == low;
+            boolean extendsNext = run + 1 < runCount && start(run + 1) == low + 1;
+            if (extendsPrevious && extendsNext) {
+                runs[2 * run + 1] = (char) (end(run + 1) - start(run));
+                deleteRun(run + 1);
+            } else if (extendsPrevious) {
+                runs[2 * run + 1]++;
+            } else if (extendsNext) {
+                runs[2 * run + 2] = (char) low;
+                runs[2 * run + 3]++;
+            } else {
+                insertRun(run + 1, low, low);
+            }
+            cardinality++;
+            return shrinkIfLarge();
+        }
+        
+        @Override
+        RoaringContainer remove(int low) {
+            int run = runBefore(low);
+            if (run < 0 || low > end(run)) return this;
+            
+            int start = start(run);
+            int end = end(run);
+            if (start == end) {
+                deleteRun(run);
+            } else if (low == start) {
+                runs[2 * run]++;
+                runs[2 * run + 1]--;
+            } else if (low == end) {
+                runs[2 * run + 1]--;
+            } else {
+                runs[2 * run + 1] = (char) (low - 1 - start);
+                insertRun(run + 1, low + 1, end);
+            }
+            cardinality--;
+            return shrinkIfLarge();
+        }
+        
+        private void insertRun(int run, int start, int end) {
+            if (2 * runCount == runs.length) {
+                runs = Arrays.copyOf(runs, Math.max(4, runs.length * 2));
+            }
+            System.arraycopy(runs, 2 * run, runs, 2 * run + 2, 2 * (runCount - run));
+            runs[2 * run] = (char) start;
+            runs[2 * run + 1] = (char) (end - start);
+            runCount++;
+        }
+        
+        private void deleteRun(int run) {
+            System.arraycopy(runs, 2 * run + 2, runs, 2 * run, 2 * (runCount - run - 1));
+            runCount--;
+        }
+        
+        /**
+         * Switches to an array or bitmap once the runs take more space than either.
+         */
+        private RoaringContainer shrinkIfLarge() {
+            int runBytes = 4 * runCount;
+            if (runBytes > 2 * cardinality || runBytes > 8 * WORDS) {
+                return fromWords(toWords());
+            }
+            return this;
+        }
+        
+        @Override
+        int first() {
+            return start(0);
+        }
+        
+        @Override
+        int last() {
+            return end(runCount - 1);
+        }
+        
+        @Override
+        boolean allMatch(int base, IntPredicate predicate) {
+            for (int run = 0; run < runCount; run++) {
+                for (int low = start(run), end = end(run); low <= end; low++) {
+                    if (!predicate.test(base | low)) return false;
+                }
+            }
+            return true;
+        }
+        
+        @Override
+        long[] toWords() {
+            long[] words = new long[WORDS];
+            for (int run = 0; run < runCount; run++) {
+                WordOps.setRange(words, start(run), end(run));
+            }
+            return words;
+        }
+        
+        @Override
+        int rangeCardinality(int lo, int hi) {
+            int count = 0;
+            for (int run = Math.max(0, runBefore(lo)); run < runCount && start(run) <= hi; run++) {
+                int overlap = Math.min(end(run), hi) - Math.max(start(run), lo) + 1;
+                if (overlap > 0) {
+                    count += overlap;
+                }
+            }
+            return count;
+        }
+        
+        @Override
+        int ceiling(int low) {
+            int run = runBefore(low);
+            if (run >= 0 && low <= end(run)) return low;
+            
+            return run + 1 < runCount ? start(run + 1) : -1;
+        }
+        
+        @Override
+        int floor(int low) {
+            int run = runBefore(low);
+            return run >= 0 ? Math.min(low, end(run)) : -1;
+        }
+        
+        @Override
+        int andCardinality(RoaringContainer other) {
+            if (other instanceof ArrayContainer) {
+                return other.andCardinality(this);
+            }
+            
+            int count = 0;
+            if (other instanceof RunContainer) {
+                // sweep both run lists, adding the overlap of each pair that meets
+                RunContainer that = (RunContainer) other;
+                int i = 0;
+                int j = 0;
+                while (i < runCount && j < that.runCount) {
+                    int overlap = Math.min(end(i), that.end(j)) - Math.max(start(i), that.start(j)) + 1;
+                    if (overlap > 0) {
+                        count += overlap;
+                    }
+                    if (end(i) < that.end(j)) {
+                        i++;
+                    } else {
+                        j++;
+                    }
+                }
+                return count;
+            }
+            
+            long[] words = other.words();
+            for (int run = 0; run < runCount; run++) {
+                count += WordOps.rangeCardinality(words, start(run), end(run));
+            }
+            return count;
+        }
+        
+        @Override
+        int sizeInBytes() {
+            return 24 + 2 * runs.length;
+        }
+        
+        @Override
+        RoaringContainer copy() {
+            return new RunContainer(Arrays.copyOf(runs, 2 * runCount), runCount, cardinality);
+        }
+    }
+}
\ No newline at end of file
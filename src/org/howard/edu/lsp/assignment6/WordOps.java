@@ -0,0 +1,97 @@
+package org.howard.edu.lsp.assignment6;
+
+/**
+ * Bulk operations over ranges of 64-bit bitmap words, shared by the bitmap
+ * stores and containers. Each is a plain counted loop over arrays with no
+ * branches in the body, the shape the JIT compiles to SIMD instructions,
+ * so the set algebra processes several words per instruction without
+ * depending on the incubating Vector API.
+ */
+final class WordOps {
+    private WordOps() {
+    }
+
+    /**
+     * Sets dst[dstFrom + i] &amp;= src[srcFrom + i] for i below length.
+     */
+    static void and(long[] dst, int dstFrom, long[] src, int srcFrom, int length) {
+        for (int i = 0; i < length; i++) {
+            dst[dstFrom + i] &= src[srcFrom + i];
+        }
+    }
+
+    /**
+     * Sets dst[dstFrom + i] |= src[srcFrom + i] for i below length.
+     */
+    static void or(long[] dst, int dstFrom, long[] src, int srcFrom, int length) {
+        for (int i = 0; i < length; i++) {
+            dst[dstFrom + i] |= src[srcFrom + i];
+        }
+    }
+
+    /**
+     * Sets dst[dstFrom + i] &amp;= ~src[srcFrom + i] for i below length.
+     */
+    static void andNot(long[] dst, int dstFrom, long[] src, int srcFrom, int length) {
+        for (int i = 0; i < length; i++) {
+            dst[dstFrom + i] &= ~src[srcFrom + i];
+        }
+    }
+
+    /**
+     * Counts the bits set in both ranges without storing the intersection.
+     */
+    static int andCardinality(long[] a, int aFrom, long[] b, int bFrom, int length) {
+        int count = 0;
+        for (int i = 0; i < length; i++) {
+            count += Long.bitCount(a[aFrom + i] & b[bFrom + i]);
+        }
+        return count;
+    }
+
+    /**
+     * Counts the bits set in a range.
+     */
+    static int cardinality(long[] words, int from, int length) {
+        int count = 0;
+        for (int i = 0; i < length; i++) {
+            count += Long.bitCount(words[from + i]);
+        }
+        return count;
+    }
+
+    /**
+     * Sets the bits from bit start to bit end inclusive.
+     */
+    static void setRange(long[] words, int start, int end) {
+        int first = start >>> 6;
+        int last = end >>> 6;
+        long firstMask = -1L << start;
+        long lastMask = -1L >>> (63 - (end & 63));
+        if (first == last) {
+            words[first] |= firstMask & lastMask;
+            return;
+        }
+        words[first] |= firstMask;
+        for (int i = first + 1; i < last; i++) {
+            words[i] = -1L;
+        }
+        words[last] |= lastMask;
+    }
+
+    /**
+     * Counts the bits set from bit start to bit end inclusive.
+     */
+    static int rangeCardinality(long[] words, long start, long end) {
+        int first = (int) (start >>> 6);
+        int last = (int) (end >>> 6);
+        long firstMask = -1L << start;
+        long lastMask = -1L >>> (63 - (end & 63));
+        if (first == last) {
+            return Long.bitCount(words[first] & firstMask & lastMask);
+        }
+        return Long.bitCount(words[first] & firstMask)
+            + cardinality(words, first + 1, last - first - 1)
+            + Long.bitCount(words[last] & lastMask);
+    }
+}
\ No newline at end of file